@@ -0,0 +1,57 @@
+package bench;
+
+import src.JSONArray;
+import src.JSONHash;
+import src.JSONInteger;
+import src.JSONString;
+
+/**
+ * Times JSONArray.toString on arrays of growing size.  If printing is
+ * linear, the time per element stays about the same as the size doubles.
+ *
+ * Usage: java bench.ArrayToStringBench [largest size]
+ */
+public class ArrayToStringBench {
+
+  /**
+   * Run the benchmark.
+   */
+  public static void main(String[] args) {
+    int largest = (args.length > 0) ? Integer.parseInt(args[0]) : 1_600_000;
+    // Warm up, so that the first sizes are not timed in the interpreter.
+    for (int i = 0; i < 5; i++) {
+      build(50_000).toString();
+    } // for
+    for (int size = 25_000; size <= largest; size *= 2) {
+      JSONArray array = build(size);
+      long best = Long.MAX_VALUE;
+      int length = 0;
+      for (int round = 0; round < 5; round++) {
+        long start = System.nanoTime();
+        length = array.toString().length();
+        best = Math.min(best, System.nanoTime() - start);
+      } // for
+      System.out.printf("%,10d elements: %,8d us, %6.1f ns/element (%,d chars)%n", size,
+          best / 1000, (double) best / size, length);
+    } // for
+  } // main(String[])
+
+  /**
+   * Build an array of size elements, alternating numbers and small hashes.
+   */
+  static JSONArray build(int size) {
+    JSONArray array = new JSONArray();
+    for (int i = 0; i < size; i++) {
+      if (i % 2 == 0) {
+        array.add(new JSONInteger(i));
+      } else {
+        JSONHash hash = new JSONHash();
+        hash.set(new JSONString("id"), new JSONInteger(i));
+        hash.set(new JSONString("name"), new JSONString("item" + i));
+        array.add(hash);
+      } // if/else
+    } // for
+    return array;
+  } // build(int)
+
+} // class ArrayToStringBench
@@ -0,0 +1,80 @@
+package bench;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import src.JSON;
+import src.JSONArray;
+import src.JSONHash;
+import src.JSONValue;
+
+/**
+ * Saves a document of records as JSON text and in binary form, then
+ * times loading each file: parsing the text with JSON.parseFile, and
+ * reading the binary form with JSON.readBinary, both just opening it
+ * and then visiting every value.
+ *
+ * Usage: java bench.BinaryBench [records]
+ */
+public class BinaryBench {
+
+  /**
+   * Run the benchmark.
+   */
+  public static void main(String[] args) throws Exception {
+    int records = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+    String document = LazyParseBench.document(records);
+    Path text = Files.createTempFile("bench", ".json");
+    Path binary = Files.createTempFile("bench", ".jsnb");
+    try {
+      Files.write(text, document.getBytes(StandardCharsets.UTF_8));
+      JSON.writeBinary(JSON.parse(document), binary);
+      System.out.printf("%,d records: %,d bytes of text, %,d bytes of binary%n", records,
+          Files.size(text), Files.size(binary));
+      long parse = Long.MAX_VALUE;
+      long open = Long.MAX_VALUE;
+      long walk = Long.MAX_VALUE;
+      int seen = 0;
+      for (int round = 0; round < 20; round++) {
+        // Collect the last round's garbage, so that it is not charged to this one
+        System.gc();
+        long start = System.nanoTime();
+        seen += visit(JSON.parseFile(text, JSON.MappingMode.AUTO));
+        parse = Math.min(parse, System.nanoTime() - start);
+        System.gc();
+        start = System.nanoTime();
+        JSONValue root = JSON.readBinary(binary);
+        open = Math.min(open, System.nanoTime() - start);
+        seen += visit(root);
+        walk = Math.min(walk, System.nanoTime() - start);
+      } // for
+      System.out.printf("parseFile and visit:  %8.2f ms%n", parse / 1e6);
+      System.out.printf("readBinary:           %8.2f ms%n", open / 1e6);
+      System.out.printf("readBinary and visit: %8.2f ms (%.1fx)   (%d)%n", walk / 1e6,
+          (double) parse / walk, seen);
+    } finally {
+      Files.delete(text);
+      Files.delete(binary);
+    } // try/finally
+  } // main(String[])
+
+  /**
+   * Visit every value, and count them.
+   */
+  static int visit(JSONValue value) {
+    int count = 1;
+    if (value instanceof JSONHash) {
+      JSONHash hash = (JSONHash) value;
+      for (int i = 0; i < hash.size(); i++) {
+        count += visit(hash.valueAt(i));
+      } // for
+    } else if (value instanceof JSONArray) {
+      JSONArray array = (JSONArray) value;
+      for (int i = 0; i < array.size(); i++) {
+        count += visit(array.get(i));
+      } // for
+    } // if/else
+    return count;
+  } // visit(JSONValue)
+
+} // class BinaryBench
@@ -0,0 +1,106 @@
+package bench;
+
+import java.nio.charset.StandardCharsets;
+import src.FieldMask;
+import src.JSONParser;
+import src.JSONValue;
+
+/**
+ * Parses an array of wide event records, each with 200 fields, in full
+ * and with a FieldMask that keeps four of them, and reports how long
+ * each parse took and how much heap the result holds.
+ *
+ * Usage: java bench.FieldMaskBench [records]
+ */
+public class FieldMaskBench {
+
+  /**
+   * The number of fields in each record.
+   */
+  static final int FIELDS = 200;
+
+  /**
+   * Run the benchmark.
+   */
+  public static void main(String[] args) throws Exception {
+    int records = (args.length > 0) ? Integer.parseInt(args[0]) : 20_000;
+    byte[] input = document(records).getBytes(StandardCharsets.UTF_8);
+    System.out.printf("%,d records, %,d bytes%n", records, input.length);
+    FieldMask mask = FieldMask.of("id", "timestamp", "user.id", "attributes.field150");
+    for (int round = 0; round < 5; round++) {
+      run("parse          ", input, null);
+      run("parse(mask)    ", input, mask);
+    } // for
+  } // main(String[])
+
+  /**
+   * Parse input, with mask unless it is null, and report on it.
+   */
+  static void run(String label, byte[] input, FieldMask mask) throws Exception {
+    long before = usedHeap();
+    long start = System.nanoTime();
+    JSONParser parser = new JSONParser(input);
+    JSONValue result = (mask == null) ? parser.parse() : parser.parse(mask);
+    long elapsed = System.nanoTime() - start;
+    long after = usedHeap();
+    System.out.printf("%s: %7.1f ms, %,12d bytes retained%n", label, elapsed / 1e6,
+        after - before);
+    if (result.hashCode() == 42) {
+      System.out.println();
+    } // if
+  } // run(String, byte[], FieldMask)
+
+  /**
+   * Build an array of event records.  Most fields are in a nested
+   * attributes object, as in many logging formats.
+   */
+  static String document(int records) {
+    StringBuilder builder = new StringBuilder();
+    builder.append('[');
+    for (int i = 0; i < records; i++) {
+      if (i > 0) {
+        builder.append(",\n");
+      } // if
+      builder.append("{\"id\": ").append(i)
+          .append(", \"timestamp\": \"2024-05-01T12:").append(i % 60).append(":00Z\"")
+          .append(", \"user\": {\"id\": ").append(i % 977)
+          .append(", \"name\": \"user ").append(i % 977).append("\"}")
+          .append(", \"attributes\": {");
+      for (int f = 0; f < FIELDS; f++) {
+        if (f > 0) {
+          builder.append(", ");
+        } // if
+        builder.append("\"field").append(f).append("\": ");
+        switch (f % 4) {
+          case 0:
+            builder.append(i * f);
+            break;
+          case 1:
+            builder.append("\"value ").append(f).append('"');
+            break;
+          case 2:
+            builder.append((i % 100) * 0.5);
+            break;
+          default:
+            builder.append("[true, null]");
+            break;
+        } // switch
+      } // for
+      builder.append("}}");
+    } // for
+    builder.append(']');
+    return builder.toString();
+  } // document(int)
+
+  /**
+   * Get the amount of heap in use after a collection.
+   */
+  static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    } // for
+    return runtime.totalMemory() - runtime.freeMemory();
+  } // usedHeap()
+
+} // class FieldMaskBench
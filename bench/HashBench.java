@@ -0,0 +1,72 @@
+package bench;
+
+import java.util.HashMap;
+import src.JSONHash;
+import src.JSONInteger;
+import src.JSONString;
+import src.JSONValue;
+
+/**
+ * Times JSONHash.set and JSONHash.get for hashes of 10, 1,000, and
+ * 1,000,000 keys, with java.util.HashMap as a point of comparison.
+ *
+ * Usage: java bench.HashBench
+ */
+public class HashBench {
+
+  /**
+   * The hash sizes to try.
+   */
+  static final int[] SIZES = {10, 1_000, 1_000_000};
+
+  /**
+   * Run the benchmark.
+   */
+  public static void main(String[] args) {
+    for (int size : SIZES) {
+      JSONString[] keys = new JSONString[size];
+      for (int i = 0; i < size; i++) {
+        keys[i] = new JSONString("key" + i);
+        keys[i].hashCode();
+      } // for
+      JSONValue value = new JSONInteger(1);
+      // Enough rounds that every size does about the same total work.
+      int rounds = Math.max(3, 5_000_000 / size);
+      long jsonSet = Long.MAX_VALUE;
+      long jsonGet = Long.MAX_VALUE;
+      long mapSet = Long.MAX_VALUE;
+      long mapGet = Long.MAX_VALUE;
+      long found = 0;
+      for (int round = 0; round < rounds; round++) {
+        long start = System.nanoTime();
+        JSONHash hash = new JSONHash();
+        for (JSONString key : keys) {
+          hash.set(key, value);
+        } // for
+        jsonSet = Math.min(jsonSet, System.nanoTime() - start);
+        start = System.nanoTime();
+        for (JSONString key : keys) {
+          found += (hash.get(key) != null) ? 1 : 0;
+        } // for
+        jsonGet = Math.min(jsonGet, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        HashMap<JSONString, JSONValue> map = new HashMap<>();
+        for (JSONString key : keys) {
+          map.put(key, value);
+        } // for
+        mapSet = Math.min(mapSet, System.nanoTime() - start);
+        start = System.nanoTime();
+        for (JSONString key : keys) {
+          found += (map.get(key) != null) ? 1 : 0;
+        } // for
+        mapGet = Math.min(mapGet, System.nanoTime() - start);
+      } // for
+      System.out.printf("%,9d keys: JSONHash set %6.1f get %6.1f ns/key;"
+          + " HashMap put %6.1f get %6.1f ns/key (%d)%n", size, (double) jsonSet / size,
+          (double) jsonGet / size, (double) mapSet / size, (double) mapGet / size,
+          found / (2L * rounds * size));
+    } // for
+  } // main(String[])
+
+} // class HashBench
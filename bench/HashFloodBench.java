@@ -0,0 +1,78 @@
+package bench;
+
+import java.nio.charset.StandardCharsets;
+import src.JSONHash;
+import src.JSONParser;
+import src.JSONString;
+
+/**
+ * Parses one object whose keys all have the same String hash code, as an
+ * attacker might send, and one object with as many ordinary keys, and
+ * reports how long each took.  Keys made of the blocks "Aa" and "BB"
+ * collide, since those two blocks have the same hash code.  JSONHash
+ * reseeds its index once collisions pile up, so both parses take about
+ * the same time.
+ *
+ * Usage: java bench.HashFloodBench [keys]
+ */
+public class HashFloodBench {
+
+  /**
+   * Run the benchmark.
+   */
+  public static void main(String[] args) throws Exception {
+    int count = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+    String[] colliding = new String[count];
+    String[] ordinary = new String[count];
+    int blocks = 32 - Integer.numberOfLeadingZeros(count - 1);
+    for (int i = 0; i < count; i++) {
+      StringBuilder key = new StringBuilder();
+      for (int b = 0; b < blocks; b++) {
+        key.append(((i >>> b) & 1) == 0 ? "Aa" : "BB");
+      } // for
+      colliding[i] = key.toString();
+      ordinary[i] = String.format("key%0" + (2 * blocks - 3) + "d", i);
+    } // for
+    System.out.printf("%,d keys, all with hash code %d%n", count, colliding[0].hashCode());
+    byte[] collidingInput = document(colliding);
+    byte[] ordinaryInput = document(ordinary);
+    for (int round = 0; round < 5; round++) {
+      run("colliding keys", collidingInput);
+      run("ordinary keys ", ordinaryInput);
+    } // for
+  } // main(String[])
+
+  /**
+   * Parse input and report how long it took.
+   */
+  static void run(String label, byte[] input) throws Exception {
+    long start = System.nanoTime();
+    JSONHash hash = (JSONHash) new JSONParser(input).parse();
+    long elapsed = System.nanoTime() - start;
+    long found = 0;
+    start = System.nanoTime();
+    for (int i = 0; i < hash.size(); i++) {
+      found += (hash.get(new JSONString(hash.keyAt(i).getValue())) != null) ? 1 : 0;
+    } // for
+    long lookups = System.nanoTime() - start;
+    System.out.printf("%s: parse %8.1f ms, look up every key %8.1f ms (%,d found)%n", label,
+        elapsed / 1e6, lookups / 1e6, found);
+  } // run(String, byte[])
+
+  /**
+   * Build an object with the given keys.
+   */
+  static byte[] document(String[] keys) {
+    StringBuilder builder = new StringBuilder();
+    builder.append('{');
+    for (int i = 0; i < keys.length; i++) {
+      if (i > 0) {
+        builder.append(",\n");
+      } // if
+      builder.append('"').append(keys[i]).append("\": ").append(i);
+    } // for
+    builder.append('}');
+    return builder.toString().getBytes(StandardCharsets.UTF_8);
+  } // document(String[])
+
+} // class HashFloodBench
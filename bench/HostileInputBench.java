@@ -0,0 +1,125 @@
+package bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import src.JSONParser;
+
+/**
+ * Feeds the parser hostile input, each as an endless stream of UTF-8
+ * bytes, and reports how long it took to fail and how much input it read
+ * first.  With the parser's limits set, each one fails soon after it
+ * breaks its limit, however long the stream would go on.  Nesting much
+ * deeper than the default limit is also parsed, to show that depth no
+ * longer depends on the thread's stack.
+ *
+ * Usage: java bench.HostileInputBench [depth]
+ */
+public class HostileInputBench {
+
+  /**
+   * Repeats a prefix and then a pattern forever, counting what is read.
+   */
+  static class Endless extends InputStream {
+    /**
+     * What comes first.
+     */
+    byte[] prefix;
+
+    /**
+     * What repeats after the prefix.
+     */
+    byte[] pattern;
+
+    /**
+     * The number of bytes read so far.
+     */
+    long count;
+
+    /**
+     * Build a stream of prefix followed by pattern, over and over.
+     */
+    Endless(String prefix, String pattern) {
+      this.prefix = prefix.getBytes();
+      this.pattern = pattern.getBytes();
+    } // Endless(String, String)
+
+    @Override
+    public int read() {
+      byte[] one = new byte[1];
+      read(one, 0, 1);
+      return one[0] & 0xff;
+    } // read()
+
+    @Override
+    public int read(byte[] buf, int off, int len) {
+      for (int i = 0; i < len; i++) {
+        buf[off + i] = (this.count < this.prefix.length) ? this.prefix[(int) this.count]
+            : this.pattern[(int) ((this.count - this.prefix.length) % this.pattern.length)];
+        ++this.count;
+      } // for
+      return len;
+    } // read(byte[], int, int)
+  } // class Endless
+
+  /**
+   * Run the benchmark.
+   */
+  public static void main(String[] args) throws Exception {
+    int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+    for (int round = 0; round < 3; round++) {
+      run("deep nesting, default depth", new Endless("", "["), null);
+      run("long string, 64 KB limit", new Endless("[\"", "x"), "string");
+      run("long document, 16 MB limit", new Endless("[", "1,"), "size");
+      run("wide object, 100,000 limit", new Endless("{", "\"k\": 1, "), "entries");
+      deep(depth);
+    } // for
+  } // main(String[])
+
+  /**
+   * Parse input with the limit called limit set, and report how it fails.
+   */
+  static void run(String label, Endless input, String limit) throws IOException {
+    JSONParser parser = new JSONParser(input);
+    if ("string".equals(limit)) {
+      parser.setMaxStringLength(64 << 10);
+    } else if ("size".equals(limit)) {
+      parser.setMaxDocumentSize(16 << 20);
+    } else if ("entries".equals(limit)) {
+      parser.setMaxEntries(100_000);
+    } // if/else
+    long start = System.nanoTime();
+    String outcome;
+    try {
+      parser.parse();
+      outcome = "parsed";
+    } catch (ParseException e) {
+      outcome = e.getMessage().replaceAll(" at line.*", "");
+    } // try/catch
+    long elapsed = System.nanoTime() - start;
+    System.out.printf("%-28s: %8.1f ms, %,12d bytes read: %s%n", label, elapsed / 1e6,
+        input.count, outcome);
+  } // run(String, Endless, String)
+
+  /**
+   * Parse arrays nested depth levels deep, with the depth limit raised to
+   * allow them.
+   */
+  static void deep(int depth) throws Exception {
+    StringBuilder builder = new StringBuilder(2 * depth);
+    for (int i = 0; i < depth; i++) {
+      builder.append('[');
+    } // for
+    for (int i = 0; i < depth; i++) {
+      builder.append(']');
+    } // for
+    JSONParser parser = new JSONParser(builder.toString());
+    parser.setMaxDepth(depth);
+    long start = System.nanoTime();
+    parser.parse();
+    long elapsed = System.nanoTime() - start;
+    System.out.printf("%-28s: %8.1f ms, parsed%n",
+        String.format("%,d levels, limit raised", depth), elapsed / 1e6);
+  } // deep(int)
+
+} // class HostileInputBench
@@ -0,0 +1,87 @@
+package bench;
+
+import java.nio.charset.StandardCharsets;
+import src.JSONParser;
+import src.JSONValue;
+
+/**
+ * Parses an array of 100,000 records, each with the same ten keys, with
+ * and without the parser's key cache, and reports how much heap the
+ * parsed tree holds and how long the parse took.
+ *
+ * Usage: java bench.KeyCacheBench [records]
+ */
+public class KeyCacheBench {
+
+  /**
+   * The keys of every record.
+   */
+  static final String[] KEYS = {"id", "name", "email", "active", "score", "created",
+      "updated", "country", "language", "tags"};
+
+  /**
+   * Run the benchmark.
+   */
+  public static void main(String[] args) throws Exception {
+    int records = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+    byte[] input = document(records).getBytes(StandardCharsets.UTF_8);
+    System.out.printf("%,d records, %,d bytes%n", records, input.length);
+    for (int round = 0; round < 3; round++) {
+      run("no key cache", input, 0);
+      run("key cache   ", input, 256);
+    } // for
+  } // main(String[])
+
+  /**
+   * Parse input with a key cache of the given size and report on it.
+   */
+  static void run(String label, byte[] input, int cacheSize) throws Exception {
+    long before = usedHeap();
+    long start = System.nanoTime();
+    JSONParser parser = new JSONParser(input);
+    parser.setKeyCacheSize(cacheSize);
+    JSONValue result = parser.parse();
+    long elapsed = System.nanoTime() - start;
+    long after = usedHeap();
+    System.out.printf("%s: %7.1f ms, %,12d bytes retained%n", label, elapsed / 1e6,
+        after - before);
+    if (result.hashCode() == 42) {
+      System.out.println();
+    } // if
+  } // run(String, byte[], int)
+
+  /**
+   * Build an array of records.
+   */
+  static String document(int records) {
+    StringBuilder builder = new StringBuilder();
+    builder.append('[');
+    for (int i = 0; i < records; i++) {
+      if (i > 0) {
+        builder.append(',');
+      } // if
+      builder.append('{');
+      for (int k = 0; k < KEYS.length; k++) {
+        if (k > 0) {
+          builder.append(',');
+        } // if
+        builder.append('"').append(KEYS[k]).append("\":").append(i % 1000 + k);
+      } // for
+      builder.append('}');
+    } // for
+    builder.append(']');
+    return builder.toString();
+  } // document(int)
+
+  /**
+   * Get the amount of heap in use after a collection.
+   */
+  static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    } // for
+    return runtime.totalMemory() - runtime.freeMemory();
+  } // usedHeap()
+
+} // class KeyCacheBench
@@ -0,0 +1,76 @@
+package bench;
+
+import java.nio.charset.StandardCharsets;
+import src.JSON;
+import src.JSONArray;
+import src.JSONHash;
+import src.JSONString;
+import src.JSONValue;
+
+/**
+ * Reads three fields from a document of about 5 MB, once by parsing the
+ * whole tree and once by parsing lazily.
+ *
+ * Usage: java bench.LazyParseBench [records]
+ */
+public class LazyParseBench {
+
+  /**
+   * Run the benchmark.
+   */
+  public static void main(String[] args) throws Exception {
+    int records = (args.length > 0) ? Integer.parseInt(args[0]) : 40_000;
+    byte[] input = document(records).getBytes(StandardCharsets.UTF_8);
+    System.out.printf("%,d records, %,d bytes%n", records, input.length);
+    JSONString version = new JSONString("version");
+    JSONString items = new JSONString("records");
+    JSONString name = new JSONString("name");
+    long eager = Long.MAX_VALUE;
+    long lazy = Long.MAX_VALUE;
+    int found = 0;
+    for (int round = 0; round < 20; round++) {
+      long start = System.nanoTime();
+      found += read(JSON.parse(input), version, items, name, records);
+      eager = Math.min(eager, System.nanoTime() - start);
+      start = System.nanoTime();
+      found += read(JSON.parseLazy(input), version, items, name, records);
+      lazy = Math.min(lazy, System.nanoTime() - start);
+    } // for
+    System.out.printf("parse: %7.2f ms   parseLazy: %7.2f ms   (%d)%n", eager / 1e6,
+        lazy / 1e6, found);
+  } // main(String[])
+
+  /**
+   * Read the version, the number of records, and the name of the middle
+   * record.
+   */
+  static int read(JSONValue root, JSONString version, JSONString items, JSONString name,
+      int records) {
+    JSONHash hash = (JSONHash) root;
+    JSONArray array = (JSONArray) hash.get(items);
+    JSONHash middle = (JSONHash) array.get(records / 2);
+    return hash.get(version).toString().length() + array.size()
+        + middle.get(name).toString().length();
+  } // read(JSONValue, JSONString, JSONString, JSONString, int)
+
+  /**
+   * Build a document with a few fields and an array of records.
+   */
+  static String document(int records) {
+    StringBuilder builder = new StringBuilder();
+    builder.append("{\"version\": \"1.0\", \"generated\": \"2024-01-01\", \"records\": [");
+    for (int i = 0; i < records; i++) {
+      if (i > 0) {
+        builder.append(',');
+      } // if
+      builder.append("{\"id\": ").append(i)
+          .append(", \"name\": \"record ").append(i)
+          .append("\", \"score\": ").append(i * 0.25)
+          .append(", \"active\": ").append(i % 2 == 0)
+          .append(", \"tags\": [\"a\", \"b\", \"c\"], \"note\": null}");
+    } // for
+    builder.append("]}");
+    return builder.toString();
+  } // document(int)
+
+} // class LazyParseBench
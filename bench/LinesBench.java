@@ -0,0 +1,77 @@
+package bench;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import src.JSONLines;
+
+/**
+ * Reads a JSON Lines stream of records with JSONLines, first one record
+ * at a time and then in parallel on pools of 1, 2, 4, ... threads up to
+ * the number of processors, with four batches in flight.
+ *
+ * Usage: java bench.LinesBench [records]
+ */
+public class LinesBench {
+
+  /**
+   * Run the benchmark.
+   */
+  public static void main(String[] args) throws Exception {
+    int records = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+    byte[] input = document(records).getBytes(StandardCharsets.UTF_8);
+    int processors = Runtime.getRuntime().availableProcessors();
+    System.out.printf("%,d records, %,d bytes, %d processors%n", records, input.length,
+        processors);
+    long sequential = Long.MAX_VALUE;
+    for (int round = 0; round < 5; round++) {
+      long start = System.nanoTime();
+      count(new JSONLines(new ByteArrayInputStream(input)));
+      sequential = Math.min(sequential, System.nanoTime() - start);
+    } // for
+    System.out.printf("sequential:           %8.1f ms%n", sequential / 1e6);
+    for (int threads = 1; threads <= processors; threads *= 2) {
+      ExecutorService pool = Executors.newFixedThreadPool(threads);
+      long parallel = Long.MAX_VALUE;
+      for (int round = 0; round < 5; round++) {
+        long start = System.nanoTime();
+        JSONLines lines = new JSONLines(new ByteArrayInputStream(input));
+        lines.setParallel(pool, 4);
+        count(lines);
+        parallel = Math.min(parallel, System.nanoTime() - start);
+      } // for
+      pool.shutdown();
+      System.out.printf("parallel, %2d threads: %8.1f ms (%.2fx)%n", threads, parallel / 1e6,
+          (double) sequential / parallel);
+    } // for
+  } // main(String[])
+
+  /**
+   * Read every value, without keeping any.
+   */
+  static int count(JSONLines lines) throws Exception {
+    int count = 0;
+    while (lines.read() != null) {
+      ++count;
+    } // while
+    lines.close();
+    return count;
+  } // count(JSONLines)
+
+  /**
+   * Build one record per line.
+   */
+  static String document(int records) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < records; i++) {
+      builder.append("{\"id\": ").append(i)
+          .append(", \"name\": \"record ").append(i)
+          .append("\", \"score\": ").append(i * 0.25)
+          .append(", \"tags\": [\"a\", \"b\"], \"active\": ").append(i % 2 == 0)
+          .append("}\n");
+    } // for
+    return builder.toString();
+  } // document(int)
+
+} // class LinesBench
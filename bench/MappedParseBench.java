@@ -0,0 +1,69 @@
+package bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import src.JSON;
+
+/**
+ * Compares JSON.parseFile(String), which reads through a FileReader, with
+ * JSON.parseFile(Path, MappingMode.MAPPED), which memory-maps the file.
+ *
+ * Usage: java -Xmx8g bench.MappedParseBench [megabytes] [rounds]
+ *
+ * Writes a file of about the given size (default 1024 MB) of records
+ * with long string fields, so that the tree stays not much bigger than
+ * the file, then times each way of parsing it.
+ */
+public class MappedParseBench {
+
+  /**
+   * Run the benchmark.
+   */
+  public static void main(String[] args) throws Exception {
+    long megabytes = (args.length > 0) ? Long.parseLong(args[0]) : 1024;
+    int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 3;
+    Path file = Files.createTempFile("mapped-bench", ".json");
+    try {
+      generate(file, megabytes << 20);
+      System.out.printf("File: %s (%d MB)%n", file, Files.size(file) >> 20);
+      for (int round = 1; round <= rounds; round++) {
+        long start = System.nanoTime();
+        JSON.parseFile(file.toString());
+        long reader = System.nanoTime() - start;
+        System.gc();
+        start = System.nanoTime();
+        JSON.parseFile(file, JSON.MappingMode.MAPPED);
+        long mapped = System.nanoTime() - start;
+        System.gc();
+        System.out.printf("Round %d: FileReader %d ms, mapped %d ms%n", round,
+            reader / 1_000_000, mapped / 1_000_000);
+      } // for
+    } finally {
+      Files.deleteIfExists(file);
+    } // try/finally
+  } // main(String[])
+
+  /**
+   * Write a JSON array of records to file until it holds about bytes bytes.
+   */
+  static void generate(Path file, long bytes) throws IOException {
+    String filler = "x".repeat(1000);
+    try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      out.write("[");
+      long written = 1;
+      for (long i = 0; written < bytes; i++) {
+        String record = ((i == 0) ? "" : ",\n")
+            + "{\"id\": " + i + ", \"score\": " + (i * 0.25) + ", \"ok\": true, \"text\": \""
+            + filler + "\"}";
+        out.write(record);
+        written += record.length();
+      } // for
+      out.write("]");
+    } // try
+  } // generate(Path, long)
+
+} // class MappedParseBench
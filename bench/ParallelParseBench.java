@@ -0,0 +1,66 @@
+package bench;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import src.JSONParser;
+
+/**
+ * Parses one large array of records with JSONParser.parse and with
+ * JSONParser.parseParallel, on pools of 1, 2, 4, ... threads up to the
+ * number of processors.
+ *
+ * Usage: java bench.ParallelParseBench [records]
+ */
+public class ParallelParseBench {
+
+  /**
+   * Run the benchmark.
+   */
+  public static void main(String[] args) throws Exception {
+    int records = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+    byte[] input = document(records).getBytes(StandardCharsets.UTF_8);
+    int processors = Runtime.getRuntime().availableProcessors();
+    System.out.printf("%,d records, %,d bytes, %d processors%n", records, input.length,
+        processors);
+    long sequential = Long.MAX_VALUE;
+    for (int round = 0; round < 5; round++) {
+      long start = System.nanoTime();
+      new JSONParser(input).parse();
+      sequential = Math.min(sequential, System.nanoTime() - start);
+    } // for
+    System.out.printf("parse:                    %8.1f ms%n", sequential / 1e6);
+    for (int threads = 1; threads <= processors; threads *= 2) {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      long parallel = Long.MAX_VALUE;
+      for (int round = 0; round < 5; round++) {
+        long start = System.nanoTime();
+        new JSONParser(input).parseParallel(pool);
+        parallel = Math.min(parallel, System.nanoTime() - start);
+      } // for
+      pool.shutdown();
+      System.out.printf("parseParallel, %2d threads: %8.1f ms (%.2fx)%n", threads,
+          parallel / 1e6, (double) sequential / parallel);
+    } // for
+  } // main(String[])
+
+  /**
+   * Build an array of records.
+   */
+  static String document(int records) {
+    StringBuilder builder = new StringBuilder();
+    builder.append('[');
+    for (int i = 0; i < records; i++) {
+      if (i > 0) {
+        builder.append(",\n");
+      } // if
+      builder.append("{\"id\": ").append(i)
+          .append(", \"name\": \"record ").append(i)
+          .append("\", \"score\": ").append(i * 0.25)
+          .append(", \"tags\": [\"a\", \"b\"], \"active\": ").append(i % 2 == 0)
+          .append('}');
+    } // for
+    builder.append(']');
+    return builder.toString();
+  } // document(int)
+
+} // class ParallelParseBench
@@ -0,0 +1,97 @@
+package bench;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import src.JSON;
+import src.JSONPath;
+import src.JSONStreamReader;
+import src.JSONValue;
+
+/**
+ * Runs $.orders[*].items[?(@.qty > 5)].sku over a document of orders:
+ * against a parsed tree, against a JSONStreamReader over the same input
+ * (parsing included), against the tree on pools of 1, 2, 4, ... threads
+ * up to the number of processors, and parsing plus searching the tree
+ * for comparison with the stream.
+ *
+ * Usage: java bench.PathBench [orders]
+ */
+public class PathBench {
+
+  /**
+   * The query.
+   */
+  static final String QUERY = "$.orders[*].items[?(@.qty > 5)].sku";
+
+  /**
+   * Run the benchmark.
+   */
+  public static void main(String[] args) throws Exception {
+    int orders = (args.length > 0) ? Integer.parseInt(args[0]) : 200_000;
+    byte[] input = document(orders).getBytes(StandardCharsets.UTF_8);
+    int processors = Runtime.getRuntime().availableProcessors();
+    System.out.printf("%,d orders, %,d bytes, %d processors%n", orders, input.length,
+        processors);
+    JSONPath path = JSONPath.compile(QUERY);
+    JSONValue tree = JSON.parse(input);
+    long evaluate = Long.MAX_VALUE;
+    long parsed = Long.MAX_VALUE;
+    long stream = Long.MAX_VALUE;
+    int found = 0;
+    for (int round = 0; round < 10; round++) {
+      long start = System.nanoTime();
+      found += path.evaluate(tree).size();
+      evaluate = Math.min(evaluate, System.nanoTime() - start);
+      start = System.nanoTime();
+      found += path.evaluate(JSON.parse(input)).size();
+      parsed = Math.min(parsed, System.nanoTime() - start);
+      start = System.nanoTime();
+      found += path.evaluate(new JSONStreamReader(input)).size();
+      stream = Math.min(stream, System.nanoTime() - start);
+    } // for
+    System.out.printf("evaluate(tree):              %8.1f ms%n", evaluate / 1e6);
+    System.out.printf("parse, then evaluate(tree):  %8.1f ms%n", parsed / 1e6);
+    System.out.printf("evaluate(stream):            %8.1f ms%n", stream / 1e6);
+    for (int threads = 1; threads <= processors; threads *= 2) {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      long parallel = Long.MAX_VALUE;
+      for (int round = 0; round < 10; round++) {
+        long start = System.nanoTime();
+        found += path.evaluate(tree, pool).size();
+        parallel = Math.min(parallel, System.nanoTime() - start);
+      } // for
+      pool.shutdown();
+      System.out.printf("evaluate(tree), %2d threads:  %8.1f ms (%.2fx)%n", threads,
+          parallel / 1e6, (double) evaluate / parallel);
+    } // for
+    System.out.println("(" + found + ")");
+  } // main(String[])
+
+  /**
+   * Build an object with an array of orders, each with a few items.
+   */
+  static String document(int orders) {
+    StringBuilder builder = new StringBuilder();
+    builder.append("{\"version\": 2, \"orders\": [");
+    for (int i = 0; i < orders; i++) {
+      if (i > 0) {
+        builder.append(",\n");
+      } // if
+      builder.append("{\"id\": ").append(i)
+          .append(", \"customer\": \"customer ").append(i % 1000)
+          .append("\", \"items\": [");
+      for (int j = 0; j < 3; j++) {
+        if (j > 0) {
+          builder.append(", ");
+        } // if
+        builder.append("{\"sku\": \"SKU-").append(i * 3 + j)
+            .append("\", \"qty\": ").append((i + j * 7) % 10)
+            .append(", \"price\": ").append((i % 500) * 0.5).append('}');
+      } // for
+      builder.append("]}");
+    } // for
+    builder.append("]}");
+    return builder.toString();
+  } // document(int)
+
+} // class PathBench
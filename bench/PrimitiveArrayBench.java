@@ -0,0 +1,97 @@
+package bench;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import src.JSONArray;
+import src.JSONParser;
+
+/**
+ * Parses arrays of a million integers, reals, and booleans, with and
+ * without primitive arrays, and reports how long the parse took, how
+ * much heap the result holds, and how long summing it with longStream or
+ * doubleStream took.
+ *
+ * Usage: java bench.PrimitiveArrayBench [elements]
+ */
+public class PrimitiveArrayBench {
+
+  /**
+   * Run the benchmark.
+   */
+  public static void main(String[] args) throws Exception {
+    int elements = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+    String[] kinds = {"integers", "reals", "booleans"};
+    for (String kind : kinds) {
+      byte[] input = document(kind, elements).getBytes(StandardCharsets.UTF_8);
+      System.out.printf("%s: %,d elements, %,d bytes%n", kind, elements, input.length);
+      for (int round = 0; round < 3; round++) {
+        run("  objects  ", input, false);
+        run("  primitive", input, true);
+      } // for
+    } // for
+  } // main(String[])
+
+  /**
+   * Parse input, with or without primitive arrays, and report on it.
+   */
+  static void run(String label, byte[] input, boolean primitive) throws Exception {
+    long before = usedHeap();
+    long start = System.nanoTime();
+    JSONParser parser = new JSONParser(input);
+    parser.setPrimitiveArrays(primitive);
+    JSONArray result = (JSONArray) parser.parse();
+    long parsed = System.nanoTime() - start;
+    long after = usedHeap();
+    start = System.nanoTime();
+    double sum = 0;
+    if (result.get(0).toString().startsWith("t") || result.get(0).toString().startsWith("f")) {
+      for (boolean b : result.toBooleanArray()) {
+        sum += b ? 1 : 0;
+      } // for
+    } else {
+      sum = result.doubleStream().sum();
+    } // if/else
+    long summed = System.nanoTime() - start;
+    System.out.printf("%s: parse %7.1f ms, %,12d bytes retained, sum %6.1f ms (%.0f)%n",
+        label, parsed / 1e6, after - before, summed / 1e6, sum);
+  } // run(String, byte[], boolean)
+
+  /**
+   * Build an array of elements of the given kind.
+   */
+  static String document(String kind, int elements) {
+    Random random = new Random(kind.hashCode());
+    StringBuilder builder = new StringBuilder();
+    builder.append('[');
+    for (int i = 0; i < elements; i++) {
+      if (i > 0) {
+        builder.append(',');
+      } // if
+      switch (kind) {
+        case "integers":
+          builder.append(random.nextInt(1_000_000));
+          break;
+        case "reals":
+          builder.append(random.nextInt(100_000) / 100.0);
+          break;
+        default:
+          builder.append(random.nextBoolean());
+          break;
+      } // switch
+    } // for
+    builder.append(']');
+    return builder.toString();
+  } // document(String, int)
+
+  /**
+   * Get the amount of heap in use after a collection.
+   */
+  static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    } // for
+    return runtime.totalMemory() - runtime.freeMemory();
+  } // usedHeap()
+
+} // class PrimitiveArrayBench
@@ -0,0 +1,57 @@
+package bench;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import src.JSON;
+import src.JSONPushParser;
+
+/**
+ * Parses an array of records with JSON.parse, and with JSONPushParser
+ * fed chunks of 1 KB, 16 KB, and 256 KB, as a network connection might
+ * deliver them.
+ *
+ * Usage: java bench.PushParseBench [records]
+ */
+public class PushParseBench {
+
+  /**
+   * Run the benchmark.
+   */
+  public static void main(String[] args) throws Exception {
+    int records = (args.length > 0) ? Integer.parseInt(args[0]) : 200_000;
+    byte[] input = ParallelParseBench.document(records).getBytes(StandardCharsets.UTF_8);
+    System.out.printf("%,d records, %,d bytes%n", records, input.length);
+    long whole = Long.MAX_VALUE;
+    for (int round = 0; round < 5; round++) {
+      long start = System.nanoTime();
+      JSON.parse(input);
+      whole = Math.min(whole, System.nanoTime() - start);
+    } // for
+    System.out.printf("JSON.parse:                %8.1f ms%n", whole / 1e6);
+    for (int chunk = 1 << 10; chunk <= 1 << 18; chunk <<= 4) {
+      long pushed = Long.MAX_VALUE;
+      for (int round = 0; round < 5; round++) {
+        long start = System.nanoTime();
+        push(input, chunk);
+        pushed = Math.min(pushed, System.nanoTime() - start);
+      } // for
+      System.out.printf("push, %,7d-byte chunks: %8.1f ms%n", chunk, pushed / 1e6);
+    } // for
+  } // main(String[])
+
+  /**
+   * Feed input to a push parser a chunk at a time and build the result.
+   */
+  static void push(byte[] input, int chunk) throws Exception {
+    JSONPushParser parser = new JSONPushParser();
+    for (int i = 0; i < input.length; i += chunk) {
+      parser.feed(ByteBuffer.wrap(input, i, Math.min(chunk, input.length - i)));
+      parser.result();
+    } // for
+    parser.endOfInput();
+    if (parser.result() == null) {
+      throw new IllegalStateException("No result");
+    } // if
+  } // push(byte[], int)
+
+} // class PushParseBench
@@ -0,0 +1,55 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.text.ParseException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that parsing with a FieldMask rejects what a full parse does,
+ * even in the fields it skips.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class FieldMaskTest {
+
+  /**
+   * Objects whose field b holds a malformed number.
+   */
+  static final String[] BAD_NUMBERS = {
+      "{\"a\": 1, \"b\": 01}",
+      "{\"a\": 1, \"b\": -}",
+      "{\"a\": 1, \"b\": 1.}",
+      "{\"a\": 1, \"b\": 1e}",
+      "{\"b\": 1e2147483649, \"a\": 1}",
+  };
+
+  /**
+   * A malformed number in a skipped field gets the same ParseException as
+   * it does in a full parse.
+   */
+  @Test
+  public void skippedNumbersAreChecked() {
+    for (String input : BAD_NUMBERS) {
+      ParseException full = assertThrows(ParseException.class,
+          () -> new JSONParser(input).parse(), input);
+      ParseException masked = assertThrows(ParseException.class,
+          () -> new JSONParser(input).parse(FieldMask.of("a")), input);
+      assertEquals(full.getMessage(), masked.getMessage(), input);
+    } // for
+  } // skippedNumbersAreChecked()
+
+  /**
+   * Well-formed skipped fields are left out of the result.
+   */
+  @Test
+  public void skippedFieldsAreLeftOut() throws Exception {
+    JSONValue value = new JSONParser("{\"a\": 1, \"b\": -0.5e3, \"c\": [1, {\"d\": 2}]}")
+        .parse(FieldMask.of("a"));
+    assertEquals("{a: 1}", value.toString());
+  } // skippedFieldsAreLeftOut()
+
+} // class FieldMaskTest
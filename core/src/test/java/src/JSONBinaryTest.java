@@ -0,0 +1,102 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that JSONBinaryReader reports damaged documents with a
+ * ParseException, and that JSON.writeBinary never leaves a partial file.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONBinaryTest {
+
+  /**
+   * A small document with one of everything.
+   */
+  static final String DOCUMENT = "{\"name\": \"café\", \"tags\": [1, -2.5, true, null,"
+      + " 123456789012345678901234567890, 1.5e-400], \"nested\": {\"name\": [\"x\"]}}";
+
+  /**
+   * Open bytes and read all of it.
+   */
+  static String readAll(ByteBuffer bytes) throws ParseException {
+    return new JSONBinaryReader(bytes).root().toString();
+  } // readAll(ByteBuffer)
+
+  /**
+   * Copy bytes into a direct buffer, which has no backing array.
+   */
+  static ByteBuffer direct(byte[] bytes) {
+    ByteBuffer buf = ByteBuffer.allocateDirect(bytes.length);
+    buf.put(bytes).flip();
+    return buf;
+  } // direct(byte[])
+
+  /**
+   * Every prefix of a document fails with a ParseException when opened.
+   */
+  @Test
+  public void truncatedDocumentsFailOnOpen() throws Exception {
+    JSONValue value = JSON.parse(DOCUMENT);
+    byte[] bytes = new JSONBinaryWriter().toBytes(value);
+    assertEquals(value.toString(), readAll(ByteBuffer.wrap(bytes)));
+    assertEquals(value.toString(), readAll(direct(bytes)));
+    for (int length = 0; length < bytes.length; length++) {
+      ByteBuffer prefix = ByteBuffer.wrap(bytes, 0, length);
+      assertThrows(ParseException.class, () -> new JSONBinaryReader(prefix),
+          "prefix of " + length + " bytes");
+    } // for
+  } // truncatedDocumentsFailOnOpen()
+
+  /**
+   * Damage anywhere in a document fails with a ParseException, wrapped in
+   * an IllegalStateException by objects and arrays, or reads as some
+   * other value; it never reads outside the document.
+   */
+  @Test
+  public void damagedDocumentsFailCleanly() throws Exception {
+    byte[] bytes = new JSONBinaryWriter().toBytes(JSON.parse(DOCUMENT));
+    for (int i = 0; i < bytes.length; i++) {
+      for (int bits : new int[] {0x01, 0x10, 0x80, 0xFF}) {
+        byte[] damaged = bytes.clone();
+        damaged[i] ^= (byte) bits;
+        for (ByteBuffer buf : new ByteBuffer[] {ByteBuffer.wrap(damaged), direct(damaged)}) {
+          try {
+            readAll(buf);
+          } catch (ParseException e) {
+            // Fine
+          } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof ParseException, e.toString());
+          } // try/catch
+        } // for
+      } // for
+    } // for
+  } // damagedDocumentsFailCleanly()
+
+  /**
+   * writeBinary replaces the file whole, and leaves nothing else behind.
+   */
+  @Test
+  public void writeBinaryReplacesTheFile(@TempDir Path dir) throws Exception {
+    Path path = dir.resolve("cache.bin");
+    JSON.writeBinary(JSON.parse("[1, 2, 3]"), path);
+    JSON.writeBinary(JSON.parse(DOCUMENT), path);
+    assertEquals(JSON.parse(DOCUMENT).toString(), JSON.readBinary(path).toString());
+    try (Stream<Path> files = Files.list(dir)) {
+      assertEquals(1, files.count());
+    } // try
+  } // writeBinaryReplacesTheFile()
+
+} // class JSONBinaryTest
@@ -0,0 +1,89 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Iterator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of JSONHash.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONHashTest {
+
+  /**
+   * Setting a value through the iterator sets it in the hash, for
+   * compact hashes and for hashes with an index.
+   */
+  @Test
+  public void iteratorSetValueWritesThrough() {
+    for (int size : new int[] {3, 100}) {
+      JSONHash hash = new JSONHash();
+      for (int i = 0; i < size; i++) {
+        hash.set(new JSONString("key" + i), new JSONInteger(i));
+      } // for
+      Iterator<KVPair<JSONString, JSONValue>> pairs = hash.iterator();
+      int i = 0;
+      while (pairs.hasNext()) {
+        KVPair<JSONString, JSONValue> pair = pairs.next();
+        assertEquals("key" + i, pair.key().getValue());
+        pair.setValue(new JSONInteger(i * 10));
+        i++;
+      } // while
+      assertEquals(size, i);
+      for (i = 0; i < size; i++) {
+        assertEquals(new JSONInteger(i * 10), hash.get(new JSONString("key" + i)));
+      } // for
+    } // for
+  } // iteratorSetValueWritesThrough()
+
+  /**
+   * The iterator hands out one pair, moved along, rather than building
+   * a pair per element.
+   */
+  @Test
+  public void iteratorReusesPair() {
+    JSONHash hash = new JSONHash();
+    hash.set(new JSONString("a"), new JSONInteger(1));
+    hash.set(new JSONString("b"), new JSONInteger(2));
+    Iterator<KVPair<JSONString, JSONValue>> pairs = hash.iterator();
+    KVPair<JSONString, JSONValue> first = pairs.next();
+    assertSame(first, pairs.next());
+    assertEquals("b", first.key().getValue());
+    assertFalse(pairs.hasNext());
+  } // iteratorReusesPair()
+
+  /**
+   * A pair added just as the index grows gets one slot, even if growing
+   * the index reseeds it.  Here every resize reseeds.
+   */
+  @Test
+  public void resizeThatReseedsIndexesEachPairOnce() {
+    JSONHash hash = new JSONHash() {
+      @Override
+      public void resize() {
+        super.resize();
+        if (this.index != null) {
+          this.reseed();
+        } // if
+      } // resize()
+    };
+    for (int i = 0; i < 1000; i++) {
+      hash.set(new JSONString("key" + i), new JSONInteger(i));
+      int slots = 0;
+      for (long slot : hash.index == null ? new long[0] : hash.index) {
+        slots += (slot != 0) ? 1 : 0;
+      } // for
+      assertEquals((hash.index == null) ? 0 : hash.size(), slots, "after " + (i + 1) + " pairs");
+    } // for
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(String.valueOf(i), hash.get(new JSONString("key" + i)).toString());
+    } // for
+  } // resizeThatReseedsIndexesEachPairOnce()
+
+} // class JSONHashTest
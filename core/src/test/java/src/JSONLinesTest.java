@@ -0,0 +1,95 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that JSONLines gives the same values and the same errors in
+ * parallel mode as in sequential mode.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONLinesTest {
+
+  /**
+   * Inputs that go wrong part way through.
+   */
+  static final String[] FAILING = {
+      "1\n2\n[3,\n4\n",
+      "1\n2\n[3,\n4\n5\n6\n7\n8\n9\n",
+      "1\n{\"a\":\n2}\n3\n",
+      "1\n2 3\n4\n",
+      "[1,\n2]\n",
+      "1\n\"abc\n",
+  };
+
+  /**
+   * Batch sizes to try in parallel mode, from smaller than a line up.
+   */
+  static final int[] BATCH_SIZES = {1, 2, 4, 7, 1 << 20};
+
+  /**
+   * The pool the parallel readers use.
+   */
+  static ExecutorService pool;
+
+  @BeforeAll
+  static void startPool() {
+    pool = Executors.newFixedThreadPool(2);
+  } // startPool()
+
+  @AfterAll
+  static void stopPool() {
+    pool.shutdownNow();
+  } // stopPool()
+
+  /**
+   * Parallel mode, over bytes or chars, delivers the values before the
+   * error and then reports the error sequential mode does.
+   */
+  @Test
+  public void parallelErrorsMatchSequential() throws Exception {
+    for (String input : FAILING) {
+      String expected = readAll(new JSONLines(new StringReader(input)));
+      for (int size : BATCH_SIZES) {
+        JSONLines bytes = new JSONLines(
+            new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+        bytes.setParallel(pool, 3);
+        bytes.setBatchSize(size);
+        assertEquals(expected, readAll(bytes), input + " in batches of " + size + " bytes");
+        JSONLines chars = new JSONLines(new StringReader(input));
+        chars.setParallel(pool, 3);
+        chars.setBatchSize(size);
+        assertEquals(expected, readAll(chars), input + " in batches of " + size + " chars");
+      } // for
+    } // for
+  } // parallelErrorsMatchSequential()
+
+  /**
+   * Read every value, and then the error, into one string.
+   */
+  static String readAll(JSONLines lines) throws Exception {
+    StringBuilder out = new StringBuilder();
+    try {
+      JSONValue value;
+      while ((value = lines.read()) != null) {
+        out.append(value).append('\n');
+      } // while
+    } catch (ParseException e) {
+      out.append(e.getMessage());
+    } // try/catch
+    return out.toString();
+  } // readAll(JSONLines)
+
+} // class JSONLinesTest
@@ -0,0 +1,65 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.text.ParseException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that JSONParser.parseLazy accepts and rejects what parse does.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONParserLazyTest {
+
+  /**
+   * Numbers whose exponent takes the scale out of the range of an int.
+   */
+  static final String[] OVERFLOWING = {
+      "[12345678901234567E8901234567890]",
+      "-6080688E51874316176",
+      "[1.5e-2147483648]",
+      "{\"a\": 1e2147483649}",
+      "[1234567890123456789012345E99999999999]",
+  };
+
+  /**
+   * Numbers close to the edge of the range, which both accept.
+   */
+  static final String[] IN_RANGE = {
+      "[1e2147483647]",
+      "[1e-2147483647]",
+      "[1.5e2147483648]",
+      "[12345678901234567890.5e-100]",
+  };
+
+  /**
+   * parseLazy rejects an overflowing number during its pass, with the
+   * same ParseException as parse.
+   */
+  @Test
+  public void overflowingExponentRejectedByBoth() {
+    for (String input : OVERFLOWING) {
+      ParseException eager = assertThrows(ParseException.class,
+          () -> new JSONParser(input).parse(), input);
+      ParseException lazy = assertThrows(ParseException.class,
+          () -> new JSONParser(input).parseLazy(), input);
+      assertEquals(eager.getMessage(), lazy.getMessage(), input);
+    } // for
+  } // overflowingExponentRejectedByBoth()
+
+  /**
+   * Numbers at the edge of the range parse the same both ways.
+   */
+  @Test
+  public void edgeExponentsAcceptedByBoth() throws Exception {
+    for (String input : IN_RANGE) {
+      assertEquals(new JSONParser(input).parse().toString(),
+          new JSONParser(input).parseLazy().toString(), input);
+    } // for
+  } // edgeExponentsAcceptedByBoth()
+
+} // class JSONParserLazyTest
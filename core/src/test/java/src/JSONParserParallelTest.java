@@ -0,0 +1,77 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that JSONParser.parseParallel builds the same arrays as parse.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONParserParallelTest {
+
+  /**
+   * Build an array of count elements, each made by element from its
+   * index.
+   */
+  static String array(int count, IntFunction<String> element) {
+    StringBuilder builder = new StringBuilder("[");
+    for (int i = 0; i < count; i++) {
+      builder.append((i > 0) ? ", " : "").append(element.apply(i));
+    } // for
+    return builder.append(']').toString();
+  } // array(int, IntFunction<String>)
+
+  /**
+   * Large and small arrays of each kind come out as the same class, with
+   * the same elements, from both.
+   */
+  @Test
+  public void sameKindOfArrayAsParse() throws Exception {
+    String[] inputs = {
+        "[1,2,3]",
+        "[]",
+        "[1.5, 2.5]",
+        "[true, false]",
+        "[\"a\", 1]",
+        "[1, 2, \"three\"]",
+        array(200_000, i -> Integer.toString(i)),
+        array(200_000, i -> i + ".5"),
+        array(200_000, i -> (i % 3 == 0) ? "true" : "false"),
+        array(200_000, i -> (i == 150_000) ? "\"odd one out\"" : Integer.toString(i)),
+    };
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (String input : inputs) {
+        String label = input.substring(0, Math.min(20, input.length()));
+        for (boolean primitive : new boolean[] {true, false}) {
+          JSONParser serial = new JSONParser(input);
+          serial.setPrimitiveArrays(primitive);
+          JSONParser parallel = new JSONParser(input);
+          parallel.setPrimitiveArrays(primitive);
+          JSONValue expected = serial.parse();
+          JSONValue actual = parallel.parseParallel(pool);
+          assertSame(expected.getClass(), actual.getClass(), label);
+          assertEquals(expected.toString(), actual.toString(), label);
+        } // for
+      } // for
+    } finally {
+      pool.shutdown();
+    } // try/finally
+  } // sameKindOfArrayAsParse()
+
+  /**
+   * The convenience method gives a primitive array too.
+   */
+  @Test
+  public void jsonParseParallel() throws Exception {
+    assertSame(JSONLongArray.class, JSON.parseParallel("[1,2,3]").getClass());
+  } // jsonParseParallel()
+
+} // class JSONParserParallelTest
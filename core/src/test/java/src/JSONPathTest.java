@@ -0,0 +1,74 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.text.ParseException;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that JSONPath queries against a tree and against a stream agree,
+ * except where the class documentation says they differ.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONPathTest {
+
+  /**
+   * A document with a duplicate key.
+   */
+  static final String DUPLICATE = "{\"user\": {\"id\": 1}, \"user\": 5}";
+
+  /**
+   * A tree keeps the last value for a duplicate key, and a stream visits
+   * every value.
+   */
+  @Test
+  public void duplicateKeys() throws Exception {
+    JSONPath path = JSONPath.compile("$.user");
+    assertEquals("[5]", path.evaluate(new JSONParser(DUPLICATE).parse()).toString());
+    assertEquals("[{id: 1}, 5]", path.evaluate(new JSONStreamReader(DUPLICATE)).toString());
+    path = JSONPath.compile("$.user.*");
+    assertEquals("[]", path.evaluate(new JSONParser(DUPLICATE).parse()).toString());
+    assertEquals("[1]", path.evaluate(new JSONStreamReader(DUPLICATE)).toString());
+  } // duplicateKeys()
+
+  /**
+   * Input nested too deeply fails with a ParseException against a stream,
+   * as it does when parsed into a tree.
+   */
+  @Test
+  public void deepStreamFailsCleanly() throws Exception {
+    String deep = "[".repeat(200_000) + "]".repeat(200_000);
+    JSONPath path = JSONPath.compile("$..x");
+    ParseException tree = assertThrows(ParseException.class,
+        () -> path.evaluate(new JSONParser(deep).parse()));
+    ParseException stream = assertThrows(ParseException.class,
+        () -> path.evaluate(new JSONStreamReader(deep)));
+    assertTrue(tree.getMessage().startsWith("Nesting is deeper than the limit of 1000"),
+        tree.getMessage());
+    assertEquals(tree.getMessage(), stream.getMessage());
+  } // deepStreamFailsCleanly()
+
+  /**
+   * Without duplicate keys, the tree, the stream, and the pool agree.
+   */
+  @Test
+  public void treeStreamAndPoolAgree() throws Exception {
+    String doc = "{\"orders\": [{\"items\": [{\"qty\": 3, \"sku\": \"a\"},"
+        + " {\"qty\": 7, \"sku\": \"b\"}]}, {\"items\": [{\"qty\": 9, \"sku\": \"c\"}]}]}";
+    for (String query : new String[] {"$.orders[*].items[?(@.qty > 5)].sku", "$..sku",
+        "$.orders[-1].items[0]", "$.orders[0].items[0:2].qty"}) {
+      JSONPath path = JSONPath.compile(query);
+      String tree = path.evaluate(new JSONParser(doc).parse()).toString();
+      assertEquals(tree, path.evaluate(new JSONStreamReader(doc)).toString(), query);
+      assertEquals(tree, path.evaluate(new JSONParser(doc).parse(),
+          ForkJoinPool.commonPool()).toString(), query);
+    } // for
+  } // treeStreamAndPoolAgree()
+
+} // class JSONPathTest
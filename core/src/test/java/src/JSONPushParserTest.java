@@ -0,0 +1,100 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that JSONPushParser holds its input to its limits.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONPushParserTest {
+
+  /**
+   * Feed input to parser in chunks of size bytes, building the result
+   * after each, and return the result once the input has ended.
+   */
+  static JSONValue feed(JSONPushParser parser, String input, int size) throws ParseException {
+    byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+    for (int i = 0; i < bytes.length; i += size) {
+      parser.feed(ByteBuffer.wrap(bytes, i, Math.min(size, bytes.length - i)));
+      parser.result();
+    } // for
+    parser.endOfInput();
+    return parser.result();
+  } // feed(JSONPushParser, String, int)
+
+  /**
+   * Deep nesting fails at the default limit, and a raised limit lets it
+   * through.
+   */
+  @Test
+  public void maxDepth() throws Exception {
+    String deep = "[".repeat(200_000) + "]".repeat(200_000);
+    ParseException e = assertThrows(ParseException.class,
+        () -> feed(new JSONPushParser(), deep, 4096));
+    assertTrue(e.getMessage().startsWith("Nesting is deeper than the limit of 1000"),
+        e.getMessage());
+    JSONPushParser parser = new JSONPushParser();
+    parser.setMaxDepth(3);
+    assertEquals("[[[]]]", feed(parser, "[[[]]]", 1).toString());
+    JSONPushParser shallow = new JSONPushParser();
+    shallow.setMaxDepth(2);
+    assertThrows(ParseException.class, () -> feed(shallow, "[[[]]]", 1));
+  } // maxDepth()
+
+  /**
+   * A string that never ends fails once it passes the limit, without the
+   * parser holding on to the rest of it.
+   */
+  @Test
+  public void maxStringLength() throws Exception {
+    JSONPushParser parser = new JSONPushParser();
+    parser.setMaxStringLength(1000);
+    parser.feed(ByteBuffer.wrap("[\"".getBytes(StandardCharsets.UTF_8)));
+    byte[] chunk = "x".repeat(100).getBytes(StandardCharsets.UTF_8);
+    ParseException e = assertThrows(ParseException.class, () -> {
+      while (true) {
+        parser.feed(ByteBuffer.wrap(chunk));
+        parser.result();
+      } // while
+    });
+    assertTrue(e.getMessage().startsWith("String is longer than the limit of 1000"),
+        e.getMessage());
+    assertTrue(parser.data.length < 4096 * 2, "buffer grew to " + parser.data.length);
+    JSONPushParser fits = new JSONPushParser();
+    fits.setMaxStringLength(3);
+    assertEquals("[abc]", feed(fits, "[\"abc\"]", 2).toString());
+    JSONPushParser whole = new JSONPushParser();
+    whole.setMaxStringLength(3);
+    assertThrows(ParseException.class, () -> feed(whole, "[\"abcd\"]", 100));
+  } // maxStringLength()
+
+  /**
+   * Input past the size limit is dropped, and the parse fails.
+   */
+  @Test
+  public void maxDocumentSize() throws Exception {
+    String input = "[1, 2, 3, 4, 5]";
+    JSONPushParser parser = new JSONPushParser();
+    parser.setMaxDocumentSize(input.length() - 1);
+    ParseException e = assertThrows(ParseException.class, () -> feed(parser, input, 4));
+    assertTrue(e.getMessage().startsWith("Document is larger than the limit of 14"),
+        e.getMessage());
+    JSONPushParser spaces = new JSONPushParser();
+    spaces.setMaxDocumentSize(input.length());
+    assertThrows(ParseException.class, () -> feed(spaces, input + "   ", 4));
+    JSONPushParser fits = new JSONPushParser();
+    fits.setMaxDocumentSize(input.length());
+    assertEquals("[1, 2, 3, 4, 5]", feed(fits, input, 4).toString());
+  } // maxDocumentSize()
+
+} // class JSONPushParserTest
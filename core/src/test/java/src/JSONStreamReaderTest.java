@@ -0,0 +1,107 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.text.ParseException;
+import org.junit.jupiter.api.Test;
+import src.JSONStreamReader.Event;
+
+/**
+ * Tests that JSONStreamReader holds its input to its limits, however it
+ * is read.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONStreamReaderTest {
+
+  /**
+   * Arrays nested 200,000 deep.
+   */
+  static final String DEEP = "[".repeat(200_000) + "]".repeat(200_000);
+
+  /**
+   * Assert that e is about the depth limit of 1000.
+   */
+  static void assertTooDeep(ParseException e) {
+    assertTrue(e.getMessage().startsWith("Nesting is deeper than the limit of 1000"),
+        e.getMessage());
+  } // assertTooDeep(ParseException)
+
+  /**
+   * Deep nesting fails at the default limit when read event by event.
+   */
+  @Test
+  public void maxDepthInNext() {
+    JSONStreamReader reader = new JSONStreamReader(DEEP);
+    assertTooDeep(assertThrows(ParseException.class, () -> {
+      while (reader.next() != Event.END_DOCUMENT) {
+        // Keep reading
+      } // while
+    }));
+    assertEquals(1000, reader.getDepth());
+  } // maxDepthInNext()
+
+  /**
+   * Deep nesting fails at the default limit when skipped, counting the
+   * levels the reader is already in.
+   */
+  @Test
+  public void maxDepthInSkip() throws Exception {
+    assertTooDeep(assertThrows(ParseException.class,
+        () -> new JSONStreamReader(DEEP).skipValue()));
+    JSONStreamReader reader = new JSONStreamReader("[[[[]]], 1]");
+    reader.setMaxDepth(4);
+    reader.next();
+    reader.skipValue();
+    assertEquals(Event.END_ARRAY, reader.getEvent());
+    assertEquals(Event.VALUE_NUMBER, reader.next());
+    JSONStreamReader shallow = new JSONStreamReader("[[[[]]], 1]");
+    shallow.setMaxDepth(3);
+    shallow.next();
+    assertThrows(ParseException.class, () -> shallow.skipValue());
+  } // maxDepthInSkip()
+
+  /**
+   * Reading a tree from inside the document counts the levels the reader
+   * is already in.
+   */
+  @Test
+  public void maxDepthInReadCurrent() throws Exception {
+    JSONStreamReader reader = new JSONStreamReader("[[[[]]]]");
+    reader.setMaxDepth(4);
+    reader.next();
+    assertEquals("[[[]]]", reader.readValue().toString());
+    JSONStreamReader shallow = new JSONStreamReader("[[[[]]]]");
+    shallow.setMaxDepth(3);
+    shallow.next();
+    assertThrows(ParseException.class, () -> shallow.readValue());
+  } // maxDepthInReadCurrent()
+
+  /**
+   * Long strings fail whether they are read or skipped.
+   */
+  @Test
+  public void maxStringLength() throws Exception {
+    String input = "[\"abcd\", \"ab\"]";
+    JSONStreamReader read = new JSONStreamReader(input);
+    read.setMaxStringLength(3);
+    read.next();
+    read.next();
+    assertThrows(ParseException.class, () -> read.getString());
+    JSONStreamReader skipped = new JSONStreamReader(input);
+    skipped.setMaxStringLength(3);
+    skipped.next();
+    skipped.next();
+    assertThrows(ParseException.class, () -> skipped.next());
+    JSONStreamReader fits = new JSONStreamReader(input);
+    fits.setMaxStringLength(4);
+    fits.next();
+    fits.next();
+    assertEquals("abcd", fits.getString());
+  } // maxStringLength()
+
+} // class JSONStreamReaderTest
@@ -0,0 +1,64 @@
+package src;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of lazy JSONString values.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONStringTest {
+
+  /**
+   * Lazy strings over a buffer with no backing array can be built on
+   * several threads at once.
+   */
+  @Test
+  public void lazyStringsFromDirectBufferOnManyThreads() throws Exception {
+    int count = 20_000;
+    String[] expected = new String[count];
+    StringBuilder input = new StringBuilder("[");
+    for (int i = 0; i < count; i++) {
+      expected[i] = ("s" + i + "é").repeat(1 + i % 17);
+      input.append((i > 0) ? "," : "").append('"').append(expected[i]).append('"');
+    } // for
+    input.append(']');
+    byte[] bytes = input.toString().getBytes(StandardCharsets.UTF_8);
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      for (int round = 0; round < 5; round++) {
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        JSONParser parser = new JSONParser(direct);
+        parser.setLazyStrings(true);
+        JSONArray array = (JSONArray) parser.parse();
+        List<Future<?>> tasks = new ArrayList<Future<?>>();
+        for (int t = 0; t < 4; t++) {
+          int first = t;
+          tasks.add(pool.submit(() -> {
+            for (int i = first; i < count; i += 4) {
+              assertEquals(expected[i], ((JSONString) array.get(i)).getValue());
+            } // for
+          }));
+        } // for
+        for (Future<?> task : tasks) {
+          task.get();
+        } // for
+      } // for
+    } finally {
+      pool.shutdown();
+    } // try/finally
+  } // lazyStringsFromDirectBufferOnManyThreads()
+
+} // class JSONStringTest
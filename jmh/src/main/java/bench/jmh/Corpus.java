@@ -0,0 +1,212 @@
+package bench.jmh;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Builds the documents the benchmarks parse, so that they run without
+ * any downloaded data.  Each corpus is about a megabyte, and the same
+ * name always gives the same document.
+ *
+ * <ul>
+ * <li>api: an array of small objects like those a web API returns.</li>
+ * <li>deep: an array of values nested hundreds of levels deep.</li>
+ * <li>numbers: one large array of integers and reals.</li>
+ * <li>strings: an array of long strings, with escapes and non-ASCII
+ *   characters.</li>
+ * <li>wide: one object with tens of thousands of keys.</li>
+ * </ul>
+ *
+ * Usage: java -cp jmh/target/benchmarks.jar bench.jmh.Corpus [directory]
+ * writes each corpus to directory/name.json.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class Corpus {
+
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The names of the corpora.
+   */
+  public static final String[] NAMES = {"api", "deep", "numbers", "strings", "wide"};
+
+  /**
+   * About how many characters each corpus holds.
+   */
+  static final int SIZE = 1 << 20;
+
+  /**
+   * How deep the deep corpus nests.  This stays within the parser's
+   * default depth limit, and within the thread stack that writing and
+   * hashing use, since they recurse once per level.
+   */
+  static final int DEPTH = 500;
+
+  // +---------+-----------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Write each corpus to a file.
+   */
+  public static void main(String[] args) throws IOException {
+    Path directory = Paths.get((args.length > 0) ? args[0] : "corpus");
+    Files.createDirectories(directory);
+    for (String name : NAMES) {
+      Path file = directory.resolve(name + ".json");
+      Files.write(file, generate(name).getBytes(StandardCharsets.UTF_8));
+      System.out.printf("%-24s %,10d bytes%n", file, Files.size(file));
+    } // for
+  } // main(String[])
+
+  /**
+   * Build the corpus called name.
+   */
+  public static String generate(String name) {
+    Random random = new Random(name.hashCode());
+    StringBuilder builder = new StringBuilder(SIZE + SIZE / 8);
+    switch (name) {
+      case "api":
+        api(builder, random);
+        break;
+      case "deep":
+        deep(builder, random);
+        break;
+      case "numbers":
+        numbers(builder, random);
+        break;
+      case "strings":
+        strings(builder, random);
+        break;
+      case "wide":
+        wide(builder, random);
+        break;
+      default:
+        throw new IllegalArgumentException("No corpus called " + name);
+    } // switch
+    return builder.toString();
+  } // generate(String)
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * An array of user records.
+   */
+  static void api(StringBuilder builder, Random random) {
+    builder.append('[');
+    for (int i = 0; builder.length() < SIZE; i++) {
+      if (i > 0) {
+        builder.append(",\n");
+      } // if
+      builder.append("{\"id\": ").append(i)
+          .append(", \"login\": \"user").append(random.nextInt(100_000))
+          .append("\", \"email\": \"user").append(i).append("@example.com\"")
+          .append(", \"active\": ").append(random.nextBoolean())
+          .append(", \"score\": ").append(random.nextInt(10_000) / 100.0)
+          .append(", \"created\": \"2024-0").append(1 + random.nextInt(9))
+          .append("-1").append(random.nextInt(10)).append("T12:00:00Z\"")
+          .append(", \"tags\": [\"a\", \"b\"], \"manager\": null")
+          .append(", \"address\": {\"city\": \"Grinnell\", \"zip\": \"50112\"}}");
+    } // for
+    builder.append(']');
+  } // api(StringBuilder, Random)
+
+  /**
+   * An array of deeply nested values, alternating objects and arrays.
+   */
+  static void deep(StringBuilder builder, Random random) {
+    builder.append('[');
+    for (int i = 0; builder.length() < SIZE; i++) {
+      if (i > 0) {
+        builder.append(',');
+      } // if
+      for (int level = 0; level < DEPTH; level++) {
+        builder.append((level % 2 == 0) ? "{\"k\": " : "[");
+      } // for
+      builder.append(random.nextInt(1000));
+      for (int level = DEPTH - 1; level >= 0; level--) {
+        builder.append((level % 2 == 0) ? '}' : ']');
+      } // for
+    } // for
+    builder.append(']');
+  } // deep(StringBuilder, Random)
+
+  /**
+   * One array of numbers, some integers and some reals.
+   */
+  static void numbers(StringBuilder builder, Random random) {
+    builder.append('[');
+    for (int i = 0; builder.length() < SIZE; i++) {
+      if (i > 0) {
+        builder.append(',');
+      } // if
+      if (random.nextBoolean()) {
+        builder.append(random.nextInt());
+      } else {
+        builder.append(random.nextGaussian() * 1000);
+      } // if/else
+    } // for
+    builder.append(']');
+  } // numbers(StringBuilder, Random)
+
+  /**
+   * An array of long strings.
+   */
+  static void strings(StringBuilder builder, Random random) {
+    String[] words = {"lorem", "ipsum", "dolor", "sit", "amet", "café", "naïve", "日本語",
+        "\\\"quoted\\\"", "tab\\t", "line\\n", "\\u00e9"};
+    builder.append('[');
+    for (int i = 0; builder.length() < SIZE; i++) {
+      if (i > 0) {
+        builder.append(",\n");
+      } // if
+      builder.append('"');
+      int count = 20 + random.nextInt(200);
+      for (int w = 0; w < count; w++) {
+        if (w > 0) {
+          builder.append(' ');
+        } // if
+        builder.append(words[random.nextInt(words.length)]);
+      } // for
+      builder.append('"');
+    } // for
+    builder.append(']');
+  } // strings(StringBuilder, Random)
+
+  /**
+   * One object with many keys.
+   */
+  static void wide(StringBuilder builder, Random random) {
+    builder.append('{');
+    for (int i = 0; builder.length() < SIZE; i++) {
+      if (i > 0) {
+        builder.append(",\n");
+      } // if
+      builder.append("\"field").append(i).append("\": ");
+      switch (random.nextInt(3)) {
+        case 0:
+          builder.append(random.nextInt(1000));
+          break;
+        case 1:
+          builder.append("\"value").append(random.nextInt(1000)).append('"');
+          break;
+        default:
+          builder.append(random.nextBoolean());
+          break;
+      } // switch
+    } // for
+    builder.append('}');
+  } // wide(StringBuilder, Random)
+
+} // class Corpus
@@ -0,0 +1,139 @@
+package bench.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import src.JSONHash;
+import src.JSONInteger;
+import src.JSONString;
+import src.JSONValue;
+
+/**
+ * Times JSONHash.get (for keys that are there and keys that are not)
+ * and JSONHash.set (replacing a value, and building a whole hash) at a
+ * few sizes, from a compact hash to one with a million keys.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashBenchmark {
+
+  /**
+   * How many keys we look up in turn, so that one key does not stay in
+   * the cache.  A power of two.
+   */
+  static final int PROBES = 1 << 10;
+
+  /**
+   * How many keys the hash holds.
+   */
+  @Param({"4", "1000", "1000000"})
+  public int size;
+
+  /**
+   * The keys in the hash.
+   */
+  JSONString[] keys;
+
+  /**
+   * Keys in the hash, in random order.
+   */
+  JSONString[] present;
+
+  /**
+   * Keys not in the hash.
+   */
+  JSONString[] absent;
+
+  /**
+   * The hash.
+   */
+  JSONHash hash;
+
+  /**
+   * Which probe is next.
+   */
+  int next;
+
+  /**
+   * A value to set.
+   */
+  JSONValue value = new JSONInteger(1);
+
+  /**
+   * Build the hash and the keys to look up.
+   */
+  @Setup
+  public void setup() {
+    Random random = new Random(207);
+    this.keys = new JSONString[this.size];
+    this.hash = new JSONHash();
+    for (int i = 0; i < this.size; i++) {
+      this.keys[i] = new JSONString("key" + i);
+      this.hash.set(this.keys[i], new JSONInteger(i));
+    } // for
+    this.present = new JSONString[PROBES];
+    this.absent = new JSONString[PROBES];
+    for (int i = 0; i < PROBES; i++) {
+      // New objects, so that lookups compare characters rather than
+      // finding the very same key
+      this.present[i] = new JSONString("key" + random.nextInt(this.size));
+      this.absent[i] = new JSONString("missing" + i);
+    } // for
+  } // setup()
+
+  /**
+   * Look up a key that is in the hash.
+   */
+  @Benchmark
+  public JSONValue getPresent() {
+    return this.hash.get(this.present[this.next++ & (PROBES - 1)]);
+  } // getPresent()
+
+  /**
+   * Look up a key that is not in the hash.
+   */
+  @Benchmark
+  public JSONValue getAbsent() {
+    return this.hash.get(this.absent[this.next++ & (PROBES - 1)]);
+  } // getAbsent()
+
+  /**
+   * Replace the value of a key that is in the hash.
+   */
+  @Benchmark
+  public JSONHash setPresent() {
+    this.hash.set(this.present[this.next++ & (PROBES - 1)], this.value);
+    return this.hash;
+  } // setPresent()
+
+  /**
+   * Build a hash of size keys from nothing.
+   */
+  @Benchmark
+  public JSONHash build() {
+    JSONHash built = new JSONHash();
+    for (JSONString key : this.keys) {
+      built.set(key, this.value);
+    } // for
+    return built;
+  } // build()
+
+} // class HashBenchmark
@@ -0,0 +1,75 @@
+package bench.jmh;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import src.JSON;
+import src.JSONValue;
+
+/**
+ * Times JSON.parse on each corpus, from a String and from UTF-8 bytes.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+  /**
+   * The corpus to parse.
+   */
+  @Param({"api", "deep", "numbers", "strings", "wide"})
+  public String corpus;
+
+  /**
+   * The corpus as text.
+   */
+  String text;
+
+  /**
+   * The corpus as UTF-8.
+   */
+  byte[] bytes;
+
+  /**
+   * Build the corpus.
+   */
+  @Setup
+  public void setup() {
+    this.text = Corpus.generate(this.corpus);
+    this.bytes = this.text.getBytes(StandardCharsets.UTF_8);
+  } // setup()
+
+  /**
+   * Parse from a String.
+   */
+  @Benchmark
+  public JSONValue parseString() throws Exception {
+    return JSON.parse(this.text);
+  } // parseString()
+
+  /**
+   * Parse from bytes.
+   */
+  @Benchmark
+  public JSONValue parseBytes() throws Exception {
+    return JSON.parse(this.bytes);
+  } // parseBytes()
+
+} // class ParseBenchmark
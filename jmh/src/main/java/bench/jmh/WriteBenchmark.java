@@ -0,0 +1,80 @@
+package bench.jmh;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import src.JSON;
+import src.JSONValue;
+
+/**
+ * Times writing each parsed corpus back out, as JSON with writeJSON and
+ * in printed form with toString.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriteBenchmark {
+
+  /**
+   * The corpus to write.
+   */
+  @Param({"api", "deep", "numbers", "strings", "wide"})
+  public String corpus;
+
+  /**
+   * The parsed corpus.
+   */
+  JSONValue value;
+
+  /**
+   * How long the corpus is, to size the output up front.
+   */
+  int length;
+
+  /**
+   * Parse the corpus.
+   */
+  @Setup
+  public void setup() throws Exception {
+    String text = Corpus.generate(this.corpus);
+    this.value = JSON.parse(text);
+    this.length = text.length();
+  } // setup()
+
+  /**
+   * Write the value as JSON.
+   */
+  @Benchmark
+  public StringWriter writeJSON() {
+    StringWriter out = new StringWriter(this.length);
+    this.value.writeJSON(new PrintWriter(out));
+    return out;
+  } // writeJSON()
+
+  /**
+   * Print the value.
+   */
+  @Benchmark
+  public String toStringBenchmark() {
+    return this.value.toString();
+  } // toStringBenchmark()
+
+} // class WriteBenchmark
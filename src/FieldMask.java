@@ -0,0 +1,163 @@
+package src;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The fields to keep when parsing with JSONParser.parse(FieldMask).  A
+ * mask is built from paths of field names separated by dots, such as
+ * "user.id" or "payload.items.sku".  Arrays are looked through, so a
+ * path continues into each element of an array it meets: "items.sku"
+ * keeps the sku of every item.  A path keeps everything inside the value
+ * it ends at, and a scalar met where a path expected an object is kept
+ * as it is.
+ *
+ * The parser skips every other field without building anything, so a
+ * mask is much cheaper than parsing everything and throwing most of it
+ * away.  Masks do not change once built, and may be shared between
+ * threads.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class FieldMask {
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The fields we keep (null if we keep everything).
+   */
+  JSONString[] keys;
+
+  /**
+   * The mask for each field we keep.
+   */
+  FieldMask[] masks;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build a mask that keeps nothing.  Use of.
+   */
+  FieldMask() {
+    this.keys = new JSONString[0];
+    this.masks = new FieldMask[0];
+  } // FieldMask()
+
+  /**
+   * Build a mask that keeps the given paths.
+   */
+  public static FieldMask of(String... paths) {
+    return of(Arrays.asList(paths));
+  } // of(String...)
+
+  /**
+   * Build a mask that keeps the given paths.
+   */
+  public static FieldMask of(Collection<String> paths) {
+    FieldMask mask = new FieldMask();
+    for (String path : paths) {
+      mask.add(path);
+    } // for
+    return mask;
+  } // of(Collection<String>)
+
+  // +-------------------------+-------------------------------------
+  // | Standard object methods |
+  // +-------------------------+
+
+  /**
+   * Convert to a string (e.g., for printing), such as {user {id, name}}.
+   */
+  public String toString() {
+    if (this.keys == null) {
+      return "*";
+    } // if
+    StringBuilder builder = new StringBuilder("{");
+    for (int i = 0; i < this.keys.length; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      } // if
+      builder.append(this.keys[i].getValue());
+      if (this.masks[i].keys != null) {
+        builder.append(' ').append(this.masks[i]);
+      } // if
+    } // for
+    return builder.append('}').toString();
+  } // toString()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Keep path as well.
+   */
+  void add(String path) {
+    if (path.isEmpty() || path.startsWith(".") || path.endsWith(".")
+        || path.contains("..")) {
+      throw new IllegalArgumentException("Invalid path: \"" + path + "\"");
+    } // if
+    FieldMask mask = this;
+    for (String name : path.split("\\.")) {
+      if (mask.keys == null) {
+        // An earlier, shorter path already keeps all of this
+        return;
+      } // if
+      int i = mask.indexOf(name);
+      if (i < 0) {
+        i = mask.keys.length;
+        mask.keys = Arrays.copyOf(mask.keys, i + 1);
+        mask.masks = Arrays.copyOf(mask.masks, i + 1);
+        mask.keys[i] = new JSONString(name);
+        mask.masks[i] = new FieldMask();
+      } // if
+      mask = mask.masks[i];
+    } // for
+    mask.keys = null;
+    mask.masks = null;
+  } // add(String)
+
+  /**
+   * Find the field called name, or return -1.
+   */
+  int indexOf(String name) {
+    for (int i = 0; i < this.keys.length; i++) {
+      if (this.keys[i].getValue().equals(name)) {
+        return i;
+      } // if
+    } // for
+    return -1;
+  } // indexOf(String)
+
+  /**
+   * Find the field whose key lies between indices start and end of
+   * lexer's window, which has just been scanned, or return -1.  Unless
+   * the key has escapes, this compares the input in place, without
+   * building the key.
+   */
+  int find(JSONLexer lexer, int start, int end, boolean escaped) {
+    if (escaped) {
+      return indexOf(lexer.string(start, end, true));
+    } // if
+    for (int i = 0; i < this.keys.length; i++) {
+      if (lexer.matches(start, end, this.keys[i].getValue())) {
+        return i;
+      } // if
+    } // for
+    return -1;
+  } // find(JSONLexer, int, int, boolean)
+
+  /**
+   * Determine whether we keep everything.
+   */
+  boolean isAll() {
+    return this.keys == null;
+  } // isAll()
+
+} // class FieldMask
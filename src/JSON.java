@@ -2,25 +2,56 @@ package src;
 
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.PushbackReader;
+import java.io.InputStream;
 import java.io.Reader;
-import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.text.ParseException;
+import java.util.stream.Stream;
 
 /*
  * Authors: Christina Vu, Joyce Gill, Livia Stein Freitas
  * An implementation of a JSON parser. Utilities for our simple implementation of JSON.
+ *
+ * Each call builds its own JSONParser, so these methods keep no shared state and
+ * may be called from many threads at once.
  */
 public class JSON {
-    // +---------------+-----------------------------------------------
-    // | Static fields |
-    // +---------------+
+    // +-----------+---------------------------------------------------
+    // | Constants |
+    // +-----------+
+
+    /**
+     * Files at least this large are mapped rather than read when parsing
+     * with MappingMode.AUTO.
+     */
+    public static final long MAPPING_THRESHOLD = 1L << 20;
 
     /**
-     * The current position in the input.
+     * Ways of getting a file's bytes to the parser.
      */
+    public enum MappingMode {
+        /**
+         * Map files of at least MAPPING_THRESHOLD bytes; read smaller ones.
+         */
+        AUTO,
+
+        /**
+         * Memory-map the file, a chunk at a time for files above 1 GB.
+         */
+        MAPPED,
+
+        /**
+         * Read the file through a buffered stream.
+         */
+        STREAMED
+    } // enum MappingMode
 
-    static int pos;
     // +----------------+----------------------------------------------
     // | Static methods |
     // +----------------+
@@ -29,167 +60,196 @@ public class JSON {
      * Parse a string into JSON.
      */
     public static JSONValue parse(String source) throws ParseException, IOException {
-        return parse(new StringReader(source));
+        return new JSONParser(source).parse();
     }// parse(String)
 
     /**
      * Parse a file into JSON.
      */
     public static JSONValue parseFile(String filename) throws ParseException, IOException {
-        FileReader reader = new FileReader(filename);
-        JSONValue result = parse(reader);
-        reader.close();
-        return result;
+        try (FileReader reader = new FileReader(filename)) {
+            return parse(reader);
+        } // try
     } // parseFile(String)
 
+    /**
+     * Parse a UTF-8 encoded file into JSON, getting the bytes as mode says.
+     */
+    public static JSONValue parseFile(Path path, MappingMode mode)
+            throws ParseException, IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            boolean mapped = (mode == MappingMode.MAPPED)
+                    || (mode == MappingMode.AUTO && channel.size() >= MAPPING_THRESHOLD);
+            if (mapped) {
+                return new JSONParser(new JSONMappedLexer(channel)).parse();
+            } else {
+                return parse(Channels.newInputStream(channel));
+            } // if/else
+        } // try
+    } // parseFile(Path, MappingMode)
+
     /**
      * Parse JSON from a reader.
      */
     public static JSONValue parse(Reader source) throws ParseException, IOException {
-        pos = 0;
-        JSONValue result = parseKernel((Reader) source);
-        if (-1 != skipWhitespace((PushbackReader) source)) {
-            throw new ParseException("Characters remain at end", pos);
-        }
-        return result;
+        return new JSONParser(source).parse();
     } // parse(Reader)
+
+    /**
+     * Parse UTF-8 encoded JSON from an array of bytes.
+     */
+    public static JSONValue parse(byte[] source) throws ParseException, IOException {
+        return new JSONParser(source).parse();
+    } // parse(byte[])
+
+    /**
+     * Parse UTF-8 encoded JSON from the remaining bytes of a buffer.
+     */
+    public static JSONValue parse(ByteBuffer source) throws ParseException, IOException {
+        return new JSONParser(source).parse();
+    } // parse(ByteBuffer)
+
+    /**
+     * Parse UTF-8 encoded JSON from a stream.
+     */
+    public static JSONValue parse(InputStream source) throws ParseException, IOException {
+        return new JSONParser(source).parse();
+    } // parse(InputStream)
+
+    /**
+     * Parse a string into JSON, keeping only the fields that mask asks
+     * for.  See JSONParser.parse(FieldMask).
+     */
+    public static JSONValue parse(String source, FieldMask mask)
+            throws ParseException, IOException {
+        return new JSONParser(source).parse(mask);
+    } // parse(String, FieldMask)
+
+    /**
+     * Parse JSON from a reader, keeping only the fields that mask asks for.
+     */
+    public static JSONValue parse(Reader source, FieldMask mask)
+            throws ParseException, IOException {
+        return new JSONParser(source).parse(mask);
+    } // parse(Reader, FieldMask)
+
+    /**
+     * Parse UTF-8 encoded JSON from an array of bytes, keeping only the
+     * fields that mask asks for.
+     */
+    public static JSONValue parse(byte[] source, FieldMask mask)
+            throws ParseException, IOException {
+        return new JSONParser(source).parse(mask);
+    } // parse(byte[], FieldMask)
+
+    /**
+     * Parse UTF-8 encoded JSON from a stream, keeping only the fields that
+     * mask asks for.
+     */
+    public static JSONValue parse(InputStream source, FieldMask mask)
+            throws ParseException, IOException {
+        return new JSONParser(source).parse(mask);
+    } // parse(InputStream, FieldMask)
+
+    /**
+     * Parse a string into JSON lazily, building objects and arrays only as
+     * they are used.  See JSONParser.parseLazy.
+     */
+    public static JSONValue parseLazy(String source) throws ParseException, IOException {
+        return new JSONParser(source).parseLazy();
+    } // parseLazy(String)
+
+    /**
+     * Parse UTF-8 encoded JSON from an array of bytes lazily.  The array
+     * must not change while the result is in use.
+     */
+    public static JSONValue parseLazy(byte[] source) throws ParseException, IOException {
+        return new JSONParser(source).parseLazy();
+    } // parseLazy(byte[])
+
+    /**
+     * Parse a string holding one large array, splitting the elements
+     * among the threads of the common ForkJoinPool.  See
+     * JSONParser.parseParallel.
+     */
+    public static JSONValue parseParallel(String source) throws ParseException, IOException {
+        return new JSONParser(source).parseParallel();
+    } // parseParallel(String)
+
+    /**
+     * Parse UTF-8 encoded JSON holding one large array, splitting the
+     * elements among the threads of the common ForkJoinPool.
+     */
+    public static JSONValue parseParallel(byte[] source) throws ParseException, IOException {
+        return new JSONParser(source).parseParallel();
+    } // parseParallel(byte[])
+
+    /**
+     * Read JSON Lines (one value per line) from a reader, one value at a
+     * time.  See JSONLines, which also offers a parallel mode.
+     */
+    public static Stream<JSONValue> lines(Reader source) {
+        return new JSONLines(source).stream();
+    } // lines(Reader)
+
+    /**
+     * Read UTF-8 encoded JSON Lines from a stream, one value at a time.
+     */
+    public static Stream<JSONValue> lines(InputStream source) {
+        return new JSONLines(source).stream();
+    } // lines(InputStream)
+
+    /**
+     * Read UTF-8 encoded JSON Lines from a file, one value at a time.
+     * Close the stream to close the file.
+     */
+    public static Stream<JSONValue> lines(Path path) throws IOException {
+        return new JSONLines(Files.newInputStream(path)).stream();
+    } // lines(Path)
+
+    /**
+     * Write a value to a file in the binary form of JSONBinaryWriter.  The
+     * value is written to a temporary file next to path, which is then
+     * moved into place, so a reader (or a crash) never sees a file that is
+     * only partly written.
+     */
+    public static void writeBinary(JSONValue value, Path path) throws IOException {
+        byte[] bytes = new JSONBinaryWriter().toBytes(value);
+        Path dir = path.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buf = ByteBuffer.wrap(bytes);
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                } // while
+                channel.force(true);
+            } // try
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        } // try/finally
+    } // writeBinary(JSONValue, Path)
+
+    /**
+     * Read a value from a file written by writeBinary.  The file is mapped,
+     * and objects and arrays read their contents from it only as they are
+     * used, so it must not change while the result is in use.
+     */
+    public static JSONValue readBinary(Path path) throws ParseException, IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Binary documents over 2 GB are not supported: " + path);
+            } // if
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new JSONBinaryReader(bytes).root();
+        } // try
+    } // readBinary(Path)
+
     // +---------------+-----------------------------------------------
     // | Local helpers |
     // +---------------+
 
-    /**
-     * Parse JSON from a reader, keeping track of the current position
-     */
-
-
-    public static JSONValue parseKernel(Reader source) throws ParseException, IOException {
-        int ch = skipWhitespace(source);
-
-        if (-1 == ch) {
-            throw new ParseException("Unexpected end of file", pos);
-        }
-
-        if (ch == '"') {
-            return parseString(source);
-        } else if (ch == '{') {
-            return parseObject(source);
-        } else if (ch == '[') {
-            return parseArray(source);
-        } else if (Character.isDigit((char) ch) || ch == '-') {
-            return parseNumber(source);
-        } else if (ch == 't' || ch == 'f' || ch == 'n') {
-            return parseConstant(source);
-        } else {
-            throw new ParseException("Unexpected character: " + (char) ch, pos);
-        }
-    }
-
-    public static JSONString parseString(Reader source) throws ParseException, IOException {
-        StringBuilder builder = new StringBuilder();
-        int ch;
-        while ((ch = source.read()) != -1 && ch != '"') {
-            builder.append((char) ch);
-        }
-        if (ch == -1) {
-            throw new ParseException("Unterminated string", pos);
-        }
-        return new JSONString(builder.toString());
-    }
-
-    public static JSONHash parseObject(Reader source) throws ParseException, IOException {
-        JSONHash jsonObject = new JSONHash();
-        int ch;
-        while ((ch = skipWhitespace(source)) != -1 && ch != '}') {
-            JSONString key = parseString(source);
-            if (skipWhitespace(source) != ':') {
-                throw new ParseException("Expected ':' after key", pos);
-            }
-            JSONValue value = parseKernel(source);
-            jsonObject.set(key, value);
-            ch = skipWhitespace(source);
-            if (ch == '}') {
-                break;
-            } else if (ch != ',') {
-                throw new ParseException("Expected ',' or '}'", pos);
-            }
-        }
-        if (ch == -1) {
-            throw new ParseException("Unterminated object", pos);
-        }
-        return jsonObject;
-    }
-
-    public static JSONArray parseArray(Reader source) throws ParseException, IOException {
-        JSONArray jsonArray = new JSONArray();
-        int ch;
-        while ((ch = skipWhitespace(source)) != -1 && ch != ']') {
-            JSONValue value = parseKernel(source);
-            jsonArray.add(value);
-            ch = skipWhitespace(source);
-            if (ch == ']') {
-                break;
-            } else if (ch != ',') {
-                throw new ParseException("Expected ',' or ']'", pos);
-            }
-        }
-        if (ch == -1) {
-            throw new ParseException("Unterminated array", pos);
-        }
-        return jsonArray;
-    }
-
-    public static JSONValue parseNumber(Reader source) throws ParseException, IOException {
-        StringBuilder builder = new StringBuilder();
-        int ch;
-        while ((ch = source.read()) != -1
-                && (Character.isDigit(ch) || ch == '.' || ch == 'e' || ch == 'E' || ch == '-')) {
-            builder.append((char) ch);
-        }
-        if (ch != -1) {
-            ((PushbackReader) source).unread(ch);
-        }
-        String numberStr = builder.toString();
-        if (numberStr.contains(".") || numberStr.toLowerCase().contains("e")) {
-            return new JSONReal(numberStr);
-        } else {
-            return new JSONInteger(numberStr);
-        }
-    }
-
-    public static JSONValue parseConstant(Reader source) throws ParseException, IOException {
-        StringBuilder builder = new StringBuilder();
-        int ch;
-        while ((ch = source.read()) != -1 && Character.isLetter(ch)) {
-            builder.append((char) ch);
-        }
-        if (ch != -1) {
-            ((PushbackReader) source).unread(ch);
-        }
-        String constantStr = builder.toString();
-        switch (constantStr) {
-            case "true":
-                return JSONConstant.TRUE;
-            case "false":
-                return JSONConstant.FALSE;
-            case "null":
-                return JSONConstant.NULL;
-            default:
-                throw new ParseException("Invalid constant: " + constantStr, pos);
-        }
-    }
-
-    /**
-     * Get the next character from source, skipping over whitespace.
-     */
-    public static int skipWhitespace(Reader source) throws IOException {
-        int ch;
-        do {
-            ch = source.read();
-            ++pos;
-        } while (isWhitespace(ch));
-        return ch;
-    }// skipWhitespace(Reader)
-
     /**
      * Determine if a character is JSON whitespace (newline, carriage return, space, or tab).
      */
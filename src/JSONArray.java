@@ -2,7 +2,11 @@ package src;
 
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.DoubleStream;
+import java.util.stream.LongStream;
 
 /**
  * Authors: Livia Stein Freitas, Christina Vu, and Joyce Gill 
@@ -38,9 +42,9 @@ public class JSONArray implements JSONValue {
    * Convert to a string (e.g., for printing).
    */
   public String toString() {
-    String result = "[";
-    result = result.concat(this.toStringLoop());
-    return result.concat("]");
+    StringBuilder builder = new StringBuilder(this.estimateSize());
+    this.appendTo(builder);
+    return builder.toString();
   } // toString()
 
   /**
@@ -48,19 +52,33 @@ public class JSONArray implements JSONValue {
    */
   public boolean equals(Object other) {
     if (other instanceof JSONArray) {
+      // Compare element by element, so that arrays that hold their
+      // elements some other way need not build the whole list
       JSONArray anotherArray = (JSONArray) other;
-      if (this.values.equals(anotherArray.values)) {
-        return true;
-      }
+      int size = this.size();
+      if (size != anotherArray.size()) {
+        return false;
+      } // if
+      for (int i = 0; i < size; i++) {
+        if (!Objects.equals(this.get(i), anotherArray.get(i))) {
+          return false;
+        } // if
+      } // for
+      return true;
     } // if(other instanceof JSONValue)
     return false;
   } // equals(Object)
 
   /**
-   * Compute the hash code.
+   * Compute the hash code, the same way List.hashCode does.
    */
   public int hashCode() {
-    return this.values.hashCode();
+    int hash = 1;
+    int size = this.size();
+    for (int i = 0; i < size; i++) {
+      hash = 31 * hash + Objects.hashCode(this.get(i));
+    } // for
+    return hash;
   } // hashCode()
 
   // +--------------------+------------------------------------------
@@ -71,7 +89,7 @@ public class JSONArray implements JSONValue {
    * Write the value as JSON.
    */
   public void writeJSON(PrintWriter pen) {
-    pen.write(this.toString());
+    new JSONWriter(pen).writeArray(this);
   } // writeJSON(PrintWriter)
 
   /**
@@ -120,15 +138,126 @@ public class JSONArray implements JSONValue {
     return this.values.size();
   } // size()
 
+  // +--------------+------------------------------------------------
+  // | Bulk methods |
+  // +--------------+
+
+  /**
+   * Get the elements, which must all be integers that fit in a long, as
+   * longs.
+   */
+  public long[] toLongArray() throws ClassCastException {
+    int size = this.size();
+    long[] result = new long[size];
+    for (int i = 0; i < size; i++) {
+      JSONValue value = this.get(i);
+      if (!(value instanceof JSONInteger) || !((JSONInteger) value).isLong()) {
+        throw new ClassCastException("Element " + i + " is not a long: " + value);
+      } // if
+      result[i] = ((JSONInteger) value).longValue();
+    } // for
+    return result;
+  } // toLongArray()
+
+  /**
+   * Get the elements, which must all be numbers, as doubles, each
+   * rounded to the nearest double.
+   */
+  public double[] toDoubleArray() throws ClassCastException {
+    int size = this.size();
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      JSONValue value = this.get(i);
+      if (value instanceof JSONInteger) {
+        result[i] = ((JSONInteger) value).doubleValue();
+      } else if (value instanceof JSONReal) {
+        result[i] = ((JSONReal) value).doubleValue();
+      } else {
+        throw new ClassCastException("Element " + i + " is not a number: " + value);
+      } // if/else
+    } // for
+    return result;
+  } // toDoubleArray()
+
+  /**
+   * Get the elements, which must all be true or false, as booleans.
+   */
+  public boolean[] toBooleanArray() throws ClassCastException {
+    int size = this.size();
+    boolean[] result = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      JSONValue value = this.get(i);
+      if (value == JSONConstant.TRUE || value == JSONConstant.FALSE) {
+        result[i] = (value == JSONConstant.TRUE);
+      } else {
+        throw new ClassCastException("Element " + i + " is not a boolean: " + value);
+      } // if/else
+    } // for
+    return result;
+  } // toBooleanArray()
+
+  /**
+   * Stream the elements, as toLongArray gets them.
+   */
+  public LongStream longStream() throws ClassCastException {
+    return Arrays.stream(this.toLongArray());
+  } // longStream()
+
+  /**
+   * Stream the elements, as toDoubleArray gets them.
+   */
+  public DoubleStream doubleStream() throws ClassCastException {
+    return Arrays.stream(this.toDoubleArray());
+  } // doubleStream()
+
   /* HELPERS */
+
+  /**
+   * Get the elements, separated by commas, without the brackets.
+   */
   public String toStringLoop() {
-    String body = "";
-    // edge case: first element of the array
-    body = body.concat(this.values.get(0).toString());
-    for (int i = 1; i < this.values.size(); i++) {
-      body = body.concat(", " + this.values.get(i));
-    } // for
-    return body;
+    StringBuilder builder = new StringBuilder(this.estimateSize());
+    this.appendElements(builder);
+    return builder.toString();
   }// toStringLoop()
 
+  /**
+   * Add the printed form of this array to the end of builder.  Nested
+   * arrays and hashes add themselves to the same builder, so printing a
+   * whole tree copies each character once.
+   */
+  void appendTo(StringBuilder builder) {
+    builder.append('[');
+    this.appendElements(builder);
+    builder.append(']');
+  } // appendTo(StringBuilder)
+
+  /**
+   * Add the elements, separated by commas, to the end of builder.
+   */
+  void appendElements(StringBuilder builder) {
+    int size = this.size();
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      } // if
+      JSONValue value = this.get(i);
+      if (value instanceof JSONArray) {
+        ((JSONArray) value).appendTo(builder);
+      } else if (value instanceof JSONHash) {
+        ((JSONHash) value).appendTo(builder);
+      } else {
+        builder.append(value);
+      } // if/else
+    } // for
+  } // appendElements(StringBuilder)
+
+  /**
+   * Guess how many characters the printed form will take, so that we
+   * can size the builder up front.
+   */
+  int estimateSize() {
+    return 2 + 8 * this.size();
+  } // estimateSize()
+
 } // class JSONArray
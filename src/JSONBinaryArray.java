@@ -0,0 +1,144 @@
+package src;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * A JSON array read from a binary document by JSONBinaryReader.  size
+ * and get work straight from the buffer, using the array's table to find
+ * each element; anything that needs the whole list (getValue, iterator,
+ * add, set) first reads every element, after which this acts just like
+ * any other JSONArray.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+class JSONBinaryArray extends JSONArray {
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The document that holds our elements, or null once they are all
+   * read.
+   */
+  JSONBinaryReader reader;
+
+  /**
+   * The number of elements.
+   */
+  int count;
+
+  /**
+   * The index in the buffer of the first element.
+   */
+  int children;
+
+  /**
+   * The index in the buffer of the first offset in our table.
+   */
+  int offsets;
+
+  /**
+   * The width of each offset.
+   */
+  int width;
+
+  /**
+   * The elements read so far (null until first needed).
+   */
+  JSONValue[] built;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build the array at index pos of reader's buffer.
+   */
+  JSONBinaryArray(JSONBinaryReader reader, int pos) throws ParseException {
+    this.reader = reader;
+    this.count = reader.count(pos);
+    if (this.count > 0) {
+      this.children = reader.children(pos);
+      int table = reader.table(this.children, this.count, 1);
+      this.width = reader.buf.get(table);
+      this.offsets = table + 1;
+    } // if
+  } // JSONBinaryArray(JSONBinaryReader, int)
+
+  // +---------------+-----------------------------------------------
+  // | Array methods |
+  // +---------------+
+
+  @Override
+  public ArrayList<JSONValue> getValue() {
+    inflate();
+    return super.getValue();
+  } // getValue()
+
+  @Override
+  public void add(JSONValue value) {
+    inflate();
+    super.add(value);
+  } // add(JSONValue)
+
+  @Override
+  public JSONValue get(int index) throws IndexOutOfBoundsException {
+    if (this.reader == null) {
+      return super.get(index);
+    } // if
+    Objects.checkIndex(index, this.count);
+    if (this.built == null) {
+      this.built = new JSONValue[this.count];
+    } // if
+    JSONValue value = this.built[index];
+    if (value == null) {
+      int offset = this.reader.fixed(this.offsets + index * this.width, this.width);
+      value = this.reader.child(this.children + offset);
+      this.built[index] = value;
+    } // if
+    return value;
+  } // get(int)
+
+  @Override
+  public Iterator<JSONValue> iterator() {
+    inflate();
+    return super.iterator();
+  } // iterator()
+
+  @Override
+  public void set(int index, JSONValue value) throws IndexOutOfBoundsException {
+    inflate();
+    super.set(index, value);
+  } // set(int, JSONValue)
+
+  @Override
+  public int size() {
+    return (this.reader == null) ? super.size() : this.count;
+  } // size()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Read every element that has not been read yet, and stop being lazy.
+   */
+  void inflate() {
+    if (this.reader == null) {
+      return;
+    } // if
+    this.values.ensureCapacity(this.count);
+    for (int i = 0; i < this.count; i++) {
+      this.values.add(get(i));
+    } // for
+    this.reader = null;
+    this.built = null;
+  } // inflate()
+
+} // class JSONBinaryArray
@@ -0,0 +1,215 @@
+package src;
+
+import java.text.ParseException;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * A JSON object read from a binary document by JSONBinaryReader.  size,
+ * keyAt, and valueAt work straight from the buffer, using the object's
+ * table to find each pair, and so does writing the object as JSON.  For
+ * a small object, get looks the wanted key up in the dictionary and
+ * then compares indices; anything else (and any get on a larger object)
+ * first reads every pair, after which this acts just like any other
+ * JSONHash.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+class JSONBinaryHash extends JSONHash {
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The document that holds our pairs, or null once they are all read.
+   */
+  JSONBinaryReader reader;
+
+  /**
+   * The number of pairs.
+   */
+  int count;
+
+  /**
+   * The index in the buffer of the first value.
+   */
+  int children;
+
+  /**
+   * The index in the buffer of the first key in our table.
+   */
+  int ids;
+
+  /**
+   * The width of each key and offset in the table.
+   */
+  int width;
+
+  /**
+   * The values read so far (null until first needed).
+   */
+  JSONValue[] built;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build the object at index pos of reader's buffer.
+   */
+  JSONBinaryHash(JSONBinaryReader reader, int pos) throws ParseException {
+    this.reader = reader;
+    this.count = reader.count(pos);
+    if (this.count > 0) {
+      this.children = reader.children(pos);
+      int table = reader.table(this.children, this.count, 2);
+      this.width = reader.buf.get(table);
+      this.ids = table + 1;
+    } // if
+  } // JSONBinaryHash(JSONBinaryReader, int)
+
+  // +-------------------------+-------------------------------------
+  // | Standard object methods |
+  // +-------------------------+
+
+  @Override
+  public boolean equals(Object other) {
+    inflate();
+    return super.equals(other);
+  } // equals(Object)
+
+  @Override
+  public int hashCode() {
+    inflate();
+    return super.hashCode();
+  } // hashCode()
+
+  // +--------------------+------------------------------------------
+  // | Additional methods |
+  // +--------------------+
+
+  @Override
+  void appendTo(StringBuilder builder) {
+    inflate();
+    super.appendTo(builder);
+  } // appendTo(StringBuilder)
+
+  @Override
+  int estimateSize() {
+    return 2 + 16 * size();
+  } // estimateSize()
+
+  @Override
+  public void resize() {
+    inflate();
+    super.resize();
+  } // resize()
+
+  // +-------------------+-------------------------------------------
+  // | Hashtable methods |
+  // +-------------------+
+
+  @Override
+  public JSONValue get(JSONString key) {
+    if (this.reader == null) {
+      return super.get(key);
+    } // if
+    if (this.count > COMPACT_LIMIT) {
+      inflate();
+      return super.get(key);
+    } // if
+    int id = this.reader.id(key.getValue());
+    if (id < 0) {
+      return null;
+    } // if
+    for (int i = 0; i < this.count; i++) {
+      if (this.reader.fixed(this.ids + i * this.width, this.width) == id) {
+        return value(i);
+      } // if
+    } // for
+    return null;
+  } // get(JSONString)
+
+  @Override
+  public Iterator<KVPair<JSONString, JSONValue>> iterator() {
+    inflate();
+    return super.iterator();
+  } // iterator()
+
+  @Override
+  public void set(JSONString key, JSONValue value) {
+    inflate();
+    super.set(key, value);
+  } // set(JSONString, JSONValue)
+
+  @Override
+  public int size() {
+    return (this.reader == null) ? super.size() : this.count;
+  } // size()
+
+  @Override
+  public JSONString keyAt(int i) throws IndexOutOfBoundsException {
+    if (this.reader == null) {
+      return super.keyAt(i);
+    } // if
+    Objects.checkIndex(i, this.count);
+    return this.reader.key(this.reader.fixed(this.ids + i * this.width, this.width));
+  } // keyAt(int)
+
+  @Override
+  public JSONValue valueAt(int i) throws IndexOutOfBoundsException {
+    if (this.reader == null) {
+      return super.valueAt(i);
+    } // if
+    Objects.checkIndex(i, this.count);
+    return value(i);
+  } // valueAt(int)
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Get the value of pair i, reading it if we have not already.
+   */
+  JSONValue value(int i) {
+    if (this.built == null) {
+      this.built = new JSONValue[this.count];
+    } // if
+    JSONValue value = this.built[i];
+    if (value == null) {
+      int offsets = this.ids + this.count * this.width;
+      int offset = this.reader.fixed(offsets + i * this.width, this.width);
+      value = this.reader.child(this.children + offset);
+      this.built[i] = value;
+    } // if
+    return value;
+  } // value(int)
+
+  /**
+   * Read every pair, and stop being lazy.
+   */
+  void inflate() {
+    JSONBinaryReader reader = this.reader;
+    if (reader == null) {
+      return;
+    } // if
+    int count = this.count;
+    JSONString[] keys = new JSONString[count];
+    JSONValue[] values = new JSONValue[count];
+    for (int i = 0; i < count; i++) {
+      keys[i] = keyAt(i);
+      values[i] = value(i);
+    } // for
+    // From here on we are an ordinary hash
+    this.reader = null;
+    this.built = null;
+    for (int i = 0; i < count; i++) {
+      super.set(keys[i], values[i]);
+    } // for
+  } // inflate()
+
+} // class JSONBinaryHash
@@ -0,0 +1,345 @@
+package src;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.HashMap;
+
+import static src.JSONBinaryWriter.ARRAY;
+import static src.JSONBinaryWriter.BIG_INTEGER;
+import static src.JSONBinaryWriter.BIG_REAL;
+import static src.JSONBinaryWriter.FALSE;
+import static src.JSONBinaryWriter.INTEGER;
+import static src.JSONBinaryWriter.MAGIC;
+import static src.JSONBinaryWriter.NULL;
+import static src.JSONBinaryWriter.OBJECT;
+import static src.JSONBinaryWriter.REAL;
+import static src.JSONBinaryWriter.STRING;
+import static src.JSONBinaryWriter.TRUE;
+import static src.JSONBinaryWriter.VERSION;
+
+/**
+ * Reads JSON values written by JSONBinaryWriter straight out of a
+ * buffer, such as a mapped file.  Opening a document reads only its
+ * dictionary of keys.  Objects and arrays read their contents from the
+ * buffer as they are asked for, and use the tables in the buffer to go
+ * straight to any element or pair, so a caller who looks at a few
+ * fields pays for just those fields.
+ *
+ * The buffer must not change while values read from it are in use.  As
+ * with lazy parsing, values are not safe to share between threads until
+ * they have been fully read.
+ *
+ * Every read is checked against the end of the document, whose length
+ * is in the header, so a document cut short (say, by a crash while it
+ * was written) fails with a ParseException when it is opened.  Other
+ * damage fails with a ParseException when the damaged part is read;
+ * objects and arrays, which read their contents as they are asked for,
+ * wrap it in an IllegalStateException.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONBinaryReader {
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The document, little-endian.
+   */
+  ByteBuffer buf;
+
+  /**
+   * The keys of the dictionary.
+   */
+  JSONString[] keys;
+
+  /**
+   * The index of each key in the dictionary (null until first needed).
+   */
+  HashMap<String, Integer> ids;
+
+  /**
+   * The index of the top-level value.
+   */
+  int root;
+
+  /**
+   * Room for copying the bytes of a string out of a buffer that has no
+   * backing array.
+   */
+  byte[] scratch = new byte[64];
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Open the document in the remaining bytes of bytes.  We work on a
+   * duplicate, so the caller's buffer keeps its position and byte order.
+   */
+  public JSONBinaryReader(ByteBuffer bytes) throws ParseException {
+    this.buf = bytes.slice().order(ByteOrder.LITTLE_ENDIAN);
+    if (this.buf.limit() < MAGIC.length + 5) {
+      throw new ParseException("Not a binary JSON document", 0);
+    } // if
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (this.buf.get(i) != MAGIC[i]) {
+        throw new ParseException("Not a binary JSON document", i);
+      } // if
+    } // for
+    if (this.buf.get(MAGIC.length) != VERSION) {
+      throw new ParseException("Unknown version " + this.buf.get(MAGIC.length),
+          MAGIC.length);
+    } // if
+    int length = this.buf.getInt(MAGIC.length + 1);
+    if (length < MAGIC.length + 5 || length > this.buf.limit()) {
+      throw new ParseException("Binary JSON document is " + this.buf.limit()
+          + " bytes, but its header says " + length, this.buf.limit());
+    } // if
+    // Anything after the document is none of our business
+    this.buf.limit(length);
+    int pos = MAGIC.length + 5;
+    long count = varint(pos);
+    pos = skipVarint(pos);
+    // Every key takes at least a byte
+    check(pos, count);
+    this.keys = new JSONString[(int) count];
+    for (int i = 0; i < count; i++) {
+      this.keys[i] = new JSONString(string(pos));
+      pos = skipVarint(pos) + (int) varint(pos);
+    } // for
+    this.root = pos;
+  } // JSONBinaryReader(ByteBuffer)
+
+  // +---------+-----------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Get the top-level value.
+   */
+  public JSONValue root() throws ParseException {
+    return value(this.root);
+  } // root()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Get the value at index pos.
+   */
+  JSONValue value(int pos) throws ParseException {
+    check(pos, 1);
+    byte tag = this.buf.get(pos);
+    switch (tag) {
+      case NULL:
+        return JSONConstant.NULL;
+      case FALSE:
+        return JSONConstant.FALSE;
+      case TRUE:
+        return JSONConstant.TRUE;
+      case INTEGER:
+        return new JSONInteger(unzigzag(varint(pos + 1)));
+      case BIG_INTEGER:
+        return new JSONInteger(new BigInteger(bytes(pos + 1)));
+      case REAL:
+        long unscaled = unzigzag(varint(pos + 1));
+        return new JSONReal(unscaled, (int) unzigzag(varint(skipVarint(pos + 1))));
+      case BIG_REAL:
+        int scale = (int) unzigzag(varint(pos + 1));
+        return new JSONReal(new BigDecimal(new BigInteger(bytes(skipVarint(pos + 1))), scale));
+      case STRING:
+        return new JSONString(string(pos + 1));
+      case ARRAY:
+        return new JSONBinaryArray(this, pos);
+      case OBJECT:
+        return new JSONBinaryHash(this, pos);
+      default:
+        throw new ParseException("Unknown tag " + tag + " at " + pos, pos);
+    } // switch
+  } // value(int)
+
+  /**
+   * Get the value at index pos, for an object or array, which cannot
+   * throw a ParseException.
+   */
+  JSONValue child(int pos) {
+    try {
+      return value(pos);
+    } catch (ParseException e) {
+      throw new IllegalStateException(e);
+    } // try/catch
+  } // child(int)
+
+  /**
+   * Get the key with dictionary index id, for an object.
+   */
+  JSONString key(int id) {
+    if (id < 0 || id >= this.keys.length) {
+      throw new IllegalStateException(new ParseException("Unknown key " + id, 0));
+    } // if
+    return this.keys[id];
+  } // key(int)
+
+  /**
+   * Get the dictionary index of key, or -1 if no object has that key.
+   */
+  int id(String key) {
+    if (this.ids == null) {
+      this.ids = new HashMap<String, Integer>();
+      for (int i = 0; i < this.keys.length; i++) {
+        this.ids.put(this.keys[i].getValue(), i);
+      } // for
+    } // if
+    Integer id = this.ids.get(key);
+    return (id == null) ? -1 : id;
+  } // id(String)
+
+  /**
+   * Read the count of the container at index pos.
+   */
+  int count(int pos) throws ParseException {
+    long count = varint(pos + 1);
+    // Every child takes at least a byte
+    check(pos, count);
+    return (int) count;
+  } // count(int)
+
+  /**
+   * Find where the children of the container at index pos start.  Only
+   * good if the container is not empty.
+   */
+  int children(int pos) throws ParseException {
+    int children = skipVarint(pos + 1) + 4;
+    check(children - 4, 4);
+    return children;
+  } // children(int)
+
+  /**
+   * Find the table of the container whose children start at children,
+   * and check that the table holds entries of entries each for count
+   * children.  Returns the index of the table's width byte.
+   */
+  int table(int children, int count, int entries) throws ParseException {
+    long table = (long) children + this.buf.getInt(children - 4);
+    check(table, 1);
+    int width = this.buf.get((int) table);
+    if (width != 1 && width != 2 && width != 4) {
+      throw new ParseException("Bad table width " + width + " at " + table, (int) table);
+    } // if
+    check(table + 1, (long) count * entries * width);
+    return (int) table;
+  } // table(int, int, int)
+
+  /**
+   * Read an unsigned number of width bytes at index pos.
+   */
+  int fixed(int pos, int width) {
+    switch (width) {
+      case 1:
+        return this.buf.get(pos) & 0xFF;
+      case 2:
+        return this.buf.getShort(pos) & 0xFFFF;
+      default:
+        return this.buf.getInt(pos);
+    } // switch
+  } // fixed(int, int)
+
+  /**
+   * Read the string whose length is at index pos.
+   */
+  String string(int pos) throws ParseException {
+    long length = varint(pos);
+    int start = skipVarint(pos);
+    check(start, length);
+    int len = (int) length;
+    if (this.buf.hasArray()) {
+      return new String(this.buf.array(), this.buf.arrayOffset() + start, len,
+          StandardCharsets.UTF_8);
+    } // if
+    // Copy into scratch rather than a new array, since String copies again
+    if (this.scratch.length < len) {
+      this.scratch = new byte[Math.max(len, this.scratch.length * 2)];
+    } // if
+    this.buf.get(start, this.scratch, 0, len);
+    return new String(this.scratch, 0, len, StandardCharsets.UTF_8);
+  } // string(int)
+
+  /**
+   * Read the bytes whose length is at index pos.
+   */
+  byte[] bytes(int pos) throws ParseException {
+    long length = varint(pos);
+    int start = skipVarint(pos);
+    check(start, length);
+    byte[] bytes = new byte[(int) length];
+    this.buf.get(start, bytes);
+    return bytes;
+  } // bytes(int)
+
+  /**
+   * Read the unsigned varint at index pos.
+   */
+  long varint(int pos) throws ParseException {
+    check(pos, 1);
+    byte first = this.buf.get(pos);
+    if (first >= 0) {
+      // Most lengths and counts fit in one byte
+      return first;
+    } // if
+    int end = skipVarint(pos);
+    long n = 0;
+    int shift = 0;
+    for (int i = pos; i < end; i++) {
+      n |= (long) (this.buf.get(i) & 0x7F) << shift;
+      shift += 7;
+    } // for
+    return n;
+  } // varint(int)
+
+  /**
+   * Find the index just past the varint at index pos.
+   */
+  int skipVarint(int pos) throws ParseException {
+    check(pos, 1);
+    if (this.buf.get(pos) >= 0) {
+      return pos + 1;
+    } // if
+    int start = pos;
+    while (this.buf.get(pos) < 0) {
+      ++pos;
+      // No varint we write is longer than ten bytes
+      if (pos - start == 10) {
+        throw new ParseException("Bad varint at " + start, start);
+      } // if
+      check(pos, 1);
+    } // while
+    return pos + 1;
+  } // skipVarint(int)
+
+  /**
+   * Check that the len bytes at index pos are all in the document.
+   */
+  void check(long pos, long len) throws ParseException {
+    if (pos < 0 || len < 0 || pos + len > this.buf.limit()) {
+      throw new ParseException("Binary JSON document is damaged at " + pos,
+          (int) Math.max(0, Math.min(pos, this.buf.limit())));
+    } // if
+  } // check(long, long)
+
+  /**
+   * Undo JSONBinaryWriter.zigzag.
+   */
+  static long unzigzag(long n) {
+    return (n >>> 1) ^ -(n & 1);
+  } // unzigzag(long)
+
+} // class JSONBinaryReader
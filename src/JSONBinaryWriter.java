@@ -0,0 +1,359 @@
+package src;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Writes JSON values in a compact binary form that JSONBinaryReader can
+ * load without parsing.
+ *
+ * The form starts with the four bytes "JSNB", a version byte, the length
+ * of the whole document in four bytes, and a dictionary of every object
+ * key: a count, then each key as a length and its UTF-8 bytes.  The top-level value follows.  Each value is a
+ * tag byte and then:
+ *
+ * <ul>
+ * <li>NULL, FALSE, TRUE: nothing.</li>
+ * <li>INTEGER: the value, zigzag-encoded as a varint.</li>
+ * <li>BIG_INTEGER: a length and the two's-complement bytes, as from
+ *   BigInteger.toByteArray.</li>
+ * <li>REAL: the unscaled value and the scale, both zigzag varints.</li>
+ * <li>BIG_REAL: the scale as a zigzag varint, then the unscaled value as
+ *   for BIG_INTEGER.</li>
+ * <li>STRING: a length and the UTF-8 bytes.</li>
+ * <li>ARRAY and OBJECT: a count, and if it is not zero, a four-byte
+ *   offset from just past that offset to the table, the children
+ *   themselves, and the table.  The table is a width byte (1, 2, or 4),
+ *   then for an object the dictionary index of each key, then the
+ *   offset of each child from the first, all in that many bytes.</li>
+ * </ul>
+ *
+ * Lengths and counts are unsigned varints, seven bits per byte, low bits
+ * first.  Fixed-size numbers are little-endian.  The tables let a reader
+ * reach any element or pair directly, without reading the ones before
+ * it.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONBinaryWriter {
+
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The first bytes of every binary document.
+   */
+  static final byte[] MAGIC = {'J', 'S', 'N', 'B'};
+
+  /**
+   * The version of the form we write.
+   */
+  static final byte VERSION = 2;
+
+  /**
+   * Tags.
+   */
+  static final byte NULL = 0;
+  static final byte FALSE = 1;
+  static final byte TRUE = 2;
+  static final byte INTEGER = 3;
+  static final byte BIG_INTEGER = 4;
+  static final byte REAL = 5;
+  static final byte BIG_REAL = 6;
+  static final byte STRING = 7;
+  static final byte ARRAY = 8;
+  static final byte OBJECT = 9;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The bytes written so far.
+   */
+  byte[] out = new byte[256];
+
+  /**
+   * How many bytes of out are in use.
+   */
+  int length;
+
+  /**
+   * The index of each key in the dictionary.
+   */
+  HashMap<String, Integer> ids = new HashMap<String, Integer>();
+
+  /**
+   * The keys of the dictionary, in order.
+   */
+  ArrayList<String> dictionary = new ArrayList<String>();
+
+  // +---------+-----------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Encode value.
+   */
+  public byte[] toBytes(JSONValue value) {
+    this.length = 0;
+    this.ids.clear();
+    this.dictionary.clear();
+    collectKeys(value);
+    put(MAGIC, 0, MAGIC.length);
+    put(VERSION);
+    int header = reserve();
+    putVarint(this.dictionary.size());
+    for (String key : this.dictionary) {
+      putString(key);
+    } // for
+    putValue(value);
+    // A reader checks the length, so it can tell a cut-off document
+    putFixed(this.length, header - 4, 4);
+    return Arrays.copyOf(this.out, this.length);
+  } // toBytes(JSONValue)
+
+  /**
+   * Encode value and write it to out.
+   */
+  public void write(JSONValue value, OutputStream out) throws IOException {
+    byte[] bytes = toBytes(value);
+    out.write(bytes);
+  } // write(JSONValue, OutputStream)
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Give every key in value (and the values inside it) a place in the
+   * dictionary.
+   */
+  void collectKeys(JSONValue value) {
+    if (value instanceof JSONHash) {
+      JSONHash hash = (JSONHash) value;
+      int size = hash.size();
+      for (int i = 0; i < size; i++) {
+        String key = hash.keyAt(i).getValue();
+        if (!this.ids.containsKey(key)) {
+          this.ids.put(key, this.dictionary.size());
+          this.dictionary.add(key);
+        } // if
+        collectKeys(hash.valueAt(i));
+      } // for
+    } else if (value instanceof JSONArray) {
+      JSONArray array = (JSONArray) value;
+      int size = array.size();
+      for (int i = 0; i < size; i++) {
+        collectKeys(array.get(i));
+      } // for
+    } // if/else
+  } // collectKeys(JSONValue)
+
+  /**
+   * Write one value.
+   */
+  void putValue(JSONValue value) {
+    if (value == null || value == JSONConstant.NULL) {
+      put(NULL);
+    } else if (value == JSONConstant.TRUE) {
+      put(TRUE);
+    } else if (value == JSONConstant.FALSE) {
+      put(FALSE);
+    } else if (value instanceof JSONInteger) {
+      JSONInteger integer = (JSONInteger) value;
+      if (integer.isSmall) {
+        put(INTEGER);
+        putVarint(zigzag(integer.small));
+      } else {
+        put(BIG_INTEGER);
+        putBytes(integer.value.toByteArray());
+      } // if/else
+    } else if (value instanceof JSONReal) {
+      JSONReal real = (JSONReal) value;
+      if (real.isCompact) {
+        put(REAL);
+        putVarint(zigzag(real.unscaled));
+        putVarint(zigzag(real.scale));
+      } else {
+        BigDecimal decimal = real.getValue();
+        put(BIG_REAL);
+        putVarint(zigzag(decimal.scale()));
+        putBytes(decimal.unscaledValue().toByteArray());
+      } // if/else
+    } else if (value instanceof JSONString) {
+      put(STRING);
+      putString(((JSONString) value).getValue());
+    } else if (value instanceof JSONArray) {
+      putArray((JSONArray) value);
+    } else if (value instanceof JSONHash) {
+      putHash((JSONHash) value);
+    } else {
+      throw new IllegalArgumentException("Cannot encode " + value.getClass().getName());
+    } // if/else
+  } // putValue(JSONValue)
+
+  /**
+   * Write an array: the children, then the table of where they are.
+   */
+  void putArray(JSONArray array) {
+    put(ARRAY);
+    int count = array.size();
+    putVarint(count);
+    if (count == 0) {
+      return;
+    } // if
+    int[] offsets = new int[count];
+    int children = reserve();
+    for (int i = 0; i < count; i++) {
+      offsets[i] = this.length - children;
+      putValue(array.get(i));
+    } // for
+    int width = width(offsets[count - 1]);
+    patch(children, width);
+    for (int i = 0; i < count; i++) {
+      putFixed(offsets[i], width);
+    } // for
+  } // putArray(JSONArray)
+
+  /**
+   * Write an object: the values, then the table of keys and where the
+   * values are.
+   */
+  void putHash(JSONHash hash) {
+    put(OBJECT);
+    int count = hash.size();
+    putVarint(count);
+    if (count == 0) {
+      return;
+    } // if
+    int[] offsets = new int[count];
+    int children = reserve();
+    for (int i = 0; i < count; i++) {
+      offsets[i] = this.length - children;
+      putValue(hash.valueAt(i));
+    } // for
+    int width = width(Math.max(offsets[count - 1], this.dictionary.size() - 1));
+    patch(children, width);
+    for (int i = 0; i < count; i++) {
+      putFixed(this.ids.get(hash.keyAt(i).getValue()), width);
+    } // for
+    for (int i = 0; i < count; i++) {
+      putFixed(offsets[i], width);
+    } // for
+  } // putHash(JSONHash)
+
+  /**
+   * Leave room for the offset of a table, and return where the children
+   * will start.
+   */
+  int reserve() {
+    ensure(4);
+    this.length += 4;
+    return this.length;
+  } // reserve()
+
+  /**
+   * Fill in the offset of the table for the children that start at
+   * children, which is here, and start the table.
+   */
+  void patch(int children, int width) {
+    putFixed(this.length - children, children - 4, 4);
+    put((byte) width);
+  } // patch(int, int)
+
+  /**
+   * Get the number of bytes needed to hold n.
+   */
+  static int width(int n) {
+    return (n < 0x100) ? 1 : (n < 0x10000) ? 2 : 4;
+  } // width(int)
+
+  /**
+   * Map signed numbers to unsigned ones so that small negative numbers
+   * get short varints.
+   */
+  static long zigzag(long n) {
+    return (n << 1) ^ (n >> 63);
+  } // zigzag(long)
+
+  /**
+   * Write a string as a length and its UTF-8 bytes.
+   */
+  void putString(String str) {
+    putBytes(str.getBytes(StandardCharsets.UTF_8));
+  } // putString(String)
+
+  /**
+   * Write bytes as a length and the bytes.
+   */
+  void putBytes(byte[] bytes) {
+    putVarint(bytes.length);
+    put(bytes, 0, bytes.length);
+  } // putBytes(byte[])
+
+  /**
+   * Write n as an unsigned varint.
+   */
+  void putVarint(long n) {
+    ensure(10);
+    while ((n & ~0x7FL) != 0) {
+      this.out[this.length++] = (byte) ((n & 0x7F) | 0x80);
+      n >>>= 7;
+    } // while
+    this.out[this.length++] = (byte) n;
+  } // putVarint(long)
+
+  /**
+   * Write n in width bytes, little-endian.
+   */
+  void putFixed(int n, int width) {
+    ensure(width);
+    putFixed(n, this.length, width);
+    this.length += width;
+  } // putFixed(int, int)
+
+  /**
+   * Write n in width bytes, little-endian, at index at.
+   */
+  void putFixed(int n, int at, int width) {
+    for (int i = 0; i < width; i++) {
+      this.out[at + i] = (byte) (n >>> (8 * i));
+    } // for
+  } // putFixed(int, int, int)
+
+  /**
+   * Write one byte.
+   */
+  void put(byte b) {
+    ensure(1);
+    this.out[this.length++] = b;
+  } // put(byte)
+
+  /**
+   * Write len bytes of bytes, starting at index offset.
+   */
+  void put(byte[] bytes, int offset, int len) {
+    ensure(len);
+    System.arraycopy(bytes, offset, this.out, this.length, len);
+    this.length += len;
+  } // put(byte[], int, int)
+
+  /**
+   * Make room for n more bytes.
+   */
+  void ensure(int n) {
+    if (this.length + n > this.out.length) {
+      this.out = Arrays.copyOf(this.out, Math.max(this.length + n, this.out.length * 2));
+    } // if
+  } // ensure(int)
+
+} // class JSONBinaryWriter
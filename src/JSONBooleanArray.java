@@ -0,0 +1,88 @@
+package src;
+
+import java.util.Arrays;
+
+/**
+ * A JSON array of true and false, held as a set of bits, 64 to a long.
+ * See JSONPrimitiveArray.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+class JSONBooleanArray extends JSONPrimitiveArray {
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The elements, while we are primitive: element i is bit i % 64 of
+   * words[i / 64].
+   */
+  long[] words = new long[1];
+
+  // +--------------+------------------------------------------------
+  // | Bulk methods |
+  // +--------------+
+
+  @Override
+  public boolean[] toBooleanArray() {
+    if (!this.primitive) {
+      return super.toBooleanArray();
+    } // if
+    boolean[] result = new boolean[this.count];
+    for (int i = 0; i < this.count; i++) {
+      result[i] = bit(i);
+    } // for
+    return result;
+  } // toBooleanArray()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Get element i.
+   */
+  boolean bit(int i) {
+    // Shifts only use the low six bits of i
+    return ((this.words[i >>> 6] >>> i) & 1) != 0;
+  } // bit(int)
+
+  @Override
+  JSONValue box(int i) {
+    return bit(i) ? JSONConstant.TRUE : JSONConstant.FALSE;
+  } // box(int)
+
+  @Override
+  boolean store(int i, JSONValue value) {
+    if (value != JSONConstant.TRUE && value != JSONConstant.FALSE) {
+      return false;
+    } // if
+    int word = i >>> 6;
+    if (word == this.words.length) {
+      this.words = Arrays.copyOf(this.words, word * 2);
+    } // if
+    if (value == JSONConstant.TRUE) {
+      this.words[word] |= 1L << i;
+    } else {
+      this.words[word] &= ~(1L << i);
+    } // if/else
+    return true;
+  } // store(int, JSONValue)
+
+  @Override
+  void trim() {
+    int used = (this.count + 63) >>> 6;
+    if (this.primitive && this.words.length != used) {
+      this.words = Arrays.copyOf(this.words, used);
+    } // if
+  } // trim()
+
+  @Override
+  void release() {
+    this.words = null;
+  } // release()
+
+} // class JSONBooleanArray
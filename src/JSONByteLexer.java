@@ -0,0 +1,362 @@
+package src;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+
+/**
+ * Splits UTF-8 bytes into JSON tokens without decoding the whole input
+ * first.  Every structural character in JSON is a single ASCII byte, and
+ * no byte of a multi-byte UTF-8 sequence is ASCII, so the lexer can find
+ * token boundaries by looking at raw bytes.  Only the bytes of a string
+ * are ever decoded, when the string is turned into a JSONString.
+ *
+ * Positions and columns count bytes rather than characters.
+ *
+ * The window is always little-endian, so that scanPlain can read eight
+ * bytes at a time as a long and check them all at once.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+class JSONByteLexer extends JSONLexer {
+
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The size of the window when reading from an InputStream.
+   */
+  static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * The low seven bits of every byte of a long.
+   */
+  static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+  /**
+   * A quotation mark in every byte.
+   */
+  static final long QUOTES = 0x2222222222222222L;
+
+  /**
+   * A backslash in every byte.
+   */
+  static final long BACKSLASHES = 0x5C5C5C5C5C5C5C5CL;
+
+  /**
+   * The top three bits of every byte, which are all clear only in control
+   * characters.
+   */
+  static final long NOT_CONTROL = 0xE0E0E0E0E0E0E0E0L;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * Where more bytes come from.  Null once the whole input is in the
+   * buffer.
+   */
+  InputStream in;
+
+  /**
+   * The window of bytes.  We only use absolute gets, so the buffer's own
+   * position and limit are never touched.
+   */
+  ByteBuffer buf;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build a lexer that reads from an InputStream.
+   */
+  JSONByteLexer(InputStream in) {
+    this.in = in;
+    this.buf = ByteBuffer.wrap(new byte[BUFFER_SIZE]).order(ByteOrder.LITTLE_ENDIAN);
+  } // JSONByteLexer(InputStream)
+
+  /**
+   * Build a lexer over the remaining bytes of a buffer.  We work on a
+   * duplicate, so the caller's buffer keeps its own byte order.
+   */
+  JSONByteLexer(ByteBuffer bytes) {
+    this.in = null;
+    this.buf = bytes.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    this.pos = bytes.position();
+    this.limit = bytes.limit();
+    this.base = -this.pos;
+    this.whole = true;
+  } // JSONByteLexer(ByteBuffer)
+
+  // +--------+------------------------------------------------------
+  // | Tokens |
+  // +--------+
+
+  @Override
+  int skipWhitespace() throws IOException {
+    while (true) {
+      ByteBuffer buf = this.buf;
+      int i = this.pos;
+      int limit = this.limit;
+      while (i < limit) {
+        int ch = buf.get(i) & 0xFF;
+        if (ch > ' ') {
+          this.pos = i;
+          return ch;
+        } else if (ch == '\n') {
+          newline(i);
+        } else if (ch != ' ' && ch != '\t' && ch != '\r') {
+          this.pos = i;
+          return ch;
+        } // if/else
+        ++i;
+      } // while
+      this.pos = i;
+      if (!fill(i)) {
+        return -1;
+      } // if
+    } // while
+  } // skipWhitespace()
+
+  @Override
+  int scanNumber() throws IOException {
+    int start = this.pos;
+    int i = start;
+    while (true) {
+      ByteBuffer buf = this.buf;
+      int limit = this.limit;
+      while (i < limit && isNumberChar(buf.get(i))) {
+        ++i;
+      } // while
+      if (i < limit) {
+        break;
+      } // if
+      int scanned = i - start;
+      this.pos = start;
+      boolean more = fill(start);
+      start = this.pos;
+      i = start + scanned;
+      if (!more) {
+        break;
+      } // if
+    } // while
+    this.pos = i;
+    return start;
+  } // scanNumber()
+
+  @Override
+  void skipContainer(int depth, int maxDepth) throws ParseException, IOException {
+    int bottom = depth - 1;
+    while (true) {
+      ByteBuffer buf = this.buf;
+      int i = this.pos;
+      int limit = this.limit;
+      while (i < limit) {
+        byte ch = buf.get(i);
+        ++i;
+        if (ch == '"') {
+          this.pos = i;
+          scanString();
+          i = this.pos;
+          limit = this.limit;
+          buf = this.buf;
+        } else if (ch == '{' || ch == '[') {
+          if (++depth > maxDepth) {
+            this.pos = i - 1;
+            throw error("Nesting is deeper than the limit of " + maxDepth);
+          } // if
+        } else if (ch == '}' || ch == ']') {
+          if (--depth == bottom) {
+            this.pos = i;
+            return;
+          } // if
+        } else if (ch == '\n') {
+          newline(i - 1);
+        } // if/else
+      } // while
+      this.pos = i;
+      if (!fill(i)) {
+        throw error("Unterminated container");
+      } // if
+    } // while
+  } // skipContainer(int, int)
+
+  @Override
+  JSONConstant readConstant() throws ParseException, IOException {
+    JSONConstant result = constant(this.buf.get(this.pos));
+    String expected = result.toString();
+    int len = expected.length();
+    // One extra byte so that we can tell "true" from "trueish".
+    ensure(len + 1);
+    int available = Math.min(len + 1, this.limit - this.pos);
+    boolean matches = available >= len
+        && (available == len || !isLetter(this.buf.get(this.pos + len)));
+    for (int i = 0; matches && i < len; i++) {
+      matches = this.buf.get(this.pos + i) == expected.charAt(i);
+    } // for
+    if (!matches) {
+      int end = this.pos;
+      while (end < this.limit && isLetter(this.buf.get(end))) {
+        ++end;
+      } // while
+      throw error("Invalid constant: "
+          + decode(this.pos, end - this.pos, StandardCharsets.ISO_8859_1));
+    } // if
+    this.pos += len;
+    return result;
+  } // readConstant()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Determine if the byte b is an ASCII letter.
+   */
+  static boolean isLetter(byte b) {
+    return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+  } // isLetter(byte)
+
+  /**
+   * Decode len bytes of the window, starting at index start.  Lazy
+   * strings call this long after the parse, perhaps from several threads
+   * at once, so it keeps no state: a buffer with no backing array is
+   * copied into a fresh array each time.
+   */
+  String decode(int start, int len, Charset charset) {
+    if (this.buf.hasArray()) {
+      return new String(this.buf.array(), this.buf.arrayOffset() + start, len, charset);
+    } // if
+    byte[] bytes = new byte[len];
+    this.buf.get(start, bytes, 0, len);
+    return new String(bytes, charset);
+  } // decode(int, int, Charset)
+
+  @Override
+  int at(int i) {
+    return this.buf.get(i);
+  } // at(int)
+
+  @Override
+  String text(int start, int end) {
+    return decode(start, end - start, StandardCharsets.ISO_8859_1);
+  } // text(int, int)
+
+  /**
+   * Mark each zero byte of word with its high bit, and clear every other
+   * bit.  Unlike the usual subtract-one trick, a zero byte does not
+   * disturb its neighbors, so every mark is exact.
+   */
+  static long zeros(long word) {
+    return ~(((word & LOW_BITS) + LOW_BITS) | word | LOW_BITS);
+  } // zeros(long)
+
+  @Override
+  int scanPlain(int i, int end) {
+    ByteBuffer buf = this.buf;
+    while (i + Long.BYTES <= end) {
+      long word = buf.getLong(i);
+      long found = zeros(word ^ QUOTES) | zeros(word ^ BACKSLASHES)
+          | zeros(word & NOT_CONTROL);
+      if (found != 0) {
+        // The window is little-endian, so the first byte is the lowest
+        return i + (Long.numberOfTrailingZeros(found) >>> 3);
+      } // if
+      i += Long.BYTES;
+    } // while
+    while (i < end) {
+      byte b = buf.get(i);
+      if (b == '"' || b == '\\' || (b >= 0 && b < ' ')) {
+        return i;
+      } // if
+      ++i;
+    } // while
+    return end;
+  } // scanPlain(int, int)
+
+  /**
+   * Determine if the bytes from index start up to index end spell out
+   * str.  ASCII bytes are compared one by one; once we meet any other
+   * byte, we decode the rest.
+   */
+  @Override
+  boolean matches(int start, int end, String str) {
+    int len = str.length();
+    // UTF-8 never takes fewer bytes than UTF-16 takes chars
+    if (len > end - start) {
+      return false;
+    } // if
+    for (int i = start; i < end; i++) {
+      byte b = this.buf.get(i);
+      if (b < 0) {
+        return raw(start, end).equals(str);
+      } else if (i - start == len || b != str.charAt(i - start)) {
+        return false;
+      } // if/else
+    } // for
+    return end - start == len;
+  } // matches(int, int, String)
+
+  @Override
+  String raw(int start, int end) {
+    return decode(start, end - start, StandardCharsets.UTF_8);
+  } // raw(int, int)
+
+  @Override
+  void appendRaw(StringBuilder builder, int start, int end) {
+    if (end > start) {
+      builder.append(decode(start, end - start, StandardCharsets.UTF_8));
+    } // if
+  } // appendRaw(StringBuilder, int, int)
+
+  @Override
+  void writeRaw(PrintWriter pen, int start, int end) {
+    pen.write(decode(start, end - start, StandardCharsets.UTF_8));
+  } // writeRaw(PrintWriter, int, int)
+
+  @Override
+  JSONLexer slice(int start, int end) {
+    JSONByteLexer slice = new JSONByteLexer(this.buf.duplicate().position(start).limit(end));
+    slice.base = this.base;
+    return slice;
+  } // slice(int, int)
+
+  @Override
+  boolean fill(int keep) throws IOException {
+    if (this.in == null || this.oversize) {
+      return false;
+    } // if
+    byte[] window = this.buf.array();
+    int kept = this.limit - keep;
+    if (keep > 0) {
+      System.arraycopy(window, keep, window, 0, kept);
+    } else if (kept == window.length) {
+      // A single token fills the window, so make the window bigger.
+      byte[] bigger = new byte[window.length * 2];
+      System.arraycopy(window, 0, bigger, 0, kept);
+      window = bigger;
+      this.buf = ByteBuffer.wrap(window).order(ByteOrder.LITTLE_ENDIAN);
+    } // if/else
+    this.base += keep;
+    this.pos -= keep;
+    this.limit = kept;
+    int count = this.in.read(window, kept, window.length - kept);
+    if (count <= 0) {
+      this.in = null;
+      return false;
+    } // if
+    this.limit += count;
+    return admit(kept);
+  } // fill(int)
+
+} // class JSONByteLexer
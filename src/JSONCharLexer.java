@@ -0,0 +1,260 @@
+package src;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.text.ParseException;
+
+/**
+ * Splits characters into JSON tokens.  Rather than pulling one character
+ * at a time from a Reader, the lexer reads large blocks into a char[]
+ * window and scans the window by index.  Lookahead is simply a look at
+ * the next slot of the window, so no pushback is needed.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+class JSONCharLexer extends JSONLexer {
+
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The size of the window when reading from a Reader.
+   */
+  static final int BUFFER_SIZE = 1 << 16;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * Where more characters come from.  Null once the whole input is in
+   * the buffer.
+   */
+  Reader reader;
+
+  /**
+   * The window of characters.
+   */
+  char[] buf;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build a lexer that reads from a Reader.
+   */
+  JSONCharLexer(Reader reader) {
+    this.reader = reader;
+    this.buf = new char[BUFFER_SIZE];
+  } // JSONCharLexer(Reader)
+
+  /**
+   * Build a lexer over characters that are all in memory.
+   */
+  JSONCharLexer(char[] chars, int offset, int length) {
+    this.reader = null;
+    this.buf = chars;
+    this.pos = offset;
+    this.limit = offset + length;
+    this.base = -offset;
+    this.whole = true;
+  } // JSONCharLexer(char[], int, int)
+
+  // +--------+------------------------------------------------------
+  // | Tokens |
+  // +--------+
+
+  @Override
+  int skipWhitespace() throws IOException {
+    while (true) {
+      char[] buf = this.buf;
+      int i = this.pos;
+      int limit = this.limit;
+      while (i < limit) {
+        char ch = buf[i];
+        if (ch > ' ') {
+          this.pos = i;
+          return ch;
+        } else if (ch == '\n') {
+          newline(i);
+        } else if (ch != ' ' && ch != '\t' && ch != '\r') {
+          this.pos = i;
+          return ch;
+        } // if/else
+        ++i;
+      } // while
+      this.pos = i;
+      if (!fill(i)) {
+        return -1;
+      } // if
+    } // while
+  } // skipWhitespace()
+
+  @Override
+  int scanNumber() throws IOException {
+    int start = this.pos;
+    int i = start;
+    while (true) {
+      char[] buf = this.buf;
+      int limit = this.limit;
+      while (i < limit && isNumberChar(buf[i])) {
+        ++i;
+      } // while
+      if (i < limit) {
+        break;
+      } // if
+      int scanned = i - start;
+      this.pos = start;
+      boolean more = fill(start);
+      start = this.pos;
+      i = start + scanned;
+      if (!more) {
+        break;
+      } // if
+    } // while
+    this.pos = i;
+    return start;
+  } // scanNumber()
+
+  @Override
+  void skipContainer(int depth, int maxDepth) throws ParseException, IOException {
+    int bottom = depth - 1;
+    while (true) {
+      char[] buf = this.buf;
+      int i = this.pos;
+      int limit = this.limit;
+      while (i < limit) {
+        char ch = buf[i];
+        ++i;
+        if (ch == '"') {
+          this.pos = i;
+          scanString();
+          i = this.pos;
+          limit = this.limit;
+          buf = this.buf;
+        } else if (ch == '{' || ch == '[') {
+          if (++depth > maxDepth) {
+            this.pos = i - 1;
+            throw error("Nesting is deeper than the limit of " + maxDepth);
+          } // if
+        } else if (ch == '}' || ch == ']') {
+          if (--depth == bottom) {
+            this.pos = i;
+            return;
+          } // if
+        } else if (ch == '\n') {
+          newline(i - 1);
+        } // if/else
+      } // while
+      this.pos = i;
+      if (!fill(i)) {
+        throw error("Unterminated container");
+      } // if
+    } // while
+  } // skipContainer(int, int)
+
+  @Override
+  JSONConstant readConstant() throws ParseException, IOException {
+    JSONConstant result = constant(this.buf[this.pos]);
+    String expected = result.toString();
+    int len = expected.length();
+    // One extra character so that we can tell "true" from "trueish".
+    ensure(len + 1);
+    int available = Math.min(len + 1, this.limit - this.pos);
+    boolean matches = available >= len
+        && (available == len || !Character.isLetter(this.buf[this.pos + len]));
+    for (int i = 0; matches && i < len; i++) {
+      matches = this.buf[this.pos + i] == expected.charAt(i);
+    } // for
+    if (!matches) {
+      int end = this.pos;
+      while (end < this.limit && Character.isLetter(this.buf[end])) {
+        ++end;
+      } // while
+      throw error("Invalid constant: " + new String(this.buf, this.pos, end - this.pos));
+    } // if
+    this.pos += len;
+    return result;
+  } // readConstant()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  @Override
+  int at(int i) {
+    return this.buf[i];
+  } // at(int)
+
+  @Override
+  String text(int start, int end) {
+    return new String(this.buf, start, end - start);
+  } // text(int, int)
+
+  @Override
+  int scanPlain(int i, int end) {
+    char[] buf = this.buf;
+    while (i < end) {
+      char ch = buf[i];
+      if (ch == '"' || ch == '\\' || ch < ' ') {
+        return i;
+      } // if
+      ++i;
+    } // while
+    return end;
+  } // scanPlain(int, int)
+
+  @Override
+  String raw(int start, int end) {
+    return new String(this.buf, start, end - start);
+  } // raw(int, int)
+
+  @Override
+  void appendRaw(StringBuilder builder, int start, int end) {
+    builder.append(this.buf, start, end - start);
+  } // appendRaw(StringBuilder, int, int)
+
+  @Override
+  void writeRaw(PrintWriter pen, int start, int end) {
+    pen.write(this.buf, start, end - start);
+  } // writeRaw(PrintWriter, int, int)
+
+  @Override
+  JSONLexer slice(int start, int end) {
+    JSONCharLexer slice = new JSONCharLexer(this.buf, start, end - start);
+    slice.base = this.base;
+    return slice;
+  } // slice(int, int)
+
+  @Override
+  boolean fill(int keep) throws IOException {
+    if (this.reader == null || this.oversize) {
+      return false;
+    } // if
+    int kept = this.limit - keep;
+    if (keep > 0) {
+      System.arraycopy(this.buf, keep, this.buf, 0, kept);
+    } else if (kept == this.buf.length) {
+      // A single token fills the window, so make the window bigger.
+      char[] bigger = new char[this.buf.length * 2];
+      System.arraycopy(this.buf, 0, bigger, 0, kept);
+      this.buf = bigger;
+    } // if/else
+    this.base += keep;
+    this.pos -= keep;
+    this.limit = kept;
+    int count = this.reader.read(this.buf, kept, this.buf.length - kept);
+    if (count <= 0) {
+      this.reader = null;
+      return false;
+    } // if
+    this.limit += count;
+    return admit(kept);
+  } // fill(int)
+
+} // class JSONCharLexer
@@ -2,10 +2,34 @@ package src;
 
 import java.io.PrintWriter;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * JSON hashes/objects.
  *
+ * The pairs live in two dense arrays, keys and values, in the order they
+ * were added.  So iterating, printing, and writing a hash only touch the
+ * pairs themselves, and always see them in document order.
+ *
+ * Most objects have only a few keys, and for those we find a key by
+ * scanning the keys.  Once a hash holds more than COMPACT_LIMIT pairs, it
+ * also builds an index: an open-addressing table of slots that says where
+ * in the dense arrays each key lives.  Each slot packs a key's hash code
+ * together with its position, so a probe walks neighboring longs rather
+ * than chasing a pointer per entry, and most mismatches are rejected by
+ * comparing hash codes.  The index uses Robin Hood probing, and its
+ * capacity is always a power of two, so we find a key's home slot with a
+ * mask rather than a remainder.
+ *
+ * The index starts out with the keys' own String hash codes, which are
+ * cached and cheap.  But anyone can build many keys with the same String
+ * hash code, and a document full of them would make every insert walk
+ * one long run of slots.  So if an insert ever leaves a key more than
+ * MAX_PROBE slots from its home, the hash picks a random seed of its own
+ * and rebuilds its index with a seeded hash of each key's characters.
+ * Without the seed, nobody can tell which keys will collide, so an
+ * object stays fast however its keys were chosen.
+ *
  * @author Joyce Gill
  * @author Christina Vu
  * @author Livia Stein Freitas
@@ -15,23 +39,53 @@ public class JSONHash implements JSONValue {
   // +--------+------------------------------------------------------
   // | Fields |
   // +--------+
-  /* Starting size of JSONHash */
+  /* Starting size of the index, once we build one (a power of two) */
   public static final int DEFAULT_CAPACITY = 16;
   public static final double LOAD_FACTOR = 0.75;
 
-  /* Hash Table */
-  public KVPair<JSONString, JSONValue>[] table;
+  /* The most pairs a hash holds before it builds an index */
+  public static final int COMPACT_LIMIT = 8;
+
+  /* The furthest a key may sit from its home slot before we reseed */
+  static final int MAX_PROBE = 64;
+
+  /* Starting size of the keys and values arrays */
+  static final int COMPACT_CAPACITY = 4;
+
+  /* Shared arrays for hashes that have never held a pair */
+  static final JSONString[] NO_KEYS = new JSONString[0];
+  static final JSONValue[] NO_VALUES = new JSONValue[0];
+
+  /* The keys, in the order they were added */
+  JSONString[] keys;
+
+  /* The values, parallel to keys */
+  JSONValue[] values;
+
+  /*
+   * The index (null while compact).  Each slot is 0 when empty, and
+   * otherwise holds a key's hash code in the high 32 bits and one more
+   * than the key's position in keys in the low 32 bits.
+   */
+  long[] index;
 
   /* Number of key/value pairs */
   public int size;
 
+  /* The size at which we grow the index */
+  int threshold;
+
+  /* The seed for seededHash (0 while we use the keys' own hash codes) */
+  long seed;
+
   // +--------------+------------------------------------------------
   // | Constructors |
   // +--------------+
 
-  @SuppressWarnings("unchecked")
   public JSONHash() {
-    this.table = new KVPair[DEFAULT_CAPACITY];
+    this.keys = NO_KEYS;
+    this.values = NO_VALUES;
+    this.index = null;
     this.size = 0;
   } // JSONHash()
 
@@ -43,22 +97,8 @@ public class JSONHash implements JSONValue {
    * Convert to a string (e.g., for printing).
    */
   public String toString() {
-    StringBuilder builder = new StringBuilder("{");
-    boolean first = true;
-
-    // Iterate through key value pairs
-    for (KVPair<JSONString, JSONValue> entry : table) {
-      if (entry != null) {
-        if (!first) {
-          builder.append(", ");
-        } // if
-
-        // Append the key and value to the string
-        builder.append(entry.key()).append(": ").append(entry.value());
-        first = false;
-      } // if
-    } // for
-    builder.append("}");
+    StringBuilder builder = new StringBuilder(this.estimateSize());
+    this.appendTo(builder);
     return builder.toString();
   } // toString()
 
@@ -70,21 +110,33 @@ public class JSONHash implements JSONValue {
     if (this == other) {
       return true;
     } // if
-    if (other == null || getClass() != other.getClass()) {
+    if (!(other instanceof JSONHash)) {
       return false;
     } // if
 
     JSONHash jsonHash = (JSONHash) other;
 
-    // Compare the size and content of the hash tables for equality
-    return size == jsonHash.size && table.equals(jsonHash.table);
+    // Compare the size, then look up each of our keys in the other hash
+    if (size() != jsonHash.size()) {
+      return false;
+    } // if
+    for (int i = 0; i < size; i++) {
+      if (!Objects.equals(values[i], jsonHash.get(keys[i]))) {
+        return false;
+      } // if
+    } // for
+    return true;
   } // equals(Object)
 
   /**
-   * Compute the hash code.
+   * Compute the hash code.  Does not depend on the order of the pairs.
    */
   public int hashCode() {
-    return table.hashCode();
+    int result = 0;
+    for (int i = 0; i < size; i++) {
+      result += keys[i].hashCode() ^ Objects.hashCode(values[i]);
+    } // for
+    return result;
   } // hashCode()
 
   // +--------------------+------------------------------------------
@@ -95,7 +147,7 @@ public class JSONHash implements JSONValue {
    * Write the value as JSON.
    */
   public void writeJSON(PrintWriter pen) {
-    pen.print(toString());
+    new JSONWriter(pen).writeHash(this);
     pen.flush();
   } // writeJSON(PrintWriter)
 
@@ -107,36 +159,89 @@ public class JSONHash implements JSONValue {
   } // getValue()
 
   /**
-   * Returns the hash of the key
+   * Add the printed form of this hash to the end of builder.  Nested
+   * hashes and arrays add themselves to the same builder, so printing a
+   * whole tree copies each character once.
+   */
+  void appendTo(StringBuilder builder) {
+    builder.append('{');
+
+    // Iterate through key value pairs
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      } // if
+
+      // Append the key and value to the string
+      builder.append(keys[i]).append(": ");
+      JSONValue value = values[i];
+      if (value instanceof JSONHash) {
+        ((JSONHash) value).appendTo(builder);
+      } else if (value instanceof JSONArray) {
+        ((JSONArray) value).appendTo(builder);
+      } else {
+        builder.append(value);
+      } // if/else
+    } // for
+    builder.append('}');
+  } // appendTo(StringBuilder)
+
+  /**
+   * Guess how many characters the printed form will take, so that we
+   * can size the builder up front.
+   */
+  int estimateSize() {
+    return 2 + 16 * this.size;
+  } // estimateSize()
+
+  /**
+   * Returns the home slot of the key in the index
    */
   public int hash(JSONString key) {
-    return key.hashCode() % table.length;
+    int capacity = (index == null) ? DEFAULT_CAPACITY : index.length;
+    return spread(hashOf(key)) & (capacity - 1);
   } // hash (JSONString)
 
   /**
-   * Updates the size of the table
+   * Updates the size of the index.  A compact hash builds its first
+   * index.
    */
-  @SuppressWarnings("unchecked")
   public void resize() {
-    int newCapacity = table.length * 2;
-
-    // Create a new table with the updated capacity
-    KVPair<JSONString, JSONValue>[] newTable = new KVPair[newCapacity];
-
-    // Iterate through the existing entries and rehash them into the new table
-    for (KVPair<JSONString, JSONValue> entry : table) {
-      if (entry != null) {
-        int index = hash(entry.key());
+    long[] oldIndex = index;
+    this.allocate((oldIndex == null) ? DEFAULT_CAPACITY : oldIndex.length * 2);
+
+    int longest = 0;
+    if (oldIndex == null) {
+      // Index every pair
+      for (int i = 0; i < size; i++) {
+        longest = Math.max(longest, this.insert(slot(hashOf(keys[i]), i)));
+      } // for
+    } else {
+      // Move the slots of the old index into the new one
+      for (long slot : oldIndex) {
+        if (slot != 0) {
+          longest = Math.max(longest, this.insert(slot));
+        } // if
+      } // for
+    } // if/else
+    if (longest > MAX_PROBE) {
+      this.reseed();
+    } // if
+  } // resize()
 
-        // Find the next available slot in the new table
-        while (newTable[index] != null) {
-          index = (index + 1) % newCapacity;
-        } // while
-        newTable[index] = entry;
-      } // if
+  /**
+   * Rebuild the index with a new random seed, because the hash codes we
+   * had put too many keys in one run of slots.
+   */
+  void reseed() {
+    do {
+      this.seed = ThreadLocalRandom.current().nextLong();
+    } while (this.seed == 0);
+    this.allocate(index.length);
+    for (int i = 0; i < size; i++) {
+      this.insert(slot(hashOf(keys[i]), i));
     } // for
-    table = newTable;
-  } // resize()
+  } // reseed()
 
   // +-------------------+-------------------------------------------
   // | Hashtable methods |
@@ -146,48 +251,55 @@ public class JSONHash implements JSONValue {
    * Get the value associated with a key.
    */
   public JSONValue get(JSONString key) {
-    int index = hash(key);
-    // Iterate until the corresponding key or empty space is found
-    while (table[index] != null && !table[index].key().equals(key)) {
-      index = (index + 1) % table.length;
-    } // while
-
-    // Return value associated with the key or null accordingly
-    return (table[index] != null) ? table[index].value() : null;
+    int position = this.find(key);
+    return (position < 0) ? null : values[position];
   } // get(JSONString)
 
   /**
-   * Get all of the key/value pairs.
+   * Get all of the key/value pairs, in the order they were added.
    */
   public Iterator<KVPair<JSONString, JSONValue>> iterator() {
     return new HashTableIterator();
   } // iterator()
 
   /**
-   * Set the value associated with a key.
+   * Set the value associated with a key.  A new key goes after all of
+   * the others.
    */
   public void set(JSONString key, JSONValue value) {
-    // Resize if necessary
-    if ((double) size / table.length >= LOAD_FACTOR) {
-      resize();
-    } // if
+    int position = this.find(key);
 
-    int index = hash(key);
-    // Iterate until the corresponding key or empty space is found
-    while (table[index] != null && !table[index].key().equals(key)) {
-      index = (index + 1) % table.length;
-    } // while
-
-    // Create a new key value pair if the slot is empty
-    if (table[index] == null) {
-      table[index] = new KVPair<>(key, value);
-      size++;
+    // Update the existing value
+    if (position >= 0) {
+      values[position] = value;
+      return;
     } // if
 
-    // Otherwise, update the existing value
-    else {
-      table[index].setValue(value);
-    } // else
+    // Otherwise, add a new pair at the end
+    if (size == keys.length) {
+      int capacity = (size == 0) ? COMPACT_CAPACITY : size * 2;
+      keys = Arrays.copyOf(keys, capacity);
+      values = Arrays.copyOf(values, capacity);
+    } // if
+    keys[size] = key;
+    values[size] = value;
+    size++;
+
+    // And index it, if we have (or now need) an index
+    if (index == null) {
+      if (size > COMPACT_LIMIT) {
+        resize();
+      } // if
+    } else {
+      // Insert before resizing, since a resize that reseeds indexes
+      // every pair, this one included
+      if (this.insert(slot(hashOf(key), size - 1)) > MAX_PROBE) {
+        reseed();
+      } // if
+      if (size > threshold) {
+        resize();
+      } // if
+    } // if/else
   } // set(JSONString, JSONValue)
 
   /**
@@ -198,22 +310,193 @@ public class JSONHash implements JSONValue {
   } // size()
 
   /**
-   * Creates a Hash Table Iterator
+   * Get the key of the pair at position i, counting in the order the
+   * pairs were added.  Together with valueAt, this lets callers walk the
+   * pairs without building any objects.
+   */
+  public JSONString keyAt(int i) throws IndexOutOfBoundsException {
+    Objects.checkIndex(i, size);
+    return keys[i];
+  } // keyAt(int)
+
+  /**
+   * Get the value of the pair at position i, counting in the order the
+   * pairs were added.
+   */
+  public JSONValue valueAt(int i) throws IndexOutOfBoundsException {
+    Objects.checkIndex(i, size);
+    return values[i];
+  } // valueAt(int)
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Scramble a hash code before masking.  String hash codes of similar
+   * keys ("key1", "key2", ...) are close together, which would pile them
+   * into one long run of slots; multiplying by an odd constant scatters
+   * them, and folding in the high bits lets them affect the slot too.
+   */
+  static int spread(int h) {
+    int x = h * 0x9E3779B9;
+    return x ^ (x >>> 16);
+  } // spread(int)
+
+  /**
+   * Get the hash code that the index uses for key.
+   */
+  int hashOf(JSONString key) {
+    return (seed == 0) ? key.hashCode() : seededHash(key.getValue(), seed);
+  } // hashOf(JSONString)
+
+  /**
+   * Hash the characters of str, starting from seed.  Each step mixes in
+   * one character with a multiply and a rotate, so keys that collide
+   * under one seed almost never collide under another.  This is not a
+   * cryptographic hash, but it need not be: the seed never leaves the
+   * hash.
+   */
+  static int seededHash(String str, long seed) {
+    long h = seed ^ str.length();
+    for (int i = 0; i < str.length(); i++) {
+      h = Long.rotateLeft((h ^ str.charAt(i)) * 0x9E3779B97F4A7C15L, 29)
+          * 0xBF58476D1CE4E5B9L;
+    } // for
+    h ^= seed;
+    h ^= h >>> 32;
+    return (int) h;
+  } // seededHash(String, long)
+
+  /**
+   * Build the index slot for a key with hash code h at position i.
+   */
+  static long slot(int h, int i) {
+    return ((long) h << 32) | (i + 1);
+  } // slot(int, int)
+
+  /**
+   * Set up an empty index with the given capacity (a power of two).
+   */
+  void allocate(int capacity) {
+    index = new long[capacity];
+    threshold = (int) (capacity * LOAD_FACTOR);
+  } // allocate(int)
+
+  /**
+   * Find the position of key in keys, or return -1 if there is none.
+   */
+  int find(JSONString key) {
+    if (index == null) {
+      for (int i = 0; i < size; i++) {
+        if (keys[i] == key || keys[i].equals(key)) {
+          return i;
+        } // if
+      } // for
+      return -1;
+    } // if
+    int h = hashOf(key);
+    int mask = index.length - 1;
+    int i = spread(h) & mask;
+    // With Robin Hood probing, the key cannot be further along than the
+    // first entry that is closer to its own home than we are to ours.
+    for (int distance = 0; index[i] != 0; distance++) {
+      long slot = index[i];
+      int slotHash = (int) (slot >>> 32);
+      if (slotHash == h) {
+        int position = (int) slot - 1;
+        if (keys[position] == key || keys[position].equals(key)) {
+          return position;
+        } // if
+      } // if
+      if (((i - (spread(slotHash) & mask)) & mask) < distance) {
+        return -1;
+      } // if
+      i = (i + 1) & mask;
+    } // for
+    return -1;
+  } // find(JSONString)
+
+  /**
+   * Put the slot of a key that is not yet indexed into the index.  Along
+   * the way, any slot that is closer to its home than the new one is to
+   * its home gives up its place and moves further along.  Returns the
+   * furthest that any slot we moved ended up from its home.
+   */
+  int insert(long slot) {
+    int mask = index.length - 1;
+    int i = spread((int) (slot >>> 32)) & mask;
+    int distance = 0;
+    int longest = 0;
+    while (index[i] != 0) {
+      int existing = (i - (spread((int) (index[i] >>> 32)) & mask)) & mask;
+      if (existing < distance) {
+        // Swap the new slot with the one that was here
+        long displaced = index[i];
+        index[i] = slot;
+        slot = displaced;
+        longest = Math.max(longest, distance);
+        distance = existing;
+      } // if
+      i = (i + 1) & mask;
+      distance++;
+    } // while
+    index[i] = slot;
+    return Math.max(longest, distance);
+  } // insert(long)
+
+  /**
+   * A view of the pair at one position of a hash.  Its value is read
+   * from the hash, and setValue writes through to the hash.
+   */
+  class Pair extends KVPair<JSONString, JSONValue> {
+    /**
+     * The position of the pair in keys and values.
+     */
+    int position;
+
+    /**
+     * Build a view that does not yet look at any pair.
+     */
+    Pair() {
+      super(null, null);
+    } // Pair()
+
+    @Override
+    public JSONString key() {
+      return keys[this.position];
+    } // key()
+
+    @Override
+    public JSONValue value() {
+      return values[this.position];
+    } // value()
+
+    @Override
+    public void setValue(JSONValue value) {
+      values[this.position] = value;
+    } // setValue(JSONValue)
+  } // class Pair
+
+  /**
+   * Creates a Hash Table Iterator.  So that iterating builds nothing,
+   * next returns the same pair each time, moved along to the next
+   * position; copy its key and value to keep them.  Setting the pair's
+   * value sets it in the hash.
    */
   public class HashTableIterator implements Iterator<KVPair<JSONString, JSONValue>> {
     // Index to keep track of current position
     public int currentIndex = 0;
 
+    // The pair that next returns
+    Pair pair = new Pair();
+
     /**
      * Checks if there is a next element in the hash table
      */
     @Override
     public boolean hasNext() {
-      // While there exists a key/value pair and it is less than the table's length
-      while (currentIndex < table.length && table[currentIndex] == null) {
-        currentIndex++;
-      } // while
-      return currentIndex < table.length;
+      return currentIndex < size;
     } // hasNext()
 
     /**
@@ -224,8 +507,10 @@ public class JSONHash implements JSONValue {
       if (!hasNext()) {
         throw new IllegalStateException("No more elements in the hash table");
       } // if
-      // Returns the current key/value pair and moves the index to the next positino
-      return table[currentIndex++];
+      // Point the pair at the current position and move to the next one
+      pair.position = currentIndex;
+      currentIndex++;
+      return pair;
     } // next()
   } // class HashTableIterator
 
@@ -15,10 +15,21 @@ public class JSONInteger implements JSONValue {
   // +--------+
 
   /**
-   * The underlying integer.
+   * The underlying integer.  Null until someone asks for it when the
+   * value fits in a long.
    */
   BigInteger value;
 
+  /**
+   * The value, when it fits in a long.
+   */
+  long small;
+
+  /**
+   * Whether the value fits in a long (and so is held in small).
+   */
+  boolean isSmall;
+
   // +--------------+------------------------------------------------
   // | Constructors |
   // +--------------+
@@ -27,21 +38,28 @@ public class JSONInteger implements JSONValue {
    * Create a new integer given the underlying string.
    */
   public JSONInteger(String str) {
-    this.value = new BigInteger(str);
+    // Eighteen digits always fit in a long.
+    if (str.length() <= 18) {
+      this.small = Long.parseLong(str);
+      this.isSmall = true;
+    } else {
+      setBig(new BigInteger(str));
+    } // if/else
   } // JSONInteger(String)
 
   /**
    * Create a new integer given a BigInteger.
    */
   public JSONInteger(BigInteger value) {
-    this.value = value;
+    setBig(value);
   } // JSONInteger(BigInteger)
 
   /**
    * Create a new integer given an integer or long.
    */
   public JSONInteger(long l) {
-    this.value = BigInteger.valueOf(l);
+    this.small = l;
+    this.isSmall = true;
   } // JSONInteger(long)
 
   // +-------------------------+-------------------------------------
@@ -52,7 +70,7 @@ public class JSONInteger implements JSONValue {
    * Convert to a string (e.g., for printing).
    */
   public String toString() {
-    return this.value.toString();
+    return this.isSmall ? Long.toString(this.small) : this.value.toString();
   } // toString()
 
   /**
@@ -64,14 +82,19 @@ public class JSONInteger implements JSONValue {
     if (other == null || getClass() != other.getClass())
       return false;
     JSONInteger that = (JSONInteger) other;
-    return Objects.equals(value, that.value); // STUB
+    // Values that fit in a long are always held in small, so two equal
+    // integers are always held the same way.
+    if (this.isSmall || that.isSmall) {
+      return this.isSmall && that.isSmall && this.small == that.small;
+    } // if
+    return Objects.equals(value, that.value);
   } // equals(Object)
 
   /**
    * Compute the hash code.
    */
   public int hashCode() {
-    return Objects.hash(value); // STUB
+    return this.isSmall ? Long.hashCode(this.small) : this.value.hashCode();
   } // hashCode()
 
   // +--------------------+------------------------------------------
@@ -82,14 +105,58 @@ public class JSONInteger implements JSONValue {
    * Write the value as JSON.
    */
   public void writeJSON(PrintWriter pen) {
-    pen.write(this.toString()); // STUB
+    if (this.isSmall) {
+      pen.print(this.small);
+    } else {
+      pen.write(this.value.toString());
+    } // if/else
   } // writeJSON(PrintWriter)
 
   /**
    * Get the underlying value.
    */
   public BigInteger getValue() {
+    if (this.value == null) {
+      this.value = BigInteger.valueOf(this.small);
+    } // if
     return this.value;
   } // getValue()
 
+  /**
+   * Determine whether the value fits in a long.
+   */
+  public boolean isLong() {
+    return this.isSmall;
+  } // isLong()
+
+  /**
+   * Get the value as a long.  If the value does not fit, returns the low
+   * 64 bits, as BigInteger.longValue does.
+   */
+  public long longValue() {
+    return this.isSmall ? this.small : this.value.longValue();
+  } // longValue()
+
+  /**
+   * Get the value as a double, rounded to the nearest double.
+   */
+  public double doubleValue() {
+    return this.isSmall ? (double) this.small : this.value.doubleValue();
+  } // doubleValue()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Hold a BigInteger, keeping it in small if it fits.
+   */
+  void setBig(BigInteger value) {
+    this.value = value;
+    if (value.bitLength() < 64) {
+      this.small = value.longValue();
+      this.isSmall = true;
+    } // if
+  } // setBig(BigInteger)
+
 } // class JSONInteger
@@ -0,0 +1,78 @@
+package src;
+
+/**
+ * A small, fixed-size table of recently seen object keys.  When a
+ * document repeats the same few field names over and over (as an array
+ * of records does), the parser looks each key up here by a hash of its
+ * raw characters before building anything, and reuses the JSONString it
+ * built last time.
+ *
+ * The table is direct-mapped: each hash has exactly one slot, and a new
+ * key simply replaces whatever was there.  So the table never grows, and
+ * a lookup is a single probe.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+class JSONKeyCache {
+
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The number of slots a parser uses unless told otherwise.
+   */
+  static final int DEFAULT_SIZE = 256;
+
+  /**
+   * Longer keys are unlikely to repeat, so we do not cache them.
+   */
+  static final int MAX_KEY_LENGTH = 64;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The hashes of the raw keys, one per slot.
+   */
+  int[] hashes;
+
+  /**
+   * The keys, one per slot (null for an empty slot).
+   */
+  JSONString[] keys;
+
+  /**
+   * The number of slots, less one.
+   */
+  int mask;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build a cache with at least size slots.
+   */
+  JSONKeyCache(int size) {
+    int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+    this.hashes = new int[capacity];
+    this.keys = new JSONString[capacity];
+    this.mask = capacity - 1;
+  } // JSONKeyCache(int)
+
+  // +---------+-----------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Get the slot for a raw key with hash h.
+   */
+  int slot(int h) {
+    return (h ^ (h >>> 16)) & this.mask;
+  } // slot(int)
+
+} // class JSONKeyCache
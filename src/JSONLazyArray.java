@@ -0,0 +1,131 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * A JSON array that builds its elements from a JSONTape only as they are
+ * asked for.  size and get work straight from the tape; anything that
+ * needs the whole list (getValue, iterator, add, set) first builds every
+ * element, after which this acts just like any other JSONArray.  Elements
+ * that are containers come back lazy in turn.
+ *
+ * Lazy arrays are not safe to share between threads until they have
+ * been built.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+class JSONLazyArray extends JSONArray {
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The tape that holds our elements, or null once they are all built.
+   */
+  JSONTape tape;
+
+  /**
+   * Our tape index.
+   */
+  int header;
+
+  /**
+   * The tape index of each element (null until first needed).
+   */
+  int[] elements;
+
+  /**
+   * The elements built so far.
+   */
+  JSONValue[] built;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build the array at tape index header of tape.
+   */
+  JSONLazyArray(JSONTape tape, int header) {
+    this.tape = tape;
+    this.header = header;
+  } // JSONLazyArray(JSONTape, int)
+
+  // +---------------+-----------------------------------------------
+  // | Array methods |
+  // +---------------+
+
+  @Override
+  public ArrayList<JSONValue> getValue() {
+    inflate();
+    return super.getValue();
+  } // getValue()
+
+  @Override
+  public void add(JSONValue value) {
+    inflate();
+    super.add(value);
+  } // add(JSONValue)
+
+  @Override
+  public JSONValue get(int index) throws IndexOutOfBoundsException {
+    if (this.tape == null) {
+      return super.get(index);
+    } // if
+    Objects.checkIndex(index, this.tape.count(this.header));
+    if (this.elements == null) {
+      this.elements = this.tape.elements(this.header);
+      this.built = new JSONValue[this.elements.length];
+    } // if
+    JSONValue value = this.built[index];
+    if (value == null) {
+      value = this.tape.value(this.elements[index]);
+      this.built[index] = value;
+    } // if
+    return value;
+  } // get(int)
+
+  @Override
+  public Iterator<JSONValue> iterator() {
+    inflate();
+    return super.iterator();
+  } // iterator()
+
+  @Override
+  public void set(int index, JSONValue value) throws IndexOutOfBoundsException {
+    inflate();
+    super.set(index, value);
+  } // set(int, JSONValue)
+
+  @Override
+  public int size() {
+    return (this.tape == null) ? super.size() : this.tape.count(this.header);
+  } // size()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Build every element that has not been built yet, and stop being lazy.
+   */
+  void inflate() {
+    if (this.tape == null) {
+      return;
+    } // if
+    int size = size();
+    this.values.ensureCapacity(size);
+    for (int i = 0; i < size; i++) {
+      this.values.add(get(i));
+    } // for
+    this.tape = null;
+    this.elements = null;
+    this.built = null;
+  } // inflate()
+
+} // class JSONLazyArray
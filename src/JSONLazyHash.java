@@ -0,0 +1,206 @@
+package src;
+
+import java.io.PrintWriter;
+import java.util.Iterator;
+
+/**
+ * A JSON object that builds its pairs from a JSONTape only as they are
+ * asked for.  For a small object, get compares the wanted key against
+ * the raw keys on the tape and builds just the value it finds.  Anything
+ * else (and any get on a larger object, where a scan per lookup would
+ * cost too much) first builds every pair, after which this acts just like
+ * any other JSONHash.  Values that are containers come back lazy in turn.
+ *
+ * Lazy hashes are not safe to share between threads until they have
+ * been built.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+class JSONLazyHash extends JSONHash {
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The tape that holds our pairs, or null once they are all built.
+   */
+  JSONTape tape;
+
+  /**
+   * Our tape index.
+   */
+  int header;
+
+  /**
+   * The values built so far, one per pair (null until first needed).
+   */
+  JSONValue[] built;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build the object at tape index header of tape.
+   */
+  JSONLazyHash(JSONTape tape, int header) {
+    this.tape = tape;
+    this.header = header;
+  } // JSONLazyHash(JSONTape, int)
+
+  // +-------------------------+-------------------------------------
+  // | Standard object methods |
+  // +-------------------------+
+
+  @Override
+  public boolean equals(Object other) {
+    inflate();
+    return super.equals(other);
+  } // equals(Object)
+
+  @Override
+  public int hashCode() {
+    inflate();
+    return super.hashCode();
+  } // hashCode()
+
+  // +--------------------+------------------------------------------
+  // | Additional methods |
+  // +--------------------+
+
+  @Override
+  public void writeJSON(PrintWriter pen) {
+    inflate();
+    super.writeJSON(pen);
+  } // writeJSON(PrintWriter)
+
+  @Override
+  void appendTo(StringBuilder builder) {
+    inflate();
+    super.appendTo(builder);
+  } // appendTo(StringBuilder)
+
+  @Override
+  int estimateSize() {
+    return 2 + 16 * ((this.tape == null) ? this.size : this.tape.count(this.header));
+  } // estimateSize()
+
+  @Override
+  public void resize() {
+    inflate();
+    super.resize();
+  } // resize()
+
+  // +-------------------+-------------------------------------------
+  // | Hashtable methods |
+  // +-------------------+
+
+  @Override
+  public JSONValue get(JSONString key) {
+    if (this.tape == null) {
+      return super.get(key);
+    } // if
+    int count = this.tape.count(this.header);
+    if (count > COMPACT_LIMIT) {
+      inflate();
+      return super.get(key);
+    } // if
+    // The last pair with the key wins, as it does when parsing eagerly
+    String name = key.getValue();
+    int found = -1;
+    int foundAt = 0;
+    int t = this.header + 2;
+    for (int i = 0; i < count; i++) {
+      if (this.tape.keyEquals(t, name)) {
+        found = i;
+        foundAt = t + 2;
+      } // if
+      t = this.tape.next(t + 2);
+    } // for
+    return (found < 0) ? null : value(found, foundAt);
+  } // get(JSONString)
+
+  @Override
+  public Iterator<KVPair<JSONString, JSONValue>> iterator() {
+    inflate();
+    return super.iterator();
+  } // iterator()
+
+  @Override
+  public void set(JSONString key, JSONValue value) {
+    inflate();
+    super.set(key, value);
+  } // set(JSONString, JSONValue)
+
+  /**
+   * Find out how many key/value pairs are in the hash table.  The tape
+   * counts every pair, including any that repeat a key, so we build the
+   * pairs to find out.
+   */
+  @Override
+  public int size() {
+    inflate();
+    return super.size();
+  } // size()
+
+  @Override
+  public JSONString keyAt(int i) throws IndexOutOfBoundsException {
+    inflate();
+    return super.keyAt(i);
+  } // keyAt(int)
+
+  @Override
+  public JSONValue valueAt(int i) throws IndexOutOfBoundsException {
+    inflate();
+    return super.valueAt(i);
+  } // valueAt(int)
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Get the value of pair i, which is at tape index t, building it if we
+   * have not already.
+   */
+  JSONValue value(int i, int t) {
+    if (this.built == null) {
+      this.built = new JSONValue[this.tape.count(this.header)];
+    } // if
+    JSONValue value = this.built[i];
+    if (value == null) {
+      value = this.tape.value(t);
+      this.built[i] = value;
+    } // if
+    return value;
+  } // value(int, int)
+
+  /**
+   * Build every pair, and stop being lazy.
+   */
+  void inflate() {
+    JSONTape tape = this.tape;
+    if (tape == null) {
+      return;
+    } // if
+    int count = tape.count(this.header);
+    int t = this.header + 2;
+    JSONString[] keys = new JSONString[count];
+    JSONValue[] values = new JSONValue[count];
+    for (int i = 0; i < count; i++) {
+      keys[i] = tape.key(t);
+      values[i] = value(i, t + 2);
+      t = tape.next(t + 2);
+    } // for
+    // From here on we are an ordinary hash
+    this.tape = null;
+    this.built = null;
+    for (int i = 0; i < count; i++) {
+      super.set(keys[i], values[i]);
+    } // for
+  } // inflate()
+
+} // class JSONLazyHash
@@ -0,0 +1,694 @@
+package src;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.ParseException;
+
+/**
+ * Splits input into JSON tokens.  Subclasses hold a window of the input
+ * (characters or UTF-8 bytes) and scan it by index; this class keeps the
+ * bookkeeping they share.  Every structural character in JSON is ASCII,
+ * so the parser can treat both kinds of window alike.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+abstract class JSONLexer {
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The index of the next unread unit in the window.
+   */
+  int pos;
+
+  /**
+   * One past the index of the last valid unit in the window.
+   */
+  int limit;
+
+  /**
+   * The offset in the input of the start of the window.
+   */
+  long base;
+
+  /**
+   * The current line (starting at 1).
+   */
+  int line = 1;
+
+  /**
+   * The offset in the input of the start of the current line.
+   */
+  long lineStart;
+
+  /**
+   * Whether the buffer holds the whole input, so that indices into it
+   * stay good after the parse.
+   */
+  boolean whole;
+
+  /**
+   * Whether the string most recently scanned holds any escapes.
+   */
+  boolean escaped;
+
+  /**
+   * The most units a string body may hold.
+   */
+  int maxStringLength = Integer.MAX_VALUE;
+
+  /**
+   * The most units of input we accept.
+   */
+  long maxSize = Long.MAX_VALUE;
+
+  /**
+   * Whether the input runs past maxSize, so that the window has been cut
+   * off there.
+   */
+  boolean oversize;
+
+  // +--------+------------------------------------------------------
+  // | Tokens |
+  // +--------+
+
+  /**
+   * Skip over whitespace and return the next character without consuming
+   * it, or -1 at the end of the input.
+   */
+  abstract int skipWhitespace() throws IOException;
+
+  /**
+   * Read the body of a string.  Assumes the opening quotation mark has
+   * been consumed; consumes the closing one.
+   */
+  String readString() throws ParseException, IOException {
+    int start = scanString();
+    return string(start, this.pos - 1, this.escaped);
+  } // readString()
+
+  /**
+   * Read the body of a string as a JSONString.  If lazy is set and the
+   * buffer holds the whole input, the result just remembers where the
+   * body is, and builds its String when asked.
+   */
+  JSONString readJSONString(boolean lazy) throws ParseException, IOException {
+    int start = scanString();
+    if (lazy && this.whole) {
+      return new JSONString(this, start, this.pos - 1);
+    } // if
+    return new JSONString(string(start, this.pos - 1, this.escaped));
+  } // readJSONString(boolean)
+
+  /**
+   * Read the body of an object key, like readString.  If cache holds a
+   * key with the same characters, return that key rather than building a
+   * new one; otherwise build one and remember it.  A null cache builds
+   * every key.  Keys with escapes are always built, since their raw
+   * characters differ from the key itself.
+   */
+  JSONString readKey(JSONKeyCache cache) throws ParseException, IOException {
+    int start = scanString();
+    return key(start, this.pos - 1, this.escaped, cache);
+  } // readKey(JSONKeyCache)
+
+  /**
+   * Get the object key between indices start and end of the window, which
+   * has already been scanned, sharing keys through cache as readKey does.
+   */
+  JSONString key(int start, int end, boolean escaped, JSONKeyCache cache) {
+    if (cache == null || escaped || end - start > JSONKeyCache.MAX_KEY_LENGTH) {
+      return new JSONString(string(start, end, escaped));
+    } // if
+    int h = 0;
+    for (int i = start; i < end; i++) {
+      h = 31 * h + at(i);
+    } // for
+    int slot = cache.slot(h);
+    JSONString key = cache.keys[slot];
+    if (key != null && cache.hashes[slot] == h && matches(start, end, key.getValue())) {
+      return key;
+    } // if
+    key = new JSONString(raw(start, end));
+    cache.hashes[slot] = h;
+    cache.keys[slot] = key;
+    return key;
+  } // key(int, int, boolean, JSONKeyCache)
+
+  /**
+   * Skip the body of a string without building it.  Assumes the opening
+   * quotation mark has been consumed; consumes the closing one.
+   */
+  void skipString() throws ParseException, IOException {
+    scanString();
+  } // skipString()
+
+  /**
+   * Move past the body of a string, returning the index in the window at
+   * which the body starts.  Afterwards pos is just past the closing
+   * quotation mark, and escaped says whether the body holds escapes.
+   *
+   * Most strings have no escapes, so scanPlain races ahead to the next
+   * unit that needs a closer look; only quotation marks, backslashes, and
+   * control characters ever stop it.  Escapes are checked here, so that
+   * turning the body into a String later cannot fail.
+   */
+  int scanString() throws ParseException, IOException {
+    int start = this.pos;
+    int i = start;
+    this.escaped = false;
+    while (true) {
+      int limit = this.limit;
+      while ((i = scanPlain(i, limit)) < limit) {
+        int ch = at(i);
+        if (ch == '"') {
+          if (i - start > this.maxStringLength) {
+            break;
+          } // if
+          this.pos = i + 1;
+          return start;
+        } else if (ch == '\\') {
+          this.escaped = true;
+          int next = escape(i);
+          if (next < 0) {
+            // The escape runs past the window
+            break;
+          } // if
+          i = next;
+        } else {
+          this.pos = i;
+          throw error("Unescaped control character in string");
+        } // if/else
+      } // while
+      int scanned = i - start;
+      this.pos = start;
+      if (scanned > this.maxStringLength) {
+        throw error("String is longer than the limit of " + this.maxStringLength);
+      } // if
+      if (!fill(start)) {
+        this.pos = this.limit;
+        throw error("Unterminated string");
+      } // if
+      start = this.pos;
+      i = start + scanned;
+    } // while
+  } // scanString()
+
+  /**
+   * Find the first index from i up to end that holds a quotation mark, a
+   * backslash, or a control character, or return end if there is none.
+   */
+  abstract int scanPlain(int i, int end);
+
+  /**
+   * Read a number.
+   */
+  JSONValue readNumber() throws ParseException, IOException {
+    int start = scanNumber();
+    return number(start, this.pos);
+  } // readNumber()
+
+  /**
+   * Skip a number without building it.  The number is still checked, so
+   * a skipped number is rejected wherever a read one would be.
+   */
+  void skipNumber() throws ParseException, IOException {
+    int start = scanNumber();
+    checkNumber(start, this.pos);
+  } // skipNumber()
+
+  /**
+   * Move past a number, returning the index in the window at which it
+   * starts.  Afterwards pos is just past the number.
+   */
+  abstract int scanNumber() throws IOException;
+
+  /**
+   * Skip the rest of an object or array whose opening brace or bracket
+   * has been consumed, up to and including the matching close.  This only
+   * tracks nesting and strings; it does not check the syntax in between.
+   * The container is the depth-th level open, and nesting past maxDepth
+   * levels fails.
+   */
+  abstract void skipContainer(int depth, int maxDepth) throws ParseException, IOException;
+
+  /**
+   * Read one of the constants true, false, or null.
+   */
+  abstract JSONConstant readConstant() throws ParseException, IOException;
+
+  /**
+   * Get the unit (character or byte) at index i of the window.
+   */
+  abstract int at(int i);
+
+  /**
+   * Get the units of the window from index start up to index end, as a
+   * string.  Only used for ASCII text.
+   */
+  abstract String text(int start, int end);
+
+  /**
+   * Get the units of the window from index start up to index end as a
+   * string, without touching escapes.
+   */
+  abstract String raw(int start, int end);
+
+  /**
+   * Add the units of the window from index start up to index end to the
+   * end of builder, without touching escapes.
+   */
+  abstract void appendRaw(StringBuilder builder, int start, int end);
+
+  /**
+   * Write the units of the window from index start up to index end to
+   * pen, as they are.
+   */
+  abstract void writeRaw(PrintWriter pen, int start, int end);
+
+  /**
+   * Build a lexer over the units of this lexer's buffer from index start
+   * up to index end.  This lexer's buffer must hold the whole input.
+   * The new lexer reports positions within the whole input; its line
+   * and lineStart are up to the caller.
+   */
+  abstract JSONLexer slice(int start, int end);
+
+  /**
+   * Read more input into the window, keeping everything from index keep
+   * onward.  Shifts pos along with the kept units.  Returns false if no
+   * more input is available.
+   */
+  abstract boolean fill(int keep) throws IOException;
+
+  /**
+   * Consume the character most recently returned by skipWhitespace.
+   */
+  void advance() {
+    ++this.pos;
+  } // advance()
+
+  // +-----------+---------------------------------------------------
+  // | Positions |
+  // +-----------+
+
+  /**
+   * Get the number of units (characters or bytes) consumed so far.
+   */
+  long position() {
+    return this.base + this.pos;
+  } // position()
+
+  /**
+   * Get the current line.
+   */
+  int line() {
+    return this.line;
+  } // line()
+
+  /**
+   * Get the current column.
+   */
+  int column() {
+    return (int) (position() - this.lineStart) + 1;
+  } // column()
+
+  /**
+   * Build an exception that reports the current position.
+   */
+  ParseException error(String message) {
+    if (this.oversize) {
+      // Whatever went wrong, we stopped reading at the limit
+      message = "Document is larger than the limit of " + this.maxSize;
+    } // if
+    return new ParseException(message + " at line " + line() + ", column " + column(),
+        (int) Math.min(Integer.MAX_VALUE, position()));
+  } // error(String)
+
+  // +---------+-----------------------------------------------------
+  // | Strings |
+  // +---------+
+
+  /**
+   * Get the body of the string between indices start and end of the
+   * window, which has already been scanned.
+   */
+  String string(int start, int end) {
+    return string(start, end, scanPlain(start, end) < end);
+  } // string(int, int)
+
+  /**
+   * Get the body of the string between indices start and end of the
+   * window, which has already been scanned and holds escapes if escaped
+   * is set.
+   */
+  String string(int start, int end, boolean escaped) {
+    return escaped ? unescape(start, end) : raw(start, end);
+  } // string(int, int, boolean)
+
+  /**
+   * Check the escape whose backslash is at index i, and return the index
+   * just past it, or -1 if the window ends before the escape does.
+   */
+  int escape(int i) throws ParseException {
+    if (i + 1 >= this.limit) {
+      return -1;
+    } // if
+    switch (at(i + 1)) {
+      case '"':
+      case '\\':
+      case '/':
+      case 'b':
+      case 'f':
+      case 'n':
+      case 'r':
+      case 't':
+        return i + 2;
+      case 'u':
+        if (i + 6 > this.limit) {
+          return -1;
+        } // if
+        for (int j = i + 2; j < i + 6; j++) {
+          if (hex(at(j)) < 0) {
+            this.pos = i;
+            throw error("Invalid unicode escape");
+          } // if
+        } // for
+        return i + 6;
+      default:
+        this.pos = i;
+        throw error("Invalid escape");
+    } // switch
+  } // escape(int)
+
+  /**
+   * Build the body of the string between indices start and end of the
+   * window, replacing escapes with the characters they stand for.  The
+   * escapes have already been checked by scanString.
+   */
+  String unescape(int start, int end) {
+    StringBuilder builder = new StringBuilder(end - start);
+    int run = start;
+    int i = scanPlain(start, end);
+    while (i < end) {
+      appendRaw(builder, run, i);
+      int ch = at(i + 1);
+      switch (ch) {
+        case 'b':
+          builder.append('\b');
+          break;
+        case 'f':
+          builder.append('\f');
+          break;
+        case 'n':
+          builder.append('\n');
+          break;
+        case 'r':
+          builder.append('\r');
+          break;
+        case 't':
+          builder.append('\t');
+          break;
+        case 'u':
+          builder.append((char) ((hex(at(i + 2)) << 12) | (hex(at(i + 3)) << 8)
+              | (hex(at(i + 4)) << 4) | hex(at(i + 5))));
+          i += 4;
+          break;
+        default:
+          // A quotation mark, backslash, or slash stands for itself
+          builder.append((char) ch);
+          break;
+      } // switch
+      i += 2;
+      run = i;
+      i = scanPlain(i, end);
+    } // while
+    appendRaw(builder, run, end);
+    return builder.toString();
+  } // unescape(int, int)
+
+  /**
+   * Get the value of the hex digit ch, or -1 if it is not one.
+   */
+  static int hex(int ch) {
+    if (ch >= '0' && ch <= '9') {
+      return ch - '0';
+    } else if (ch >= 'a' && ch <= 'f') {
+      return ch - 'a' + 10;
+    } else if (ch >= 'A' && ch <= 'F') {
+      return ch - 'A' + 10;
+    } else {
+      return -1;
+    } // if/else
+  } // hex(int)
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Try to make at least n units available from pos onward.
+   */
+  void ensure(int n) throws IOException {
+    while (this.limit - this.pos < n && fill(this.pos)) {
+      // Keep reading
+    } // while
+  } // ensure(int)
+
+  /**
+   * Check the window, which has just been filled from index from onward,
+   * against maxSize.  If the input runs past maxSize, cut the window off
+   * there and note that it does.  Returns whether the window holds
+   * anything past from.
+   */
+  boolean admit(int from) {
+    if (this.base + this.limit > this.maxSize) {
+      this.limit = (int) Math.max(from, this.maxSize - this.base);
+      this.oversize = true;
+    } // if
+    return this.limit > from;
+  } // admit(int)
+
+  /**
+   * Note that the window holds a newline at index i.
+   */
+  void newline(int i) {
+    ++this.line;
+    this.lineStart = this.base + i + 1;
+  } // newline(int)
+
+  /**
+   * Determine if the units of the window from index start up to index end
+   * spell out str.  Escapes are not decoded.
+   */
+  boolean matches(int start, int end, String str) {
+    if (str.length() != end - start) {
+      return false;
+    } // if
+    for (int i = start; i < end; i++) {
+      if (at(i) != str.charAt(i - start)) {
+        return false;
+      } // if
+    } // for
+    return true;
+  } // matches(int, int, String)
+
+  /**
+   * Determine if ch may appear in a number.
+   */
+  static boolean isNumberChar(int ch) {
+    return (ch >= '0' && ch <= '9') || ch == '.' || ch == 'e' || ch == 'E' || ch == '-'
+        || ch == '+';
+  } // isNumberChar(int)
+
+  /**
+   * Turn the number between indices start and end of the window into a
+   * JSONInteger or JSONReal.  Numbers with up to 18 significant digits
+   * (nearly all of them) are built straight from the digits, with no
+   * intermediate string or BigInteger/BigDecimal.
+   */
+  JSONValue number(int start, int end) throws ParseException {
+    int i = start;
+    boolean negative = (i < end) && (at(i) == '-');
+    if (negative) {
+      ++i;
+    } // if
+
+    // The integer part: a single 0, or digits that do not start with 0.
+    long unscaled = 0;
+    int digits = 0;
+    int ch = (i < end) ? at(i) : -1;
+    if (ch == '0') {
+      ++i;
+    } else if (ch >= '1' && ch <= '9') {
+      while (i < end && (ch = at(i)) >= '0' && ch <= '9') {
+        unscaled = unscaled * 10 + (ch - '0');
+        ++digits;
+        ++i;
+      } // while
+    } else {
+      throw invalidNumber(start, end);
+    } // if/else
+
+    // The fraction
+    boolean isInteger = true;
+    int scale = 0;
+    if (i < end && at(i) == '.') {
+      isInteger = false;
+      ++i;
+      int fractionStart = i;
+      while (i < end && (ch = at(i)) >= '0' && ch <= '9') {
+        unscaled = unscaled * 10 + (ch - '0');
+        if (digits > 0 || unscaled != 0) {
+          ++digits;
+        } // if
+        ++scale;
+        ++i;
+      } // while
+      if (i == fractionStart) {
+        throw invalidNumber(start, end);
+      } // if
+    } // if
+
+    // The exponent
+    long exponent = 0;
+    if (i < end && (at(i) == 'e' || at(i) == 'E')) {
+      isInteger = false;
+      ++i;
+      boolean negativeExponent = false;
+      if (i < end && (at(i) == '+' || at(i) == '-')) {
+        negativeExponent = (at(i) == '-');
+        ++i;
+      } // if
+      int exponentStart = i;
+      while (i < end && (ch = at(i)) >= '0' && ch <= '9') {
+        if (exponent < Integer.MAX_VALUE) {
+          exponent = exponent * 10 + (ch - '0');
+        } // if
+        ++i;
+      } // while
+      if (i == exponentStart) {
+        throw invalidNumber(start, end);
+      } // if
+      if (negativeExponent) {
+        exponent = -exponent;
+      } // if
+    } // if
+
+    if (i != end) {
+      throw invalidNumber(start, end);
+    } // if
+
+    // Too many digits for a long, so let BigInteger/BigDecimal do it.
+    if (digits > 18) {
+      try {
+        if (isInteger) {
+          return new JSONInteger(text(start, end));
+        } else {
+          return new JSONReal(text(start, end));
+        } // if/else
+      } catch (NumberFormatException e) {
+        throw invalidNumber(start, end);
+      } // try/catch
+    } // if
+
+    if (negative) {
+      unscaled = -unscaled;
+    } // if
+    if (isInteger) {
+      return new JSONInteger(unscaled);
+    } // if
+    long fullScale = scale - exponent;
+    if (fullScale < Integer.MIN_VALUE || fullScale > Integer.MAX_VALUE) {
+      throw invalidNumber(start, end);
+    } // if
+    return new JSONReal(unscaled, (int) fullScale);
+  } // number(int, int)
+
+  /**
+   * Check that the units between indices start and end of the window
+   * form a JSON number, without building it.  As in number, a real whose
+   * exponent takes its scale out of the range of an int is rejected.
+   */
+  void checkNumber(int start, int end) throws ParseException {
+    int i = start;
+    if (i < end && at(i) == '-') {
+      ++i;
+    } // if
+    // The integer part: a single 0, or digits that do not start with 0
+    if (i < end && at(i) == '0') {
+      ++i;
+    } else {
+      i = digits(i, end, start);
+    } // if/else
+    int scale = 0;
+    if (i < end && at(i) == '.') {
+      int fractionStart = i + 1;
+      i = digits(fractionStart, end, start);
+      scale = i - fractionStart;
+    } // if
+    if (i < end && (at(i) == 'e' || at(i) == 'E')) {
+      ++i;
+      boolean negativeExponent = false;
+      if (i < end && (at(i) == '+' || at(i) == '-')) {
+        negativeExponent = (at(i) == '-');
+        ++i;
+      } // if
+      int exponentStart = i;
+      i = digits(i, end, start);
+      long exponent = 0;
+      for (int j = exponentStart; j < i && exponent < Integer.MAX_VALUE; j++) {
+        exponent = exponent * 10 + (at(j) - '0');
+      } // for
+      long fullScale = scale - (negativeExponent ? -exponent : exponent);
+      if (fullScale < Integer.MIN_VALUE || fullScale > Integer.MAX_VALUE) {
+        throw invalidNumber(start, end);
+      } // if
+    } // if
+    if (i != end) {
+      throw invalidNumber(start, end);
+    } // if
+  } // checkNumber(int, int)
+
+  /**
+   * Move past one or more digits starting at index i, and return the
+   * index after them.  The number starts at index start.
+   */
+  int digits(int i, int end, int start) throws ParseException {
+    int first = i;
+    while (i < end && at(i) >= '0' && at(i) <= '9') {
+      ++i;
+    } // while
+    if (i == first) {
+      throw invalidNumber(start, end);
+    } // if
+    return i;
+  } // digits(int, int, int)
+
+  /**
+   * Build an exception for the malformed number between indices start
+   * and end of the window.
+   */
+  ParseException invalidNumber(int start, int end) {
+    return error("Invalid number: " + text(start, end));
+  } // invalidNumber(int, int)
+
+  /**
+   * Pick the constant that starts with ch.
+   */
+  static JSONConstant constant(int ch) {
+    switch (ch) {
+      case 't':
+        return JSONConstant.TRUE;
+      case 'f':
+        return JSONConstant.FALSE;
+      default:
+        return JSONConstant.NULL;
+    } // switch
+  } // constant(int)
+
+} // class JSONLexer
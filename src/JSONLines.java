@@ -0,0 +1,588 @@
+package src;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PushbackInputStream;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads JSON Lines (also called newline-delimited JSON): a series of JSON
+ * values, each on a line of its own.  Blank lines are allowed.
+ *
+ * By default, one lexer reads every value in turn, so the only memory
+ * used beyond the values themselves is the lexer's window.  With
+ * setParallel, the input is instead cut into batches of whole lines,
+ * which are parsed on a pool of threads; values still come out in the
+ * order they appear in the input.  Only a fixed number of batches are
+ * read ahead, so memory use stays bounded however far the consumer
+ * falls behind.
+ * Either way, the values before a bad one come out first, and then the
+ * same error is reported.
+ *
+ * read reports problems with checked exceptions.  The Iterator methods
+ * and stream wrap a ParseException in an IllegalStateException and an
+ * IOException in an UncheckedIOException.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONLines implements Iterator<JSONValue>, Closeable {
+
+  // +-------+-------------------------------------------------------
+  // | Types |
+  // +-------+
+
+  /**
+   * One batch of lines: its input, and once parsed, its values or what
+   * went wrong parsing them.
+   */
+  static class Batch {
+    /**
+     * The input (a byte[] or char[]), and how much of it is in use.
+     */
+    Object input;
+    int length;
+
+    /**
+     * A lexer over the input.
+     */
+    JSONLexer lexer;
+
+    /**
+     * The task that parses the batch.
+     */
+    Future<Batch> task;
+
+    /**
+     * The values, in order.  If the batch failed, the values before the
+     * one that failed.
+     */
+    JSONValue[] values;
+
+    /**
+     * The ParseException or IOException the batch failed with, if any.
+     */
+    Exception failure;
+
+    /**
+     * Where the lexer was when it started on the value that failed: the
+     * index in input, the line, and the offset of the start of the line.
+     */
+    int failedAt;
+    int failedLine;
+    long failedLineStart;
+  } // class Batch
+
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The default size of a batch in parallel mode, in bytes or chars.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 1 << 20;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * Where the lines come from, as bytes (null if they come as chars).
+   */
+  InputStream in;
+
+  /**
+   * Where the lines come from, as chars (null if they come as bytes).
+   */
+  Reader reader;
+
+  /**
+   * The parser that reads values in sequential mode (null until needed).
+   */
+  JSONParser parser;
+
+  /**
+   * The pool that parses batches (null in sequential mode).
+   */
+  ExecutorService pool;
+
+  /**
+   * The most batches we read ahead in parallel mode.
+   */
+  int maxBatches;
+
+  /**
+   * The size of a batch in parallel mode.
+   */
+  int batchSize = DEFAULT_BATCH_SIZE;
+
+  /**
+   * The batches being parsed, oldest first.
+   */
+  ArrayDeque<Batch> inFlight = new ArrayDeque<Batch>();
+
+  /**
+   * The values of the batch we are handing out.
+   */
+  JSONValue[] current;
+
+  /**
+   * The index of the next value of current.
+   */
+  int index;
+
+  /**
+   * What to throw once the values of current run out (null if nothing
+   * went wrong).
+   */
+  Exception failure;
+
+  /**
+   * Input read past the last newline of the latest batch (a byte[] or
+   * char[]), and how much of it is in use.
+   */
+  Object leftover;
+  int leftoverLength;
+
+  /**
+   * The number of units and lines in the batches read so far.
+   */
+  long offset;
+  int lines;
+
+  /**
+   * Whether the source has run out.
+   */
+  boolean exhausted;
+
+  /**
+   * The next value, once hasNext has looked for it.
+   */
+  JSONValue next;
+
+  /**
+   * Whether next is up to date.
+   */
+  boolean ready;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Read lines of JSON from a stream of characters.
+   */
+  public JSONLines(Reader source) {
+    this.reader = source;
+  } // JSONLines(Reader)
+
+  /**
+   * Read lines of UTF-8 encoded JSON from a stream of bytes.
+   */
+  public JSONLines(InputStream source) {
+    this.in = source;
+  } // JSONLines(InputStream)
+
+  // +---------------+-----------------------------------------------
+  // | Configuration |
+  // +---------------+
+
+  /**
+   * Parse batches of lines on pool, with at most maxBatches batches read
+   * ahead of the consumer.  Call before reading.
+   */
+  public void setParallel(ExecutorService pool, int maxBatches) {
+    if (maxBatches < 1) {
+      throw new IllegalArgumentException("Need at least one batch: " + maxBatches);
+    } // if
+    this.pool = pool;
+    this.maxBatches = maxBatches;
+  } // setParallel(ExecutorService, int)
+
+  /**
+   * Make batches of about size bytes (or chars) in parallel mode.  A
+   * batch always holds whole lines, so one long line makes a bigger
+   * batch.  Call before reading.
+   */
+  public void setBatchSize(int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Batch size must be positive: " + size);
+    } // if
+    this.batchSize = size;
+  } // setBatchSize(int)
+
+  // +---------+-----------------------------------------------------
+  // | Reading |
+  // +---------+
+
+  /**
+   * Read the next value, or return null at the end of the input.
+   */
+  public JSONValue read() throws ParseException, IOException {
+    if (this.pool == null) {
+      if (this.parser == null) {
+        this.parser = (this.in != null) ? new JSONParser(this.in) : new JSONParser(this.reader);
+      } // if
+      return readLine(this.parser);
+    } // if
+    while (this.current == null || this.index == this.current.length) {
+      if (this.failure != null) {
+        close();
+        if (this.failure instanceof ParseException) {
+          throw (ParseException) this.failure;
+        } // if
+        throw (IOException) this.failure;
+      } // if
+      while (this.inFlight.size() < this.maxBatches && submit()) {
+        // Keep the pool busy
+      } // while
+      if (this.inFlight.isEmpty()) {
+        return null;
+      } // if
+      this.current = take(this.inFlight.poll());
+      this.index = 0;
+    } // while
+    JSONValue value = this.current[this.index];
+    this.current[this.index++] = null;
+    return value;
+  } // read()
+
+  @Override
+  public boolean hasNext() {
+    if (!this.ready) {
+      try {
+        this.next = read();
+      } catch (ParseException e) {
+        throw new IllegalStateException(e.getMessage(), e);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      } // try/catch
+      this.ready = true;
+    } // if
+    return this.next != null;
+  } // hasNext()
+
+  @Override
+  public JSONValue next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    } // if
+    this.ready = false;
+    return this.next;
+  } // next()
+
+  /**
+   * Get the values as an ordered stream.  Closing the stream closes the
+   * source.
+   */
+  public Stream<JSONValue> stream() {
+    Spliterator<JSONValue> spliterator = Spliterators.spliteratorUnknownSize(this,
+        Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(() -> {
+      try {
+        close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      } // try/catch
+    });
+  } // stream()
+
+  /**
+   * Stop reading: drop any batches still being parsed and close the
+   * source.
+   */
+  @Override
+  public void close() throws IOException {
+    for (Batch batch : this.inFlight) {
+      batch.task.cancel(true);
+    } // for
+    this.inFlight.clear();
+    this.current = null;
+    this.exhausted = true;
+    if (this.in != null) {
+      this.in.close();
+    } else {
+      this.reader.close();
+    } // if/else
+  } // close()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Read the value on the next non-blank line of parser's input, or
+   * return null at the end.
+   */
+  static JSONValue readLine(JSONParser parser) throws ParseException, IOException {
+    JSONLexer lexer = parser.lexer;
+    if (lexer.skipWhitespace() == -1) {
+      return null;
+    } // if
+    int line = lexer.line;
+    JSONValue value = parser.parseKernel();
+    if (lexer.line != line) {
+      throw lexer.error("Expected the value to end on the line it starts on");
+    } // if
+    if (lexer.skipWhitespace() != -1 && lexer.line == line) {
+      throw lexer.error("Expected a new line after the value");
+    } // if
+    return value;
+  } // readLine(JSONParser)
+
+  /**
+   * Read the next batch of lines and start parsing it.  Returns false if
+   * there are no more lines.
+   */
+  boolean submit() throws IOException {
+    Batch batch = (this.in != null) ? readBytes() : readChars();
+    if (batch == null) {
+      return false;
+    } // if
+    batch.task = this.pool.submit(() -> parse(batch));
+    this.inFlight.add(batch);
+    return true;
+  } // submit()
+
+  /**
+   * Parse every line of batch.
+   */
+  static Batch parse(Batch batch) {
+    JSONLexer lexer = batch.lexer;
+    JSONParser parser = new JSONParser(lexer);
+    JSONValue[] values = new JSONValue[16];
+    int count = 0;
+    try {
+      while (true) {
+        batch.failedAt = lexer.pos;
+        batch.failedLine = lexer.line;
+        batch.failedLineStart = lexer.lineStart;
+        JSONValue value = readLine(parser);
+        if (value == null) {
+          break;
+        } // if
+        if (count == values.length) {
+          values = Arrays.copyOf(values, count * 2);
+        } // if
+        values[count++] = value;
+      } // while
+    } catch (ParseException | IOException e) {
+      batch.failure = e;
+    } // try/catch
+    batch.values = Arrays.copyOf(values, count);
+    return batch;
+  } // parse(Batch)
+
+  /**
+   * Wait for a batch and get its values.  If it failed, we hand out the
+   * values before the one that failed, and then throw what it failed
+   * with.
+   */
+  JSONValue[] take(Batch batch) throws IOException {
+    try {
+      batch.task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a batch");
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    } // try/catch
+    if (batch.failure instanceof ParseException) {
+      this.failure = reparse(batch);
+    } else {
+      this.failure = batch.failure;
+    } // if/else
+    return batch.values;
+  } // take(Batch)
+
+  /**
+   * Parse the value that batch failed on again, over the rest of the
+   * input rather than just the rest of the batch, and return the error
+   * that gives.  A value may run on past the end of its batch, so this
+   * is the only way to report exactly what sequential mode reports.
+   */
+  ParseException reparse(Batch batch) throws IOException {
+    JSONParser parser;
+    if (this.in != null) {
+      ByteArrayOutputStream rest = new ByteArrayOutputStream();
+      rest.write((byte[]) batch.input, batch.failedAt, batch.length - batch.failedAt);
+      for (Batch later : this.inFlight) {
+        rest.write((byte[]) later.input, 0, later.length);
+      } // for
+      rest.write((byte[]) this.leftover, 0, this.leftoverLength);
+      PushbackInputStream in = new PushbackInputStream(this.in, Math.max(1, rest.size()));
+      in.unread(rest.toByteArray());
+      parser = new JSONParser(in);
+    } else {
+      CharArrayWriter rest = new CharArrayWriter();
+      rest.write((char[]) batch.input, batch.failedAt, batch.length - batch.failedAt);
+      for (Batch later : this.inFlight) {
+        rest.write((char[]) later.input, 0, later.length);
+      } // for
+      rest.write((char[]) this.leftover, 0, this.leftoverLength);
+      PushbackReader reader = new PushbackReader(this.reader, Math.max(1, rest.size()));
+      reader.unread(rest.toCharArray());
+      parser = new JSONParser(reader);
+    } // if/else
+    parser.lexer.base = batch.lexer.base + batch.failedAt;
+    parser.lexer.line = batch.failedLine;
+    parser.lexer.lineStart = batch.failedLineStart;
+    try {
+      readLine(parser);
+    } catch (ParseException e) {
+      return e;
+    } // try/catch
+    return (ParseException) batch.failure;
+  } // reparse(Batch)
+
+  /**
+   * Read the next batch of whole lines of bytes, or return null if there
+   * are none.
+   */
+  Batch readBytes() throws IOException {
+    if (this.exhausted && this.leftoverLength == 0) {
+      return null;
+    } // if
+    byte[] buf = new byte[Math.max(this.batchSize, this.leftoverLength)];
+    int length = this.leftoverLength;
+    if (length > 0) {
+      System.arraycopy((byte[]) this.leftover, 0, buf, 0, length);
+    } // if
+    int cut = -1;
+    while (cut < 0 && !this.exhausted) {
+      if (length == buf.length) {
+        // One line fills the batch, so make the batch bigger
+        buf = Arrays.copyOf(buf, buf.length * 2);
+      } // if
+      int count = this.in.read(buf, length, buf.length - length);
+      if (count < 0) {
+        this.exhausted = true;
+      } else {
+        length += count;
+        if (length == buf.length) {
+          cut = lastNewline(buf, length);
+        } // if
+      } // if/else
+    } // while
+    if (cut < 0) {
+      cut = length;
+    } // if
+    this.leftoverLength = length - cut;
+    this.leftover = Arrays.copyOfRange(buf, cut, length);
+    Batch batch = new Batch();
+    batch.input = buf;
+    batch.length = cut;
+    batch.lexer = new JSONByteLexer(ByteBuffer.wrap(buf, 0, cut));
+    start(batch.lexer, cut);
+    for (int i = 0; i < cut; i++) {
+      if (buf[i] == '\n') {
+        ++this.lines;
+      } // if
+    } // for
+    return batch;
+  } // readBytes()
+
+  /**
+   * Read the next batch of whole lines of chars, or return null if there
+   * are none.
+   */
+  Batch readChars() throws IOException {
+    if (this.exhausted && this.leftoverLength == 0) {
+      return null;
+    } // if
+    char[] buf = new char[Math.max(this.batchSize, this.leftoverLength)];
+    int length = this.leftoverLength;
+    if (length > 0) {
+      System.arraycopy((char[]) this.leftover, 0, buf, 0, length);
+    } // if
+    int cut = -1;
+    while (cut < 0 && !this.exhausted) {
+      if (length == buf.length) {
+        buf = Arrays.copyOf(buf, buf.length * 2);
+      } // if
+      int count = this.reader.read(buf, length, buf.length - length);
+      if (count < 0) {
+        this.exhausted = true;
+      } else {
+        length += count;
+        if (length == buf.length) {
+          cut = lastNewline(buf, length);
+        } // if
+      } // if/else
+    } // while
+    if (cut < 0) {
+      cut = length;
+    } // if
+    this.leftoverLength = length - cut;
+    this.leftover = Arrays.copyOfRange(buf, cut, length);
+    Batch batch = new Batch();
+    batch.input = buf;
+    batch.length = cut;
+    batch.lexer = new JSONCharLexer(buf, 0, cut);
+    start(batch.lexer, cut);
+    for (int i = 0; i < cut; i++) {
+      if (buf[i] == '\n') {
+        ++this.lines;
+      } // if
+    } // for
+    return batch;
+  } // readChars()
+
+  /**
+   * Set up lexer, which holds the next length units of the input, to
+   * report positions within the whole input.
+   */
+  void start(JSONLexer lexer, int length) {
+    lexer.base = this.offset;
+    lexer.line = this.lines + 1;
+    lexer.lineStart = this.offset;
+    this.offset += length;
+  } // start(JSONLexer, int)
+
+  /**
+   * Find the index just past the last newline in the first length bytes
+   * of buf, or -1 if there is none.
+   */
+  static int lastNewline(byte[] buf, int length) {
+    for (int i = length - 1; i >= 0; i--) {
+      if (buf[i] == '\n') {
+        return i + 1;
+      } // if
+    } // for
+    return -1;
+  } // lastNewline(byte[], int)
+
+  /**
+   * Find the index just past the last newline in the first length chars
+   * of buf, or -1 if there is none.
+   */
+  static int lastNewline(char[] buf, int length) {
+    for (int i = length - 1; i >= 0; i--) {
+      if (buf[i] == '\n') {
+        return i + 1;
+      } // if
+    } // for
+    return -1;
+  } // lastNewline(char[], int)
+
+} // class JSONLines
@@ -0,0 +1,104 @@
+package src;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+import java.util.stream.LongStream;
+
+/**
+ * A JSON array of integers that fit in a long, held in a long[].  See
+ * JSONPrimitiveArray.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+class JSONLongArray extends JSONPrimitiveArray {
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The elements, while we are primitive.
+   */
+  long[] longs = new long[INITIAL_CAPACITY];
+
+  // +--------------+------------------------------------------------
+  // | Bulk methods |
+  // +--------------+
+
+  @Override
+  public long[] toLongArray() {
+    return this.primitive ? Arrays.copyOf(this.longs, this.count) : super.toLongArray();
+  } // toLongArray()
+
+  @Override
+  public double[] toDoubleArray() {
+    if (!this.primitive) {
+      return super.toDoubleArray();
+    } // if
+    double[] result = new double[this.count];
+    for (int i = 0; i < this.count; i++) {
+      result[i] = this.longs[i];
+    } // for
+    return result;
+  } // toDoubleArray()
+
+  @Override
+  public LongStream longStream() {
+    return this.primitive ? Arrays.stream(this.longs, 0, this.count) : super.longStream();
+  } // longStream()
+
+  @Override
+  public DoubleStream doubleStream() {
+    return this.primitive ? longStream().asDoubleStream() : super.doubleStream();
+  } // doubleStream()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  @Override
+  void appendElements(StringBuilder builder) {
+    if (!this.primitive) {
+      super.appendElements(builder);
+      return;
+    } // if
+    for (int i = 0; i < this.count; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      } // if
+      builder.append(this.longs[i]);
+    } // for
+  } // appendElements(StringBuilder)
+
+  @Override
+  JSONValue box(int i) {
+    return new JSONInteger(this.longs[i]);
+  } // box(int)
+
+  @Override
+  boolean store(int i, JSONValue value) {
+    if (!(value instanceof JSONInteger) || !((JSONInteger) value).isLong()) {
+      return false;
+    } // if
+    if (i == this.longs.length) {
+      this.longs = Arrays.copyOf(this.longs, i * 2);
+    } // if
+    this.longs[i] = ((JSONInteger) value).longValue();
+    return true;
+  } // store(int, JSONValue)
+
+  @Override
+  void trim() {
+    if (this.primitive && this.longs.length != this.count) {
+      this.longs = Arrays.copyOf(this.longs, this.count);
+    } // if
+  } // trim()
+
+  @Override
+  void release() {
+    this.longs = null;
+  } // release()
+
+} // class JSONLongArray
@@ -0,0 +1,100 @@
+package src;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Splits a memory-mapped file into JSON tokens.  The file is mapped a
+ * chunk at a time (a single mapping cannot be larger than 2 GB), and the
+ * bytes are read straight out of the page cache with no copying.  When
+ * the lexer runs off the end of a chunk, the next chunk is mapped so that
+ * it starts with whatever token was in progress.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+class JSONMappedLexer extends JSONByteLexer {
+
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The largest region we map at once.
+   */
+  static final long CHUNK_SIZE = 1L << 30;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The file we are mapping.  Null once the last chunk is mapped.
+   */
+  FileChannel channel;
+
+  /**
+   * The size of the file.
+   */
+  long size;
+
+  /**
+   * The largest region to map at once.
+   */
+  long chunkSize;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build a lexer over an open file.  The channel must stay open until
+   * the lexer is done with it.
+   */
+  JSONMappedLexer(FileChannel channel) throws IOException {
+    this(channel, CHUNK_SIZE);
+  } // JSONMappedLexer(FileChannel)
+
+  /**
+   * Build a lexer over an open file, mapping at most chunkSize bytes at
+   * once.
+   */
+  JSONMappedLexer(FileChannel channel, long chunkSize) throws IOException {
+    super(channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), chunkSize)));
+    this.size = channel.size();
+    this.chunkSize = chunkSize;
+    this.channel = (this.limit < this.size) ? channel : null;
+    // Later chunks replace the buffer, so only a single chunk is whole.
+    this.whole = (this.channel == null);
+  } // JSONMappedLexer(FileChannel, long)
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  @Override
+  boolean fill(int keep) throws IOException {
+    if (this.channel == null || this.oversize) {
+      return false;
+    } // if
+    long start = this.base + keep;
+    int kept = this.limit - keep;
+    long length = Math.min(this.size - start, this.chunkSize);
+    if (length <= kept) {
+      throw new IOException("Token at offset " + start + " is larger than "
+          + this.chunkSize + " bytes");
+    } // if
+    this.buf = this.channel.map(FileChannel.MapMode.READ_ONLY, start, length)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    this.base = start;
+    this.pos -= keep;
+    this.limit = (int) length;
+    if (start + length == this.size) {
+      this.channel = null;
+    } // if
+    return admit(kept);
+  } // fill(int)
+
+} // class JSONMappedLexer
@@ -0,0 +1,892 @@
+package src;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A single-use JSON parser.  All of the state for one parse (the lexer,
+ * with its buffer, position, line, and column) lives in the parser instance,
+ * so separate parsers may run on separate threads at the same time.
+ *
+ * Each parser also keeps a small cache of the object keys it has seen,
+ * so that a key that appears in many objects is built once and shared.
+ * setKeyCacheSize changes the size of the cache or turns it off.
+ *
+ * With setLazyStrings, a parser over input that is all in memory builds
+ * lazy string values, which point into the input rather than copying it.
+ *
+ * Objects and arrays are parsed with a stack of their own rather than by
+ * recursion, so deep input cannot overflow the thread's stack.  Input
+ * from untrusted sources can be held to limits on its depth, its size,
+ * the length of its strings, and the entries in any one object or array
+ * (setMaxDepth, setMaxDocumentSize, setMaxStringLength, and
+ * setMaxEntries); input that breaks a limit fails with a ParseException
+ * as soon as it does, before the parser does any more work.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONParser {
+
+  // +-------+-------------------------------------------------------
+  // | Types |
+  // +-------+
+
+  /**
+   * A run of consecutive elements of a top-level array, for parseParallel.
+   */
+  static class Chunk {
+    /**
+     * The index in the buffer of the first element.
+     */
+    int start;
+
+    /**
+     * The index in the buffer just past the last element.
+     */
+    int end;
+
+    /**
+     * The number of elements.
+     */
+    int count;
+
+    /**
+     * The line on which the first element starts.
+     */
+    int line;
+
+    /**
+     * The offset in the input of the start of that line.
+     */
+    long lineStart;
+  } // class Chunk
+
+  /**
+   * Parses one chunk for parseParallel.  Because a task cannot throw
+   * checked exceptions, it keeps any ParseException or IOException for
+   * whoever joins it.  Tasks are never serialized.
+   */
+  @SuppressWarnings("serial")
+  class ChunkTask extends RecursiveTask<JSONValue[]> {
+    /**
+     * The chunk to parse.
+     */
+    Chunk chunk;
+
+    /**
+     * What went wrong, if anything.
+     */
+    Exception failure;
+
+    /**
+     * Build a task that parses chunk.
+     */
+    ChunkTask(Chunk chunk) {
+      this.chunk = chunk;
+    } // ChunkTask(Chunk)
+
+    @Override
+    protected JSONValue[] compute() {
+      try {
+        return parseChunk(this.chunk);
+      } catch (ParseException | IOException e) {
+        this.failure = e;
+        return null;
+      } // try/catch
+    } // compute()
+
+    /**
+     * Wait for the task to finish and get its elements, throwing whatever
+     * it failed with.
+     */
+    JSONValue[] result() throws ParseException, IOException {
+      JSONValue[] values = join();
+      if (this.failure instanceof ParseException) {
+        throw (ParseException) this.failure;
+      } else if (this.failure != null) {
+        throw (IOException) this.failure;
+      } // if/else
+      return values;
+    } // result()
+  } // class ChunkTask
+
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The fewest units of input that parseParallel hands to one task.
+   */
+  static final int MIN_CHUNK = 1 << 16;
+
+  /**
+   * How many tasks parseParallel aims to make per thread, so that threads
+   * that finish early can pick up more work.
+   */
+  static final int CHUNKS_PER_THREAD = 8;
+
+  /**
+   * How deeply objects and arrays may nest unless setMaxDepth says
+   * otherwise.  The parser itself could go much deeper, but writing,
+   * comparing, and hashing a value all recurse once per level.
+   */
+  public static final int DEFAULT_MAX_DEPTH = 1000;
+
+  /**
+   * What readKey returns when it has skipped a field's value.
+   */
+  static final int SKIPPED = -2;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The lexer that supplies our tokens.
+   */
+  JSONLexer lexer;
+
+  /**
+   * Recently seen object keys (null if we do not cache keys).
+   */
+  JSONKeyCache keyCache = new JSONKeyCache(JSONKeyCache.DEFAULT_SIZE);
+
+  /**
+   * Whether to build lazy string values when we can.
+   */
+  boolean lazyStrings;
+
+  /**
+   * Whether to hold arrays of integers, reals, or booleans in primitive
+   * arrays.
+   */
+  boolean primitiveArrays = true;
+
+  /**
+   * How deeply objects and arrays may nest.
+   */
+  int maxDepth = DEFAULT_MAX_DEPTH;
+
+  /**
+   * The most entries one object or array may hold.
+   */
+  int maxEntries = Integer.MAX_VALUE;
+
+  /**
+   * How many levels down the values we parse sit (1 for the elements
+   * that parseChunk parses, which are inside the top-level array, and the
+   * reader's depth for a JSONStreamReader's readCurrent).
+   */
+  int nesting;
+
+  /**
+   * The objects and arrays that parseContainer has open, innermost last.
+   * An array stays null until its first element is parsed, since that
+   * decides what kind of array to build.
+   */
+  JSONValue[] containers = new JSONValue[16];
+
+  /**
+   * Whether each open container is an object.
+   */
+  boolean[] objects = new boolean[16];
+
+  /**
+   * The number of entries read so far in each open container.
+   */
+  int[] counts = new int[16];
+
+  /**
+   * The key most recently read in each open object.
+   */
+  JSONString[] keys = new JSONString[16];
+
+  /**
+   * The mask for each open container (null if we keep everything).
+   */
+  FieldMask[] masks = new FieldMask[16];
+
+  /**
+   * The mask for the value after the key most recently read.
+   */
+  FieldMask valueMask;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build a parser that reads from source.
+   */
+  public JSONParser(Reader source) {
+    this.lexer = new JSONCharLexer(source);
+  } // JSONParser(Reader)
+
+  /**
+   * Build a parser that reads from a string.
+   */
+  public JSONParser(String source) {
+    char[] chars = source.toCharArray();
+    this.lexer = new JSONCharLexer(chars, 0, chars.length);
+  } // JSONParser(String)
+
+  /**
+   * Build a parser that reads UTF-8 bytes from source.
+   */
+  public JSONParser(InputStream source) {
+    this.lexer = new JSONByteLexer(source);
+  } // JSONParser(InputStream)
+
+  /**
+   * Build a parser that reads the remaining UTF-8 bytes of source.  The
+   * buffer's position is left unchanged.
+   */
+  public JSONParser(ByteBuffer source) {
+    this.lexer = new JSONByteLexer(source);
+  } // JSONParser(ByteBuffer)
+
+  /**
+   * Build a parser that reads UTF-8 bytes from an array.
+   */
+  public JSONParser(byte[] source) {
+    this(ByteBuffer.wrap(source));
+  } // JSONParser(byte[])
+
+  /**
+   * Build a parser that reads tokens from lexer.
+   */
+  JSONParser(JSONLexer lexer) {
+    this.lexer = lexer;
+  } // JSONParser(JSONLexer)
+
+  // +---------+-----------------------------------------------------
+  // | Parsing |
+  // +---------+
+
+  /**
+   * Parse the whole source as a single JSON value.
+   */
+  public JSONValue parse() throws ParseException, IOException {
+    JSONValue result = parseKernel();
+    checkEnd();
+    return result;
+  } // parse()
+
+  /**
+   * Parse the whole source as a single JSON value, keeping only the
+   * fields that mask asks for.  Every other field is checked and skipped
+   * without building anything, so the result holds just the selected
+   * fields (and the objects and arrays on the way to them).  As with
+   * JSONStreamReader.skipChildren, skipped objects and arrays are only
+   * checked for balanced brackets and strings.
+   */
+  public JSONValue parse(FieldMask mask) throws ParseException, IOException {
+    JSONValue result = parseKernel(mask);
+    checkEnd();
+    return result;
+  } // parse(FieldMask)
+
+  /**
+   * Parse the whole source as a single JSON value, lazily.  One pass
+   * checks the syntax and notes where every value is, and objects and
+   * arrays only build their contents when asked.  Reading a few fields of
+   * a large document then costs little more than that one pass.
+   *
+   * The result keeps the whole input alive, and sees any later changes to
+   * a byte array or buffer that was parsed.  Only a parser over input
+   * that is all in memory can be lazy; others parse as usual.
+   */
+  public JSONValue parseLazy() throws ParseException, IOException {
+    if (!lexer.whole) {
+      return parse();
+    } // if
+    JSONTape tape = new JSONTape(lexer, keyCache);
+    tape.maxDepth = maxDepth;
+    tape.maxEntries = maxEntries;
+    tape.scan();
+    checkEnd();
+    return tape.value(0);
+  } // parseLazy()
+
+  /**
+   * Parse the whole source, which should be one large array, on the
+   * threads of the common ForkJoinPool.  See parseParallel(ForkJoinPool).
+   */
+  public JSONValue parseParallel() throws ParseException, IOException {
+    return parseParallel(ForkJoinPool.commonPool());
+  } // parseParallel()
+
+  /**
+   * Parse the whole source, which should be one large array of
+   * independent elements, on the threads of pool.  A quick first pass
+   * finds where the elements begin and end, skipping over their insides
+   * without building anything, and groups them into chunks.  The chunks
+   * are then parsed at the same time, and their elements put together in
+   * order into one JSONArray, which is a primitive array when parse would
+   * build one.
+   *
+   * Only a parser over input that is all in memory can do this, and only
+   * for an array; anything else is parsed as usual.  Errors are reported
+   * just as parse would report them.
+   */
+  public JSONValue parseParallel(ForkJoinPool pool) throws ParseException, IOException {
+    if (!lexer.whole || maxDepth < 1 || lexer.skipWhitespace() != '[') {
+      return parse();
+    } // if
+    int pos = lexer.pos;
+    int line = lexer.line;
+    long lineStart = lexer.lineStart;
+    List<Chunk> chunks;
+    long total = 0;
+    try {
+      lexer.advance();
+      chunks = split(Math.max(MIN_CHUNK,
+          (lexer.limit - lexer.pos) / (pool.getParallelism() * CHUNKS_PER_THREAD)));
+      checkEnd();
+      for (Chunk chunk : chunks) {
+        total += chunk.count;
+      } // for
+      if (total > maxEntries) {
+        throw lexer.error("More entries than the limit of " + maxEntries);
+      } // if
+    } catch (ParseException e) {
+      // The split does not look inside elements, so an earlier element may
+      // hold an earlier error.  Start over, so we report the right one.
+      lexer.pos = pos;
+      lexer.line = line;
+      lexer.lineStart = lineStart;
+      return parse();
+    } // try/catch
+
+    List<ChunkTask> tasks = new ArrayList<ChunkTask>();
+    for (Chunk chunk : chunks) {
+      ChunkTask task = new ChunkTask(chunk);
+      pool.execute(task);
+      tasks.add(task);
+    } // for
+    // Take the results in order, so that the first error is the one
+    // that comes first in the input.  As in add, the first element picks
+    // the kind of array, which falls back on a plain one if need be.
+    JSONArray result = null;
+    for (ChunkTask task : tasks) {
+      for (JSONValue value : task.result()) {
+        if (result == null) {
+          result = primitiveArrays ? JSONPrimitiveArray.of(value) : new JSONArray();
+          if (!(result instanceof JSONPrimitiveArray)) {
+            result.values.ensureCapacity((int) total);
+          } // if
+        } // if
+        result.add(value);
+      } // for
+    } // for
+    if (result == null) {
+      return new JSONArray();
+    } else if (result instanceof JSONPrimitiveArray) {
+      ((JSONPrimitiveArray) result).trim();
+    } // if/else
+    return result;
+  } // parseParallel(ForkJoinPool)
+
+  /**
+   * Parse the next JSON value.
+   */
+  public JSONValue parseKernel() throws ParseException, IOException {
+    int ch = lexer.skipWhitespace();
+    if (ch == '{' || ch == '[') {
+      lexer.advance();
+      return parseContainer(ch, null);
+    } // if
+    return parseScalar(ch);
+  } // parseKernel()
+
+  /**
+   * Parse the value that starts with ch, which is anything but an object
+   * or array.
+   */
+  JSONValue parseScalar(int ch) throws ParseException, IOException {
+    if (-1 == ch) {
+      throw lexer.error("Unexpected end of file");
+    } // if
+
+    if (ch == '"') {
+      lexer.advance();
+      return parseString();
+    } else if ((ch >= '0' && ch <= '9') || ch == '-') {
+      return lexer.readNumber();
+    } else if (ch == 't' || ch == 'f' || ch == 'n') {
+      return lexer.readConstant();
+    } else {
+      throw lexer.error("Unexpected character: " + (char) ch);
+    } // if/else
+  } // parseScalar(int)
+
+  /**
+   * Parse a string.  Assumes the opening quotation mark has been read.
+   */
+  public JSONString parseString() throws ParseException, IOException {
+    return lexer.readJSONString(lazyStrings);
+  } // parseString()
+
+  /**
+   * Parse an object.  Assumes the opening brace has been read.
+   */
+  public JSONHash parseObject() throws ParseException, IOException {
+    return (JSONHash) parseContainer('{', null);
+  } // parseObject()
+
+  /**
+   * Parse an array.  Assumes the opening bracket has been read.
+   */
+  public JSONArray parseArray() throws ParseException, IOException {
+    return (JSONArray) parseContainer('[', null);
+  } // parseArray()
+
+  /**
+   * Parse the next JSON value, keeping only the fields that mask asks
+   * for.
+   */
+  JSONValue parseKernel(FieldMask mask) throws ParseException, IOException {
+    int ch = lexer.skipWhitespace();
+    if (ch == '{' || ch == '[') {
+      lexer.advance();
+      return parseContainer(ch, mask.isAll() ? null : mask);
+    } // if
+    return parseScalar(ch);
+  } // parseKernel(FieldMask)
+
+  /**
+   * Check that nothing but whitespace follows the value just parsed.
+   */
+  void checkEnd() throws ParseException, IOException {
+    if (-1 != lexer.skipWhitespace() || lexer.oversize) {
+      throw lexer.error("Characters remain at end");
+    } // if
+  } // checkEnd()
+
+  // +------------+--------------------------------------------------
+  // | Containers |
+  // +------------+
+
+  /**
+   * Parse the object or array that open (a brace or bracket, which has
+   * been read) starts, keeping only the fields that mask asks for, or
+   * everything if mask is null.
+   *
+   * Rather than calling itself for each nested object or array, this
+   * keeps the open containers on a stack of its own, so that how deeply
+   * the input may nest depends on maxDepth, not on the size of the
+   * thread's stack.
+   */
+  JSONValue parseContainer(int open, FieldMask mask) throws ParseException, IOException {
+    int depth = 0;
+    int ch = open;
+    while (true) {
+      // ch starts a value; if it is a brace or bracket, that has been read
+      JSONValue value;
+      if (ch == '{' || ch == '[') {
+        if (depth + nesting >= maxDepth) {
+          throw lexer.error("Nesting is deeper than the limit of " + maxDepth);
+        } else if (depth == containers.length) {
+          grow();
+        } // if/else
+        boolean object = (ch == '{');
+        objects[depth] = object;
+        counts[depth] = 0;
+        containers[depth] = object ? new JSONHash() : null;
+        masks[depth] = mask;
+        ++depth;
+        ch = lexer.skipWhitespace();
+        if (ch != (object ? '}' : ']')) {
+          if (object) {
+            ch = readKey(ch, depth - 1);
+            mask = valueMask;
+          } else {
+            ch = startValue(ch);
+          } // if/else
+          continue;
+        } // if
+        lexer.advance();
+        value = close(--depth);
+      } else if (ch == SKIPPED) {
+        value = null;
+      } else {
+        value = parseScalar(ch);
+      } // if/else
+
+      // We have finished a value, so add it to its container and look
+      // for the next one
+      while (true) {
+        if (depth == 0) {
+          return value;
+        } // if
+        int top = depth - 1;
+        boolean object = objects[top];
+        add(top, value);
+        ch = lexer.skipWhitespace();
+        if (ch == ',') {
+          lexer.advance();
+          ch = lexer.skipWhitespace();
+          if (object) {
+            ch = readKey(ch, top);
+            mask = valueMask;
+          } else {
+            ch = startValue(ch);
+            mask = masks[top];
+          } // if/else
+          break;
+        } else if (ch == (object ? '}' : ']')) {
+          lexer.advance();
+          value = close(--depth);
+        } else if (ch == -1) {
+          throw lexer.error(object ? "Unterminated object" : "Unterminated array");
+        } else {
+          throw lexer.error(object ? "Expected ',' or '}'" : "Expected ',' or ']'");
+        } // if/else
+      } // while
+    } // while
+  } // parseContainer(int, FieldMask)
+
+  /**
+   * Read the key that starts with ch in the object at level top of the
+   * stack, and the colon after it, and return the character that starts
+   * the value, reading it if it is a brace or bracket.  Sets valueMask to
+   * the mask for the value.  If the object's mask leaves the field out,
+   * skip the value and return SKIPPED.
+   */
+  int readKey(int ch, int top) throws ParseException, IOException {
+    if (ch == -1) {
+      throw lexer.error("Unterminated object");
+    } else if (ch != '"') {
+      throw lexer.error("Expected string key");
+    } // if/else
+    lexer.advance();
+    FieldMask mask = masks[top];
+    int field = 0;
+    if (mask == null) {
+      keys[top] = lexer.readKey(keyCache);
+    } else {
+      int start = lexer.scanString();
+      field = mask.find(lexer, start, lexer.pos - 1, lexer.escaped);
+      if (field >= 0) {
+        // The mask's own key stands in for the one in the input
+        keys[top] = mask.keys[field];
+      } // if
+    } // if/else
+    if (lexer.skipWhitespace() != ':') {
+      throw lexer.error("Expected ':' after key");
+    } // if
+    lexer.advance();
+    ch = lexer.skipWhitespace();
+    if (mask == null) {
+      valueMask = null;
+    } else if (field < 0) {
+      skipValue(ch);
+      return SKIPPED;
+    } else {
+      valueMask = mask.masks[field].isAll() ? null : mask.masks[field];
+    } // if/else
+    return startValue(ch);
+  } // readKey(int, int)
+
+  /**
+   * Read the brace or bracket if ch, which starts a value, is one.
+   * Returns ch.
+   */
+  int startValue(int ch) {
+    if (ch == '{' || ch == '[') {
+      lexer.advance();
+    } // if
+    return ch;
+  } // startValue(int)
+
+  /**
+   * Add value to the container at level top of the stack.  A null value
+   * (a field the mask skipped) counts as an entry but is not added.
+   */
+  void add(int top, JSONValue value) throws ParseException {
+    if (++counts[top] > maxEntries) {
+      throw lexer.error("More entries than the limit of " + maxEntries);
+    } else if (value == null) {
+      return;
+    } // if/else
+    if (objects[top]) {
+      ((JSONHash) containers[top]).set(keys[top], value);
+    } else {
+      JSONArray array = (JSONArray) containers[top];
+      if (array == null) {
+        array = primitiveArrays ? JSONPrimitiveArray.of(value) : new JSONArray();
+        containers[top] = array;
+      } // if
+      array.add(value);
+    } // if/else
+  } // add(int, JSONValue)
+
+  /**
+   * Take the container at the given level off the stack, now that it
+   * has been closed.
+   */
+  JSONValue close(int level) {
+    JSONValue container = containers[level];
+    containers[level] = null;
+    keys[level] = null;
+    masks[level] = null;
+    if (container == null) {
+      return new JSONArray();
+    } else if (container instanceof JSONPrimitiveArray) {
+      ((JSONPrimitiveArray) container).trim();
+    } // if/else
+    return container;
+  } // close(int)
+
+  /**
+   * Make room for twice as many levels on the stack.
+   */
+  void grow() {
+    int size = containers.length * 2;
+    containers = Arrays.copyOf(containers, size);
+    objects = Arrays.copyOf(objects, size);
+    counts = Arrays.copyOf(counts, size);
+    keys = Arrays.copyOf(keys, size);
+    masks = Arrays.copyOf(masks, size);
+  } // grow()
+
+  // +----------+----------------------------------------------------
+  // | Parallel |
+  // +----------+
+
+  /**
+   * Find the elements of the array whose opening bracket has been read,
+   * up to and including the closing bracket, and group them into chunks
+   * of at least chunkSize units.  Only scalars and the commas between
+   * elements are checked; objects and arrays are skipped.
+   */
+  List<Chunk> split(int chunkSize) throws ParseException, IOException {
+    List<Chunk> chunks = new ArrayList<Chunk>();
+    int ch = lexer.skipWhitespace();
+    if (ch == ']') {
+      lexer.advance();
+      return chunks;
+    } // if
+    Chunk chunk = null;
+    while (true) {
+      if (chunk == null) {
+        chunk = new Chunk();
+        chunk.start = lexer.pos;
+        chunk.line = lexer.line;
+        chunk.lineStart = lexer.lineStart;
+        chunks.add(chunk);
+      } // if
+      skipValue(ch);
+      chunk.end = lexer.pos;
+      chunk.count++;
+      if (chunk.end - chunk.start >= chunkSize) {
+        chunk = null;
+      } // if
+      ch = lexer.skipWhitespace();
+      if (ch == ']') {
+        lexer.advance();
+        return chunks;
+      } else if (ch == -1) {
+        throw lexer.error("Unterminated array");
+      } else if (ch != ',') {
+        throw lexer.error("Expected ',' or ']'");
+      } // if/else
+      lexer.advance();
+      ch = lexer.skipWhitespace();
+    } // while
+  } // split(int)
+
+  /**
+   * Skip the value that starts with ch.
+   */
+  void skipValue(int ch) throws ParseException, IOException {
+    if (ch == '{' || ch == '[') {
+      lexer.advance();
+      // Skipped containers are not built, so their depth does no harm
+      lexer.skipContainer(1, Integer.MAX_VALUE);
+    } else if (ch == '"') {
+      lexer.advance();
+      lexer.skipString();
+    } else if ((ch >= '0' && ch <= '9') || ch == '-') {
+      lexer.skipNumber();
+    } else if (ch == 't' || ch == 'f' || ch == 'n') {
+      lexer.readConstant();
+    } else if (ch == -1) {
+      throw lexer.error("Unexpected end of file");
+    } else {
+      throw lexer.error("Unexpected character: " + (char) ch);
+    } // if/else
+  } // skipValue(int)
+
+  /**
+   * Parse the elements of chunk, with a parser of its own.
+   */
+  JSONValue[] parseChunk(Chunk chunk) throws ParseException, IOException {
+    JSONLexer slice = lexer.slice(chunk.start, chunk.end);
+    slice.line = chunk.line;
+    slice.lineStart = chunk.lineStart;
+    JSONParser parser = new JSONParser(slice);
+    parser.keyCache = (keyCache == null) ? null : new JSONKeyCache(keyCache.mask + 1);
+    parser.lazyStrings = lazyStrings;
+    parser.primitiveArrays = primitiveArrays;
+    parser.maxDepth = maxDepth;
+    parser.nesting = 1;
+    parser.maxEntries = maxEntries;
+    slice.maxStringLength = lexer.maxStringLength;
+    JSONValue[] values = new JSONValue[chunk.count];
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        if (slice.skipWhitespace() != ',') {
+          throw slice.error("Expected ',' or ']'");
+        } // if
+        slice.advance();
+      } // if
+      values[i] = parser.parseKernel();
+    } // for
+    if (-1 != slice.skipWhitespace()) {
+      throw slice.error("Expected ',' or ']'");
+    } // if
+    return values;
+  } // parseChunk(Chunk)
+
+  // +---------------+-----------------------------------------------
+  // | Configuration |
+  // +---------------+
+
+  /**
+   * Cache up to size object keys, so that repeated keys share a single
+   * JSONString.  A size of 0 turns caching off, so that every key is
+   * built separately.  Call before parsing.
+   */
+  public void setKeyCacheSize(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Negative key cache size: " + size);
+    } // if
+    this.keyCache = (size == 0) ? null : new JSONKeyCache(size);
+  } // setKeyCacheSize(int)
+
+  /**
+   * Choose whether string values should be lazy.  A lazy string keeps
+   * its place in the input and only builds its String when someone asks
+   * for it, and a lazy string that is written back out unchanged is
+   * copied straight from the input.  That suits code that parses a
+   * document, looks at a few fields, and writes it out again.
+   *
+   * Lazy strings keep the whole input alive, and see any later changes
+   * to a byte array or buffer that was parsed, so they are off unless
+   * asked for.  They also only apply when the input is all in memory (a
+   * String, byte array, or buffer, or a file small enough to map at
+   * once); other parsers ignore this setting.  Building a lazy string
+   * changes nothing shared, so the strings of one tree may be read from
+   * several threads at once.
+   */
+  public void setLazyStrings(boolean lazy) {
+    this.lazyStrings = lazy;
+  } // setLazyStrings(boolean)
+
+  /**
+   * Choose whether an array that starts with an integer, a real, or a
+   * boolean should hold its elements in a primitive array (long[] for
+   * integers, long[] and byte[] for the digits and scales of reals, and
+   * a bitset for booleans) rather than as one object each.  Such arrays
+   * take a fraction of the memory, and their bulk methods, such as
+   * toLongArray and doubleStream, need not build any elements.  If an
+   * element of another kind turns up, the array quietly switches to the
+   * usual form.  They are on unless turned off.
+   */
+  public void setPrimitiveArrays(boolean primitive) {
+    this.primitiveArrays = primitive;
+  } // setPrimitiveArrays(boolean)
+
+  /**
+   * Allow objects and arrays to nest at most depth levels deep, failing
+   * with a ParseException as soon as the input goes deeper.  A depth of
+   * 0 allows only strings, numbers, and constants.  The default is
+   * DEFAULT_MAX_DEPTH.  The parser keeps its own stack, so a larger limit
+   * costs the parser nothing, but writing, comparing, or hashing a very
+   * deep value may overflow the thread's stack.
+   */
+  public void setMaxDepth(int depth) {
+    if (depth < 0) {
+      throw new IllegalArgumentException("Negative depth: " + depth);
+    } // if
+    this.maxDepth = depth;
+  } // setMaxDepth(int)
+
+  /**
+   * Allow at most length units (characters, or for byte input, bytes)
+   * in the body of a string or key, escapes included.  A longer string
+   * fails when the limit is reached, before the rest of it is read.
+   * There is no limit unless one is set.
+   */
+  public void setMaxStringLength(int length) {
+    if (length < 0) {
+      throw new IllegalArgumentException("Negative string length: " + length);
+    } // if
+    lexer.maxStringLength = length;
+  } // setMaxStringLength(int)
+
+  /**
+   * Allow at most size units (characters, or for byte input, bytes) of
+   * input.  Input that is all in memory is checked at once; other input
+   * is read no further than the limit, and fails when the parser needs
+   * more.  There is no limit unless one is set.  Call before parsing.
+   */
+  public void setMaxDocumentSize(long size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Negative document size: " + size);
+    } // if
+    lexer.maxSize = size;
+    lexer.admit(lexer.pos);
+  } // setMaxDocumentSize(long)
+
+  /**
+   * Allow at most count entries (fields, or elements) in any one object
+   * or array, failing with a ParseException as soon as one has more.
+   * Every field in the input counts, even one whose key repeats an
+   * earlier one.  There is no limit unless one is set.
+   */
+  public void setMaxEntries(int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Negative entry count: " + count);
+    } // if
+    this.maxEntries = count;
+  } // setMaxEntries(int)
+
+  // +-----------+---------------------------------------------------
+  // | Positions |
+  // +-----------+
+
+  /**
+   * Get the number of characters (or, for byte input, bytes) consumed
+   * so far.
+   */
+  public long getPosition() {
+    return lexer.position();
+  } // getPosition()
+
+  /**
+   * Get the current line.
+   */
+  public int getLine() {
+    return lexer.line();
+  } // getLine()
+
+  /**
+   * Get the current column.
+   */
+  public int getColumn() {
+    return lexer.column();
+  } // getColumn()
+
+} // class JSONParser
@@ -0,0 +1,1066 @@
+package src;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A compiled JSONPath query, such as $.orders[*].items[?(@.qty > 5)].sku.
+ * Compiling parses the expression once into a list of steps, with every
+ * key already a JSONString whose hash is computed, so the same query can
+ * be run against many documents without parsing or hashing it again.
+ *
+ * A query runs against a JSONValue tree, against a JSONStreamReader
+ * (finding matches as the input goes by, and skipping everything that
+ * cannot match without building it), or against a tree on the threads of
+ * a ForkJoinPool, which splits wildcards and filters over large arrays.
+ * All three give the same values in the same order: the order in which
+ * they appear in the document.  The one exception is an object with a
+ * duplicate key.  A tree keeps only the last value for the key, but the
+ * stream cannot know a later one is coming, so it visits every value.
+ * On {"user": {"id": 1}, "user": 5}, $.user.* gives [] against the
+ * tree and [1] against the stream.
+ *
+ * Paths start with $ and are made of these steps.
+ * <ul>
+ * <li>.name or ['name'] or ["name"]: the field called name.</li>
+ * <li>[n]: element n of an array, counting from the end if n is
+ *   negative.</li>
+ * <li>[start:end] or [start:end:step]: a slice of an array, as in
+ *   Python, except that step must be positive.</li>
+ * <li>.* or [*]: every element of an array or value of an object.</li>
+ * <li>[?(filter)]: every element or value for which filter holds.</li>
+ * <li>..name, ..*, or ..[...]: the step applied at every level inside
+ *   the value.</li>
+ * </ul>
+ *
+ * A filter compares @ (the element being tested) or $ (the root),
+ * followed by fields and indices, with other such paths or with literal
+ * numbers, strings, true, false, and null, using ==, !=, &lt;, &lt;=,
+ * &gt;, and &gt;=.  Comparisons combine with &amp;&amp;, ||, !, and
+ * parentheses, and a path on its own tests whether the value exists.
+ * Numbers compare by value and strings by their characters; any other
+ * ordering is false.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONPath {
+
+  // +-------+-------------------------------------------------------
+  // | Types |
+  // +-------+
+
+  /**
+   * One step of a path.
+   */
+  static class Step {
+    /**
+     * What the step selects: FIELD, INDEX, SLICE, WILDCARD, or FILTER.
+     */
+    byte kind;
+
+    /**
+     * Whether the step applies to everything inside the value (..).
+     */
+    boolean descendant;
+
+    /**
+     * The key, for FIELD.
+     */
+    JSONString key;
+
+    /**
+     * The index, for INDEX, or the start, for SLICE.
+     */
+    int start;
+
+    /**
+     * The end, for SLICE.
+     */
+    int end = Integer.MAX_VALUE;
+
+    /**
+     * The distance between elements, for SLICE.
+     */
+    int step = 1;
+
+    /**
+     * Whether start was given, for SLICE.
+     */
+    boolean hasStart;
+
+    /**
+     * Whether end was given, for SLICE.
+     */
+    boolean hasEnd;
+
+    /**
+     * The test, for FILTER.
+     */
+    Filter filter;
+
+    /**
+     * Build a step of the given kind.
+     */
+    Step(byte kind) {
+      this.kind = kind;
+    } // Step(byte)
+
+    /**
+     * Determine whether the step can only be decided with the whole
+     * array in hand.
+     */
+    boolean needsSize() {
+      return (this.kind == INDEX && this.start < 0)
+          || (this.kind == SLICE && (this.start < 0 || (this.hasEnd && this.end < 0)));
+    } // needsSize()
+  } // class Step
+
+  /**
+   * A filter expression, or one operand of a comparison.
+   */
+  static class Filter {
+    /**
+     * What the node is: OR, AND, NOT, a comparison, PATH, or LITERAL.
+     */
+    byte kind;
+
+    /**
+     * The operands, for OR, AND, NOT, and comparisons.
+     */
+    Filter left;
+
+    /**
+     * The second operand, for OR, AND, and comparisons.
+     */
+    Filter right;
+
+    /**
+     * The steps, for PATH.  Each is a FIELD or an INDEX.
+     */
+    Step[] path;
+
+    /**
+     * Whether a PATH starts at the root rather than at @.
+     */
+    boolean absolute;
+
+    /**
+     * The value, for LITERAL.
+     */
+    JSONValue literal;
+
+    /**
+     * Build a node of the given kind.
+     */
+    Filter(byte kind) {
+      this.kind = kind;
+    } // Filter(byte)
+
+    /**
+     * Build a node that joins two others.
+     */
+    Filter(byte kind, Filter left, Filter right) {
+      this.kind = kind;
+      this.left = left;
+      this.right = right;
+    } // Filter(byte, Filter, Filter)
+  } // class Filter
+
+  /**
+   * Runs one step over a run of elements of a large array, for
+   * evaluate(JSONValue, ForkJoinPool), splitting the run in two while it
+   * is larger than grain.  Tasks are never serialized.
+   */
+  @SuppressWarnings("serial")
+  class SelectTask extends RecursiveTask<List<JSONValue>> {
+    /**
+     * The index of the step.
+     */
+    int index;
+
+    /**
+     * The array.
+     */
+    JSONArray array;
+
+    /**
+     * The first element in the run.
+     */
+    int lo;
+
+    /**
+     * Just past the last element in the run.
+     */
+    int hi;
+
+    /**
+     * The largest run that one task handles alone.
+     */
+    int grain;
+
+    /**
+     * The root of the document.
+     */
+    JSONValue root;
+
+    /**
+     * The pool that runs us, for any splits further down.
+     */
+    ForkJoinPool pool;
+
+    /**
+     * Build a task for elements lo to hi of array.
+     */
+    SelectTask(int index, JSONArray array, int lo, int hi, int grain, JSONValue root,
+        ForkJoinPool pool) {
+      this.index = index;
+      this.array = array;
+      this.lo = lo;
+      this.hi = hi;
+      this.grain = grain;
+      this.root = root;
+      this.pool = pool;
+    } // SelectTask(int, JSONArray, int, int, int, JSONValue, ForkJoinPool)
+
+    @Override
+    protected List<JSONValue> compute() {
+      if (this.hi - this.lo <= this.grain) {
+        List<JSONValue> out = new ArrayList<JSONValue>();
+        Step step = steps[this.index];
+        for (int i = this.lo; i < this.hi; i++) {
+          JSONValue element = this.array.get(i);
+          if (step.kind == WILDCARD || test(step.filter, element, this.root)) {
+            select(this.index + 1, element, this.root, out, this.pool);
+          } // if
+        } // for
+        return out;
+      } // if
+      int mid = (this.lo + this.hi) >>> 1;
+      SelectTask left = new SelectTask(this.index, this.array, this.lo, mid, this.grain,
+          this.root, this.pool);
+      SelectTask right = new SelectTask(this.index, this.array, mid, this.hi, this.grain,
+          this.root, this.pool);
+      invokeAll(left, right);
+      List<JSONValue> out = left.join();
+      out.addAll(right.join());
+      return out;
+    } // compute()
+  } // class SelectTask
+
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * A step that selects one field of an object.
+   */
+  static final byte FIELD = 0;
+
+  /**
+   * A step that selects one element of an array.
+   */
+  static final byte INDEX = 1;
+
+  /**
+   * A step that selects a slice of an array.
+   */
+  static final byte SLICE = 2;
+
+  /**
+   * A step that selects every element or value.
+   */
+  static final byte WILDCARD = 3;
+
+  /**
+   * A step that selects the elements or values that pass a filter.
+   */
+  static final byte FILTER = 4;
+
+  /**
+   * Filter kinds.  The comparisons come first, in the order of OPERATORS.
+   */
+  static final byte EQ = 0;
+  static final byte NE = 1;
+  static final byte LE = 2;
+  static final byte GE = 3;
+  static final byte LT = 4;
+  static final byte GT = 5;
+  static final byte OR = 6;
+  static final byte AND = 7;
+  static final byte NOT = 8;
+  static final byte PATH = 9;
+  static final byte LITERAL = 10;
+
+  /**
+   * The comparison operators, longest first so that <= is not read as <.
+   */
+  static final String[] OPERATORS = {"==", "!=", "<=", ">=", "<", ">"};
+
+  /**
+   * The smallest array that evaluate(JSONValue, ForkJoinPool) splits.
+   */
+  static final int MIN_PARALLEL = 1 << 12;
+
+  /**
+   * How many tasks a split aims to make per thread, so that threads that
+   * finish early can pick up more work.
+   */
+  static final int TASKS_PER_THREAD = 8;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The expression we were compiled from.
+   */
+  String expression;
+
+  /**
+   * The steps, in order.
+   */
+  Step[] steps;
+
+  /**
+   * Whether any filter looks at the root, which a stream cannot give.
+   */
+  boolean needsRoot;
+
+  /**
+   * While compiling, our place in the expression.
+   */
+  int pos;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build a path from expression.  Use compile.
+   */
+  JSONPath(String expression) {
+    this.expression = expression;
+  } // JSONPath(String)
+
+  /**
+   * Compile expression into a path that can be evaluated any number of
+   * times, from any number of threads.
+   */
+  public static JSONPath compile(String expression) throws ParseException {
+    JSONPath path = new JSONPath(expression);
+    path.expect('$');
+    path.steps = path.steps(false);
+    if (path.pos < expression.length()) {
+      throw path.error("Unexpected character: " + expression.charAt(path.pos));
+    } // if
+    return path;
+  } // compile(String)
+
+  // +-------------------------+-------------------------------------
+  // | Standard object methods |
+  // +-------------------------+
+
+  /**
+   * Get the expression the path was compiled from.
+   */
+  public String toString() {
+    return this.expression;
+  } // toString()
+
+  // +------------+--------------------------------------------------
+  // | Evaluation |
+  // +------------+
+
+  /**
+   * Find every value in root that the path selects.
+   */
+  public List<JSONValue> evaluate(JSONValue root) {
+    List<JSONValue> out = new ArrayList<JSONValue>();
+    select(0, root, root, out, null);
+    return out;
+  } // evaluate(JSONValue)
+
+  /**
+   * Find every value in root that the path selects, on the threads of
+   * pool.  Wildcards and filters over arrays of more than a few thousand
+   * elements are split into tasks, and the results put back together in
+   * order.  Arrays read lazily (by JSON.parseLazy or JSON.readBinary) are
+   * not safe to share between threads, so they are searched on one.
+   */
+  public List<JSONValue> evaluate(JSONValue root, ForkJoinPool pool) {
+    List<JSONValue> out = new ArrayList<JSONValue>();
+    select(0, root, root, out, pool);
+    return out;
+  } // evaluate(JSONValue, ForkJoinPool)
+
+  /**
+   * Find every value that the path selects in the next value of reader,
+   * and leave the reader at the end of that value.  Only the values that
+   * match, and the elements that a filter tests, are built; the reader
+   * skips over everything else.  A path whose filters look at $ needs the
+   * whole tree, so it is read first.  The search recurses once per level
+   * of nesting, so it relies on the reader's depth limit to fail input
+   * nested too deeply with a ParseException.
+   */
+  public List<JSONValue> evaluate(JSONStreamReader reader)
+      throws ParseException, IOException {
+    reader.next();
+    if (this.needsRoot) {
+      return evaluate(reader.readCurrent());
+    } // if
+    List<JSONValue> out = new ArrayList<JSONValue>();
+    stream(0, reader, out);
+    return out;
+  } // evaluate(JSONStreamReader)
+
+  // +-------+-------------------------------------------------------
+  // | Trees |
+  // +-------+
+
+  /**
+   * Add to out what steps index and on select from node.
+   */
+  void select(int index, JSONValue node, JSONValue root, List<JSONValue> out,
+      ForkJoinPool pool) {
+    if (index == this.steps.length) {
+      out.add(node);
+      return;
+    } // if
+    Step step = this.steps[index];
+    if (step.descendant) {
+      descend(index, node, root, out);
+      return;
+    } // if
+    if (node instanceof JSONHash) {
+      JSONHash hash = (JSONHash) node;
+      if (step.kind == FIELD) {
+        JSONValue value = hash.get(step.key);
+        if (value != null) {
+          select(index + 1, value, root, out, pool);
+        } // if
+      } else if (step.kind == WILDCARD || step.kind == FILTER) {
+        for (int i = 0; i < hash.size(); i++) {
+          JSONValue value = hash.valueAt(i);
+          if (step.kind == WILDCARD || test(step.filter, value, root)) {
+            select(index + 1, value, root, out, pool);
+          } // if
+        } // for
+      } // if/else
+    } else if (node instanceof JSONArray) {
+      JSONArray array = (JSONArray) node;
+      int size = array.size();
+      if (step.kind == INDEX) {
+        int i = (step.start < 0) ? size + step.start : step.start;
+        if (i >= 0 && i < size) {
+          select(index + 1, array.get(i), root, out, pool);
+        } // if
+      } else if (step.kind == SLICE) {
+        for (int i = sliceStart(step, size); i < sliceEnd(step, size); i += step.step) {
+          select(index + 1, array.get(i), root, out, pool);
+        } // for
+      } else if (step.kind == WILDCARD || step.kind == FILTER) {
+        if (pool != null && size >= MIN_PARALLEL && !(array instanceof JSONLazyArray)
+            && !(array instanceof JSONBinaryArray)) {
+          int grain = Math.max(MIN_PARALLEL / 4,
+              size / (pool.getParallelism() * TASKS_PER_THREAD));
+          SelectTask task = new SelectTask(index, array, 0, size, grain, root, pool);
+          // Already on one of the pool's threads, we can run the task here
+          out.addAll((ForkJoinTask.getPool() == pool) ? task.invoke() : pool.invoke(task));
+          return;
+        } // if
+        for (int i = 0; i < size; i++) {
+          JSONValue element = array.get(i);
+          if (step.kind == WILDCARD || test(step.filter, element, root)) {
+            select(index + 1, element, root, out, pool);
+          } // if
+        } // for
+      } // if/else
+    } // if/else
+  } // select(int, JSONValue, JSONValue, List<JSONValue>, ForkJoinPool)
+
+  /**
+   * Apply the descendant step index to everything inside node, in the
+   * order the values appear in the document.
+   */
+  void descend(int index, JSONValue node, JSONValue root, List<JSONValue> out) {
+    Step step = this.steps[index];
+    if (node instanceof JSONHash) {
+      JSONHash hash = (JSONHash) node;
+      for (int i = 0; i < hash.size(); i++) {
+        JSONValue value = hash.valueAt(i);
+        if (matches(step, hash.keyAt(i), -1, 0, value, root)) {
+          select(index + 1, value, root, out, null);
+        } // if
+        descend(index, value, root, out);
+      } // for
+    } else if (node instanceof JSONArray) {
+      JSONArray array = (JSONArray) node;
+      int size = array.size();
+      for (int i = 0; i < size; i++) {
+        JSONValue element = array.get(i);
+        if (matches(step, null, i, size, element, root)) {
+          select(index + 1, element, root, out, null);
+        } // if
+        descend(index, element, root, out);
+      } // for
+    } // if/else
+  } // descend(int, JSONValue, JSONValue, List<JSONValue>)
+
+  // +---------+-----------------------------------------------------
+  // | Streams |
+  // +---------+
+
+  /**
+   * Add to out what steps index and on select from the value that the
+   * reader's current event starts, and leave the reader at its end.
+   */
+  void stream(int index, JSONStreamReader reader, List<JSONValue> out)
+      throws ParseException, IOException {
+    if (index == this.steps.length) {
+      out.add(reader.readCurrent());
+      return;
+    } // if
+    Step step = this.steps[index];
+    JSONStreamReader.Event event = reader.getEvent();
+    if (event == JSONStreamReader.Event.START_OBJECT) {
+      if (!step.descendant && (step.kind == INDEX || step.kind == SLICE)) {
+        reader.skipChildren();
+        return;
+      } // if
+      while (reader.next() != JSONStreamReader.Event.END_OBJECT) {
+        JSONString key = reader.key;
+        reader.next();
+        child(index, step, reader, key, -1, out);
+      } // while
+    } else if (event == JSONStreamReader.Event.START_ARRAY) {
+      if (step.needsSize()) {
+        // Only the whole array can say where its end is
+        JSONValue array = reader.readCurrent();
+        if (step.descendant) {
+          descend(index, array, null, out);
+        } else {
+          select(index, array, null, out, null);
+        } // if/else
+        return;
+      } // if
+      for (int i = 0; reader.next() != JSONStreamReader.Event.END_ARRAY; i++) {
+        child(index, step, reader, null, i, out);
+      } // for
+    } // if/else
+  } // stream(int, JSONStreamReader, List<JSONValue>)
+
+  /**
+   * Apply step index to the child (with the given key or at index i) that
+   * the reader's current event starts, and leave the reader at its end.
+   */
+  void child(int index, Step step, JSONStreamReader reader, JSONString key, int i,
+      List<JSONValue> out) throws ParseException, IOException {
+    if (step.kind == FILTER) {
+      // Testing the child needs all of it
+      JSONValue value = reader.readCurrent();
+      if (test(step.filter, value, null)) {
+        select(index + 1, value, null, out, null);
+      } // if
+      if (step.descendant) {
+        descend(index, value, null, out);
+      } // if
+    } else if (!matches(step, key, i, Integer.MAX_VALUE, null, null)) {
+      if (step.descendant) {
+        stream(index, reader, out);
+      } else {
+        reader.skipChildren();
+      } // if/else
+    } else if (step.descendant) {
+      // Both the rest of the path and the descent look inside the child
+      JSONValue value = reader.readCurrent();
+      select(index + 1, value, null, out, null);
+      descend(index, value, null, out);
+    } else {
+      stream(index + 1, reader, out);
+    } // if/else
+  } // child(int, Step, JSONStreamReader, JSONString, int, List<JSONValue>)
+
+  // +---------+-----------------------------------------------------
+  // | Filters |
+  // +---------+
+
+  /**
+   * Determine whether step selects the child with the given key (for an
+   * object) or at index i of an array of the given size.
+   */
+  static boolean matches(Step step, JSONString key, int i, int size, JSONValue value,
+      JSONValue root) {
+    switch (step.kind) {
+      case FIELD:
+        // Keys from the reader come from its key cache, so their hashes
+        // are usually already known, and unequal hashes are quick to rule out
+        return key != null && key.hashCode() == step.key.hashCode() && key.equals(step.key);
+      case INDEX:
+        return key == null && i == ((step.start < 0) ? size + step.start : step.start);
+      case SLICE:
+        if (key == null) {
+          int start = sliceStart(step, size);
+          return i >= start && i < sliceEnd(step, size) && (i - start) % step.step == 0;
+        } // if
+        return false;
+      case WILDCARD:
+        return true;
+      default:
+        return test(step.filter, value, root);
+    } // switch
+  } // matches(Step, JSONString, int, int, JSONValue, JSONValue)
+
+  /**
+   * Determine whether filter holds for current.
+   */
+  static boolean test(Filter filter, JSONValue current, JSONValue root) {
+    switch (filter.kind) {
+      case OR:
+        return test(filter.left, current, root) || test(filter.right, current, root);
+      case AND:
+        return test(filter.left, current, root) && test(filter.right, current, root);
+      case NOT:
+        return !test(filter.left, current, root);
+      case PATH:
+        return operand(filter, current, root) != null;
+      case EQ:
+        return same(operand(filter.left, current, root), operand(filter.right, current, root));
+      case NE:
+        return !same(operand(filter.left, current, root), operand(filter.right, current, root));
+      default:
+        JSONValue left = operand(filter.left, current, root);
+        JSONValue right = operand(filter.right, current, root);
+        int order;
+        if (isNumber(left) && isNumber(right)) {
+          order = compareNumbers(left, right);
+        } else if (left instanceof JSONString && right instanceof JSONString) {
+          order = ((JSONString) left).getValue().compareTo(((JSONString) right).getValue());
+        } else {
+          return false;
+        } // if/else
+        switch (filter.kind) {
+          case LT:
+            return order < 0;
+          case LE:
+            return order <= 0;
+          case GT:
+            return order > 0;
+          default:
+            return order >= 0;
+        } // switch
+    } // switch
+  } // test(Filter, JSONValue, JSONValue)
+
+  /**
+   * Get the value of an operand, or null if its path finds nothing.
+   */
+  static JSONValue operand(Filter operand, JSONValue current, JSONValue root) {
+    if (operand.kind == LITERAL) {
+      return operand.literal;
+    } // if
+    JSONValue value = operand.absolute ? root : current;
+    for (Step step : operand.path) {
+      if (step.kind == FIELD && value instanceof JSONHash) {
+        value = ((JSONHash) value).get(step.key);
+      } else if (step.kind == INDEX && value instanceof JSONArray) {
+        JSONArray array = (JSONArray) value;
+        int i = (step.start < 0) ? array.size() + step.start : step.start;
+        value = (i >= 0 && i < array.size()) ? array.get(i) : null;
+      } else {
+        return null;
+      } // if/else
+    } // for
+    return value;
+  } // operand(Filter, JSONValue, JSONValue)
+
+  /**
+   * Determine whether two operands are equal.  Numbers are equal if their
+   * values are, and two missing operands are equal to each other.
+   */
+  static boolean same(JSONValue left, JSONValue right) {
+    if (left == null || right == null) {
+      return left == right;
+    } // if
+    if (isNumber(left) && isNumber(right)) {
+      return compareNumbers(left, right) == 0;
+    } // if
+    return left.equals(right);
+  } // same(JSONValue, JSONValue)
+
+  /**
+   * Determine whether value is a number.
+   */
+  static boolean isNumber(JSONValue value) {
+    return value instanceof JSONInteger || value instanceof JSONReal;
+  } // isNumber(JSONValue)
+
+  /**
+   * Compare two numbers by value.  Integers that fit in longs compare
+   * without building anything.
+   */
+  static int compareNumbers(JSONValue left, JSONValue right) {
+    if (left instanceof JSONInteger && right instanceof JSONInteger
+        && ((JSONInteger) left).isLong() && ((JSONInteger) right).isLong()) {
+      return Long.compare(((JSONInteger) left).longValue(), ((JSONInteger) right).longValue());
+    } // if
+    return decimal(left).compareTo(decimal(right));
+  } // compareNumbers(JSONValue, JSONValue)
+
+  /**
+   * Get a number as a BigDecimal.
+   */
+  static BigDecimal decimal(JSONValue number) {
+    if (number instanceof JSONInteger) {
+      return new BigDecimal(((JSONInteger) number).getValue());
+    } // if
+    return ((JSONReal) number).getValue();
+  } // decimal(JSONValue)
+
+  /**
+   * Find where a slice starts in an array of the given size.
+   */
+  static int sliceStart(Step step, int size) {
+    int start = (step.start < 0) ? Math.max(0, size + step.start) : step.start;
+    return Math.min(start, size);
+  } // sliceStart(Step, int)
+
+  /**
+   * Find where a slice ends in an array of the given size.
+   */
+  static int sliceEnd(Step step, int size) {
+    int end = (step.end < 0) ? Math.max(0, size + step.end) : step.end;
+    return Math.min(end, size);
+  } // sliceEnd(Step, int)
+
+  // +-----------+---------------------------------------------------
+  // | Compiling |
+  // +-----------+
+
+  /**
+   * Read steps until there are no more.  Steps in a filter may only be
+   * fields and indices.
+   */
+  Step[] steps(boolean inFilter) throws ParseException {
+    List<Step> steps = new ArrayList<Step>();
+    while (this.pos < this.expression.length()) {
+      int start = this.pos;
+      char ch = this.expression.charAt(this.pos);
+      Step step;
+      if (ch == '.') {
+        ++this.pos;
+        boolean descendant = peek() == '.';
+        if (descendant) {
+          ++this.pos;
+        } // if
+        if (peek() == '*') {
+          ++this.pos;
+          step = new Step(WILDCARD);
+        } else if (descendant && peek() == '[') {
+          step = bracket();
+        } else {
+          step = new Step(FIELD);
+          step.key = key(name());
+        } // if/else
+        step.descendant = descendant;
+      } else if (ch == '[') {
+        step = bracket();
+      } else {
+        break;
+      } // if/else
+      if (inFilter && (step.descendant || (step.kind != FIELD && step.kind != INDEX))) {
+        this.pos = start;
+        throw error("Expected a field or index in a filter path");
+      } // if
+      steps.add(step);
+    } // while
+    return steps.toArray(new Step[0]);
+  } // steps(boolean)
+
+  /**
+   * Read a step in brackets.
+   */
+  Step bracket() throws ParseException {
+    expect('[');
+    skipSpaces();
+    Step step;
+    char ch = peek();
+    if (ch == '*') {
+      ++this.pos;
+      step = new Step(WILDCARD);
+    } else if (ch == '?') {
+      ++this.pos;
+      step = new Step(FILTER);
+      step.filter = or();
+    } else if (ch == '\'' || ch == '"') {
+      step = new Step(FIELD);
+      step.key = key(quoted());
+    } else {
+      step = new Step(INDEX);
+      if (peek() != ':') {
+        step.start = integer();
+        step.hasStart = true;
+      } // if
+      skipSpaces();
+      if (peek() == ':') {
+        step.kind = SLICE;
+        ++this.pos;
+        skipSpaces();
+        if (peek() == '-' || isDigit(peek())) {
+          step.end = integer();
+          step.hasEnd = true;
+          skipSpaces();
+        } // if
+        if (peek() == ':') {
+          ++this.pos;
+          skipSpaces();
+          if (peek() == '-' || isDigit(peek())) {
+            int at = this.pos;
+            step.step = integer();
+            if (step.step <= 0) {
+              this.pos = at;
+              throw error("Expected a positive step");
+            } // if
+          } // if
+        } // if
+      } else if (!step.hasStart) {
+        throw error("Expected '*', '?', a name, or an index");
+      } // if/else
+    } // if/else
+    skipSpaces();
+    expect(']');
+    return step;
+  } // bracket()
+
+  /**
+   * Read a filter: terms joined by ||.
+   */
+  Filter or() throws ParseException {
+    Filter filter = and();
+    while (skipSpaces() && this.expression.startsWith("||", this.pos)) {
+      this.pos += 2;
+      filter = new Filter(OR, filter, and());
+    } // while
+    return filter;
+  } // or()
+
+  /**
+   * Read terms joined by &&.
+   */
+  Filter and() throws ParseException {
+    Filter filter = unary();
+    while (skipSpaces() && this.expression.startsWith("&&", this.pos)) {
+      this.pos += 2;
+      filter = new Filter(AND, filter, unary());
+    } // while
+    return filter;
+  } // and()
+
+  /**
+   * Read a negation, a filter in parentheses, or a comparison.
+   */
+  Filter unary() throws ParseException {
+    skipSpaces();
+    char ch = peek();
+    if (ch == '!' && !this.expression.startsWith("!=", this.pos)) {
+      ++this.pos;
+      return new Filter(NOT, unary(), null);
+    } else if (ch == '(') {
+      ++this.pos;
+      Filter filter = or();
+      skipSpaces();
+      expect(')');
+      return filter;
+    } // if/else
+    int start = this.pos;
+    Filter left = operand();
+    skipSpaces();
+    for (byte op = EQ; op <= GT; op++) {
+      if (this.expression.startsWith(OPERATORS[op], this.pos)) {
+        this.pos += OPERATORS[op].length();
+        skipSpaces();
+        return new Filter(op, left, operand());
+      } // if
+    } // for
+    if (left.kind != PATH) {
+      this.pos = start;
+      throw error("Expected a path before a filter with no comparison");
+    } // if
+    return left;
+  } // unary()
+
+  /**
+   * Read a path or a literal.
+   */
+  Filter operand() throws ParseException {
+    char ch = peek();
+    if (ch == '@' || ch == '$') {
+      ++this.pos;
+      Filter filter = new Filter(PATH);
+      filter.absolute = (ch == '$');
+      filter.path = steps(true);
+      this.needsRoot |= filter.absolute;
+      return filter;
+    } // if
+    Filter filter = new Filter(LITERAL);
+    if (ch == '\'' || ch == '"') {
+      filter.literal = new JSONString(quoted());
+    } else if (ch == '-' || isDigit(ch)) {
+      filter.literal = number();
+    } else if (this.expression.startsWith("true", this.pos)) {
+      this.pos += 4;
+      filter.literal = JSONConstant.TRUE;
+    } else if (this.expression.startsWith("false", this.pos)) {
+      this.pos += 5;
+      filter.literal = JSONConstant.FALSE;
+    } else if (this.expression.startsWith("null", this.pos)) {
+      this.pos += 4;
+      filter.literal = JSONConstant.NULL;
+    } else {
+      throw error("Expected a path or a value");
+    } // if/else
+    return filter;
+  } // operand()
+
+  /**
+   * Read a number literal.
+   */
+  JSONValue number() throws ParseException {
+    int start = this.pos;
+    boolean real = false;
+    while (this.pos < this.expression.length()) {
+      char ch = this.expression.charAt(this.pos);
+      if (ch == '.' || ch == 'e' || ch == 'E') {
+        real = true;
+      } else if (!isDigit(ch) && ch != '-' && ch != '+') {
+        break;
+      } // if/else
+      ++this.pos;
+    } // while
+    String text = this.expression.substring(start, this.pos);
+    try {
+      return real ? new JSONReal(text) : new JSONInteger(text);
+    } catch (NumberFormatException e) {
+      this.pos = start;
+      throw error("Invalid number: " + text);
+    } // try/catch
+  } // number()
+
+  /**
+   * Read a whole number, such as an index.
+   */
+  int integer() throws ParseException {
+    int start = this.pos;
+    if (peek() == '-') {
+      ++this.pos;
+    } // if
+    while (isDigit(peek())) {
+      ++this.pos;
+    } // while
+    try {
+      return Integer.parseInt(this.expression.substring(start, this.pos));
+    } catch (NumberFormatException e) {
+      this.pos = start;
+      throw error("Expected an index");
+    } // try/catch
+  } // integer()
+
+  /**
+   * Read a name after a dot.
+   */
+  String name() throws ParseException {
+    int start = this.pos;
+    while (this.pos < this.expression.length()) {
+      char ch = this.expression.charAt(this.pos);
+      if (!Character.isLetterOrDigit(ch) && ch != '_' && ch != '-') {
+        break;
+      } // if
+      ++this.pos;
+    } // while
+    if (start == this.pos) {
+      throw error("Expected a name");
+    } // if
+    return this.expression.substring(start, this.pos);
+  } // name()
+
+  /**
+   * Read a string in single or double quotes, in which a backslash
+   * escapes the next character.
+   */
+  String quoted() throws ParseException {
+    int start = this.pos;
+    char quote = this.expression.charAt(this.pos++);
+    StringBuilder builder = new StringBuilder();
+    while (this.pos < this.expression.length()) {
+      char ch = this.expression.charAt(this.pos++);
+      if (ch == quote) {
+        return builder.toString();
+      } else if (ch == '\\' && this.pos < this.expression.length()) {
+        ch = this.expression.charAt(this.pos++);
+      } // if/else
+      builder.append(ch);
+    } // while
+    this.pos = start;
+    throw error("Unterminated string");
+  } // quoted()
+
+  /**
+   * Build a key, computing its hash now rather than on every lookup.
+   */
+  static JSONString key(String name) {
+    JSONString key = new JSONString(name);
+    key.hashCode();
+    return key;
+  } // key(String)
+
+  /**
+   * Read ch, or complain.
+   */
+  void expect(char ch) throws ParseException {
+    if (peek() != ch) {
+      throw error("Expected '" + ch + "'");
+    } // if
+    ++this.pos;
+  } // expect(char)
+
+  /**
+   * Look at the next character, or 0 at the end.
+   */
+  char peek() {
+    return (this.pos < this.expression.length()) ? this.expression.charAt(this.pos) : 0;
+  } // peek()
+
+  /**
+   * Skip spaces.  Always true, so that it can start a condition.
+   */
+  boolean skipSpaces() {
+    while (this.pos < this.expression.length()
+        && Character.isWhitespace(this.expression.charAt(this.pos))) {
+      ++this.pos;
+    } // while
+    return true;
+  } // skipSpaces()
+
+  /**
+   * Determine whether ch is a decimal digit.
+   */
+  static boolean isDigit(char ch) {
+    return ch >= '0' && ch <= '9';
+  } // isDigit(char)
+
+  /**
+   * Build an exception for a problem at the current position.
+   */
+  ParseException error(String msg) {
+    return new ParseException(msg + " at position " + this.pos + " of " + this.expression,
+        this.pos);
+  } // error(String)
+
+} // class JSONPath
@@ -0,0 +1,159 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * A JSON array whose elements are all of one primitive kind, held in a
+ * primitive array rather than as one object per element.  The parser
+ * builds one whenever an array starts with an integer, a real, or a
+ * boolean.  size, get, set, and the bulk accessors (toLongArray,
+ * longStream, and so on) work straight from the primitive array, and get
+ * builds each element as it is asked for.  Adding or setting an element
+ * of another kind, or anything that needs the whole list (getValue,
+ * iterator), first builds every element, after which this acts just
+ * like any other JSONArray.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+abstract class JSONPrimitiveArray extends JSONArray {
+
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * Room for this many elements to start with.
+   */
+  static final int INITIAL_CAPACITY = 8;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The number of elements.
+   */
+  int count;
+
+  /**
+   * Whether the elements are still in the primitive array.
+   */
+  boolean primitive = true;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build an array suited to a first element of first, or a plain
+   * JSONArray if first is not a primitive.
+   */
+  static JSONArray of(JSONValue first) {
+    if (first instanceof JSONInteger && ((JSONInteger) first).isLong()) {
+      return new JSONLongArray();
+    } else if (first instanceof JSONReal && JSONRealArray.fits((JSONReal) first)) {
+      return new JSONRealArray();
+    } else if (first == JSONConstant.TRUE || first == JSONConstant.FALSE) {
+      return new JSONBooleanArray();
+    } // if/else
+    return new JSONArray();
+  } // of(JSONValue)
+
+  // +---------------+-----------------------------------------------
+  // | Array methods |
+  // +---------------+
+
+  @Override
+  public ArrayList<JSONValue> getValue() {
+    inflate();
+    return super.getValue();
+  } // getValue()
+
+  @Override
+  public void add(JSONValue value) {
+    if (this.primitive && store(this.count, value)) {
+      ++this.count;
+      return;
+    } // if
+    inflate();
+    super.add(value);
+  } // add(JSONValue)
+
+  @Override
+  public JSONValue get(int index) throws IndexOutOfBoundsException {
+    if (!this.primitive) {
+      return super.get(index);
+    } // if
+    Objects.checkIndex(index, this.count);
+    return box(index);
+  } // get(int)
+
+  @Override
+  public Iterator<JSONValue> iterator() {
+    inflate();
+    return super.iterator();
+  } // iterator()
+
+  @Override
+  public void set(int index, JSONValue value) throws IndexOutOfBoundsException {
+    if (this.primitive) {
+      Objects.checkIndex(index, this.count);
+      if (store(index, value)) {
+        return;
+      } // if
+    } // if
+    inflate();
+    super.set(index, value);
+  } // set(int, JSONValue)
+
+  @Override
+  public int size() {
+    return this.primitive ? this.count : super.size();
+  } // size()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Build element i.
+   */
+  abstract JSONValue box(int i);
+
+  /**
+   * Put value at index i, growing the primitive array if i is just past
+   * the end.  Returns false, changing nothing, if value is of the wrong
+   * kind.
+   */
+  abstract boolean store(int i, JSONValue value);
+
+  /**
+   * Shrink the primitive array to fit the elements.
+   */
+  abstract void trim();
+
+  /**
+   * Let go of the primitive array.
+   */
+  abstract void release();
+
+  /**
+   * Build every element, and stop being primitive.
+   */
+  void inflate() {
+    if (!this.primitive) {
+      return;
+    } // if
+    this.values.ensureCapacity(this.count);
+    for (int i = 0; i < this.count; i++) {
+      this.values.add(box(i));
+    } // for
+    this.primitive = false;
+    release();
+  } // inflate()
+
+} // class JSONPrimitiveArray
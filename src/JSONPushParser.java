@@ -0,0 +1,695 @@
+package src;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+import src.JSONStreamReader.Event;
+
+/**
+ * A push parser for UTF-8 encoded JSON.  Where JSONParser and
+ * JSONStreamReader pull input from a stream and wait when it runs dry,
+ * this parser is handed input a chunk at a time with feed, and never
+ * waits: when it reaches the end of what it has been fed, nextEvent
+ * returns NEED_INPUT, and the caller can come back once more input has
+ * arrived.  One thread can thus look after many documents at once, say
+ * the bodies of requests arriving on a selector.
+ *
+ * The parser keeps only the input it has not yet consumed, which is at
+ * most one partial token plus the last chunk, and one entry per level
+ * of nesting.  A token split across chunks (even in the middle of a
+ * UTF-8 sequence or an escape) is picked up where it left off.
+ *
+ * Callers either take events one at a time with nextEvent, much as
+ * with JSONStreamReader, or let result build the whole value.  After a
+ * ParseException the parser cannot go on.
+ *
+ * Input from untrusted sources can be held to limits on its depth, its
+ * size, and the length of its strings (setMaxDepth, setMaxDocumentSize,
+ * and setMaxStringLength), as with JSONParser.  Depth is limited to
+ * JSONParser.DEFAULT_MAX_DEPTH unless set otherwise.  Input that breaks
+ * a limit fails with a ParseException at the next event, and the parser
+ * holds no more of it than the limit allows.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONPushParser {
+
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * Just inside an array, expecting a value or the close.
+   */
+  static final byte ARRAY_START = 0;
+
+  /**
+   * After a value in an array, expecting a comma or the close.
+   */
+  static final byte ARRAY_NEXT = 1;
+
+  /**
+   * After a comma in an array, expecting a value.
+   */
+  static final byte ARRAY_VALUE = 2;
+
+  /**
+   * Just inside an object, expecting a field name or the close.
+   */
+  static final byte OBJECT_START = 3;
+
+  /**
+   * After a field name, expecting a colon.
+   */
+  static final byte OBJECT_COLON = 4;
+
+  /**
+   * After a colon, expecting a value.
+   */
+  static final byte OBJECT_VALUE = 5;
+
+  /**
+   * After a value in an object, expecting a comma or the close.
+   */
+  static final byte OBJECT_NEXT = 6;
+
+  /**
+   * After a comma in an object, expecting a field name.
+   */
+  static final byte OBJECT_KEY = 7;
+
+  /**
+   * The initial size of the buffer of unconsumed input.
+   */
+  static final int INITIAL_BUFFER_SIZE = 4096;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The input fed so far and not yet dropped.
+   */
+  byte[] data = new byte[INITIAL_BUFFER_SIZE];
+
+  /**
+   * How much of data holds input.
+   */
+  int length;
+
+  /**
+   * The lexer over data.  We build a new one whenever data changes.
+   */
+  JSONByteLexer lexer;
+
+  /**
+   * Whether endOfInput has been called.
+   */
+  boolean ended;
+
+  /**
+   * Whether we have been fed more than maxSize bytes, and so have cut the
+   * input off there.
+   */
+  boolean oversize;
+
+  /**
+   * How deeply objects and arrays may nest.
+   */
+  int maxDepth = JSONParser.DEFAULT_MAX_DEPTH;
+
+  /**
+   * The most bytes a string body may hold.
+   */
+  int maxStringLength = Integer.MAX_VALUE;
+
+  /**
+   * The most bytes of input we accept.
+   */
+  long maxSize = Long.MAX_VALUE;
+
+  /**
+   * The index in data up to which the token at tokenStart has been
+   * checked for completeness.
+   */
+  int scanned;
+
+  /**
+   * The index in data of the token we last checked.
+   */
+  int tokenStart = -1;
+
+  /**
+   * One state per open container, innermost last.
+   */
+  byte[] stack = new byte[16];
+
+  /**
+   * How many containers are open.
+   */
+  int depth;
+
+  /**
+   * Whether we have read the top-level value.
+   */
+  boolean done;
+
+  /**
+   * The current field name or string value.
+   */
+  JSONString string;
+
+  /**
+   * The current number.
+   */
+  JSONValue number;
+
+  /**
+   * Object keys we have already built.
+   */
+  JSONKeyCache keyCache = new JSONKeyCache(JSONKeyCache.DEFAULT_SIZE);
+
+  /**
+   * Whether the caller has taken events with nextEvent.
+   */
+  boolean pulled;
+
+  /**
+   * Whether result has started building.
+   */
+  boolean building;
+
+  /**
+   * The containers result is building, innermost last.
+   */
+  JSONValue[] open = new JSONValue[16];
+
+  /**
+   * The key of the pair each open object is waiting for a value for.
+   */
+  JSONString[] keys = new JSONString[16];
+
+  /**
+   * How many containers result is building.
+   */
+  int openCount;
+
+  /**
+   * The value result built, once finished.
+   */
+  JSONValue root;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build a parser that has been fed nothing yet.
+   */
+  public JSONPushParser() {
+    this.lexer = window(0, 1, 0);
+  } // JSONPushParser()
+
+  // +-------+-------------------------------------------------------
+  // | Input |
+  // +-------+
+
+  /**
+   * Add the remaining bytes of chunk to the input.  The bytes are
+   * copied, so the caller may reuse chunk once this returns.
+   */
+  public void feed(ByteBuffer chunk) {
+    if (this.ended) {
+      throw new IllegalStateException("Input has already ended");
+    } // if
+    int keep = this.lexer.pos;
+    int kept = this.length - keep;
+    int count = chunk.remaining();
+    long allowed = this.maxSize - (this.lexer.position() + kept);
+    if (count > allowed) {
+      // Keep what fits; the next event reports the rest
+      count = (int) Math.max(0, allowed);
+      this.oversize = true;
+    } // if
+    int needed = kept + count;
+    if (needed > this.data.length) {
+      byte[] bigger = new byte[Math.max(needed, this.data.length * 2)];
+      System.arraycopy(this.data, keep, bigger, 0, kept);
+      this.data = bigger;
+    } else if (keep > 0) {
+      System.arraycopy(this.data, keep, this.data, 0, kept);
+    } // if/else
+    chunk.get(this.data, kept, count);
+    chunk.position(chunk.limit());
+    this.length = needed;
+    this.scanned -= keep;
+    this.tokenStart -= keep;
+    this.lexer = window(this.lexer.position(), this.lexer.line, this.lexer.lineStart);
+  } // feed(ByteBuffer)
+
+  /**
+   * Note that there is no more input.
+   */
+  public void endOfInput() {
+    this.ended = true;
+  } // endOfInput()
+
+  // +--------+------------------------------------------------------
+  // | Limits |
+  // +--------+
+
+  /**
+   * Allow objects and arrays to nest at most depth levels deep, failing
+   * with a ParseException as soon as the input goes deeper.  A depth of
+   * 0 allows only strings, numbers, and constants.  The default is
+   * JSONParser.DEFAULT_MAX_DEPTH.
+   */
+  public void setMaxDepth(int depth) {
+    if (depth < 0) {
+      throw new IllegalArgumentException("Negative depth: " + depth);
+    } // if
+    this.maxDepth = depth;
+  } // setMaxDepth(int)
+
+  /**
+   * Allow at most length bytes in the body of a string or key, escapes
+   * included.  A longer string fails as soon as that many bytes of it
+   * have arrived, without waiting for the rest.  There is no limit
+   * unless one is set.
+   */
+  public void setMaxStringLength(int length) {
+    if (length < 0) {
+      throw new IllegalArgumentException("Negative string length: " + length);
+    } // if
+    this.maxStringLength = length;
+    this.lexer.maxStringLength = length;
+  } // setMaxStringLength(int)
+
+  /**
+   * Allow at most size bytes of input.  Bytes fed past the limit are
+   * dropped, and the next event fails.  There is no limit unless one is
+   * set.  Call before feeding.
+   */
+  public void setMaxDocumentSize(long size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Negative document size: " + size);
+    } // if
+    this.maxSize = size;
+    this.lexer.maxSize = size;
+  } // setMaxDocumentSize(long)
+
+  // +--------+------------------------------------------------------
+  // | Events |
+  // +--------+
+
+  /**
+   * Move to the next event and return it, or return NEED_INPUT if there
+   * is not yet enough input to tell what it is.
+   */
+  public Event nextEvent() throws ParseException {
+    if (this.building) {
+      throw new IllegalStateException("Cannot take events while result is building");
+    } // if
+    this.pulled = true;
+    return step();
+  } // nextEvent()
+
+  /**
+   * Get the field name (after FIELD_NAME) or string (after VALUE_STRING).
+   */
+  public String getString() {
+    if (this.string == null) {
+      throw new IllegalStateException("No string here");
+    } // if
+    return this.string.getValue();
+  } // getString()
+
+  /**
+   * Get the number (after VALUE_NUMBER), as a JSONInteger or JSONReal.
+   */
+  public JSONValue getNumber() {
+    if (this.number == null) {
+      throw new IllegalStateException("No number here");
+    } // if
+    return this.number;
+  } // getNumber()
+
+  /**
+   * Get the current nesting depth: the number of open objects and arrays.
+   */
+  public int getDepth() {
+    return this.depth;
+  } // getDepth()
+
+  /**
+   * Build the value from all the input so far.  Returns the value once
+   * the input has ended and the whole value has been read, and null if
+   * more input is needed first.  Call result in place of nextEvent, not
+   * after it.
+   */
+  public JSONValue result() throws ParseException {
+    if (this.pulled) {
+      throw new IllegalStateException("Cannot build a result after taking events");
+    } // if
+    this.building = true;
+    Event event;
+    while ((event = step()) != Event.NEED_INPUT) {
+      if (event == Event.END_DOCUMENT) {
+        return this.root;
+      } // if
+      build(event);
+    } // while
+    return null;
+  } // result()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Build a lexer over the input in data, whose first byte is at offset
+   * base in the whole input.
+   */
+  JSONByteLexer window(long base, int line, long lineStart) {
+    JSONByteLexer window = new JSONByteLexer(ByteBuffer.wrap(this.data, 0, this.length));
+    window.base = base;
+    window.line = line;
+    window.lineStart = lineStart;
+    // The bytes move on the next feed, so strings must not point at them
+    window.whole = false;
+    window.maxStringLength = this.maxStringLength;
+    window.maxSize = this.maxSize;
+    window.oversize = this.oversize;
+    return window;
+  } // window(long, int, long)
+
+  /**
+   * Move to the next event.
+   */
+  Event step() throws ParseException {
+    this.string = null;
+    this.number = null;
+    try {
+      while (true) {
+        int ch = this.lexer.skipWhitespace();
+        if (ch == -1 && !this.ended && !this.oversize) {
+          return Event.NEED_INPUT;
+        } // if
+        if (this.depth == 0) {
+          if (this.done) {
+            if (ch != -1 || this.oversize) {
+              throw this.lexer.error("Characters remain at end");
+            } // if
+            return Event.END_DOCUMENT;
+          } // if
+          return value(ch);
+        } // if
+        int level = this.depth - 1;
+        switch (this.stack[level]) {
+          case ARRAY_START:
+          case ARRAY_VALUE:
+            if (ch == ']' && this.stack[level] == ARRAY_START) {
+              return close(Event.END_ARRAY);
+            } // if
+            Event element = value(ch);
+            if (element != Event.NEED_INPUT) {
+              this.stack[level] = ARRAY_NEXT;
+            } // if
+            return element;
+          case ARRAY_NEXT:
+            if (ch == ']') {
+              return close(Event.END_ARRAY);
+            } // if
+            expect(ch, ',', "Expected ',' or ']'", "Unterminated array");
+            this.stack[level] = ARRAY_VALUE;
+            break;
+          case OBJECT_START:
+          case OBJECT_KEY:
+            if (ch == '}' && this.stack[level] == OBJECT_START) {
+              return close(Event.END_OBJECT);
+            } // if
+            return fieldName(ch);
+          case OBJECT_COLON:
+            expect(ch, ':', "Expected ':' after key", "Expected ':' after key");
+            this.stack[level] = OBJECT_VALUE;
+            break;
+          case OBJECT_VALUE:
+            Event member = value(ch);
+            if (member != Event.NEED_INPUT) {
+              this.stack[level] = OBJECT_NEXT;
+            } // if
+            return member;
+          default:
+            if (ch == '}') {
+              return close(Event.END_OBJECT);
+            } // if
+            expect(ch, ',', "Expected ',' or '}'", "Unterminated object");
+            this.stack[level] = OBJECT_KEY;
+            break;
+        } // switch
+      } // while
+    } catch (IOException e) {
+      // The lexer has no stream behind it, so it never reads
+      throw new IllegalStateException(e);
+    } // try/catch
+  } // step()
+
+  /**
+   * Handle the value that starts with ch, or return NEED_INPUT if it is
+   * not all here yet.
+   */
+  Event value(int ch) throws ParseException, IOException {
+    if (!ready(ch)) {
+      return Event.NEED_INPUT;
+    } // if
+    switch (ch) {
+      case '{':
+        this.lexer.advance();
+        push(OBJECT_START);
+        return Event.START_OBJECT;
+      case '[':
+        this.lexer.advance();
+        push(ARRAY_START);
+        return Event.START_ARRAY;
+      case '"':
+        this.lexer.advance();
+        this.string = this.lexer.readJSONString(false);
+        scalar();
+        return Event.VALUE_STRING;
+      case 't':
+      case 'f':
+      case 'n':
+        JSONConstant constant = this.lexer.readConstant();
+        scalar();
+        if (constant == JSONConstant.TRUE) {
+          return Event.VALUE_TRUE;
+        } else if (constant == JSONConstant.FALSE) {
+          return Event.VALUE_FALSE;
+        } else {
+          return Event.VALUE_NULL;
+        } // if/else
+      case -1:
+        throw this.lexer.error("Unexpected end of file");
+      default:
+        if ((ch >= '0' && ch <= '9') || ch == '-') {
+          this.number = this.lexer.readNumber();
+          scalar();
+          return Event.VALUE_NUMBER;
+        } // if
+        throw this.lexer.error("Unexpected character: " + (char) ch);
+    } // switch
+  } // value(int)
+
+  /**
+   * Handle the field name that starts with ch, or return NEED_INPUT if it
+   * is not all here yet.
+   */
+  Event fieldName(int ch) throws ParseException, IOException {
+    if (ch == -1) {
+      throw this.lexer.error("Unterminated object");
+    } else if (ch != '"') {
+      throw this.lexer.error("Expected string key");
+    } else if (!ready(ch)) {
+      return Event.NEED_INPUT;
+    } // if/else
+    this.lexer.advance();
+    this.string = this.lexer.readKey(this.keyCache);
+    this.stack[this.depth - 1] = OBJECT_COLON;
+    return Event.FIELD_NAME;
+  } // fieldName(int)
+
+  /**
+   * Determine whether the whole of the token that starts with ch at the
+   * lexer's position has arrived.  A string is whole once we see its
+   * closing quotation mark; a number or constant, once we see the byte
+   * after it.  We remember how far we checked, so that a long token fed
+   * in many small chunks is only checked once.  A string that has already
+   * run past maxStringLength fails here, without waiting for its end.
+   */
+  boolean ready(int ch) throws ParseException {
+    if (this.ended || this.oversize) {
+      // Nothing more is coming, so the lexer reports what is missing
+      return true;
+    } // if
+    int start = this.lexer.pos;
+    if (this.tokenStart != start) {
+      this.tokenStart = start;
+      this.scanned = start + 1;
+    } // if
+    byte[] data = this.data;
+    int length = this.length;
+    int i = this.scanned;
+    if (ch == '"') {
+      while (i < length) {
+        byte b = data[i];
+        if (b == '"') {
+          return true;
+        } else if (b == '\\') {
+          // Wait for the whole escape, so that the lexer can check it
+          if (i + 1 == length || (data[i + 1] == 'u' && i + 6 > length)) {
+            break;
+          } // if
+          i += 2;
+        } else {
+          ++i;
+        } // if/else
+      } // while
+      if (i - (start + 1) > this.maxStringLength) {
+        this.lexer.pos = start + 1;
+        throw this.lexer.error("String is longer than the limit of " + this.maxStringLength);
+      } // if
+    } else if ((ch >= '0' && ch <= '9') || ch == '-') {
+      while (i < length && JSONLexer.isNumberChar(data[i])) {
+        ++i;
+      } // while
+      if (i < length) {
+        return true;
+      } // if
+    } else if (ch >= 'a' && ch <= 'z') {
+      while (i < length && JSONByteLexer.isLetter(data[i])) {
+        ++i;
+      } // while
+      if (i < length) {
+        return true;
+      } // if
+    } else {
+      return true;
+    } // if/else
+    this.scanned = i;
+    return false;
+  } // ready(int)
+
+  /**
+   * Check that ch is the separator we expect and consume it.
+   */
+  void expect(int ch, char expected, String message, String eofMessage)
+      throws ParseException {
+    if (ch == -1) {
+      throw this.lexer.error(eofMessage);
+    } else if (ch != expected) {
+      throw this.lexer.error(message);
+    } // if/else
+    this.lexer.advance();
+  } // expect(int, char, String, String)
+
+  /**
+   * Consume the close of the innermost container.
+   */
+  Event close(Event event) {
+    this.lexer.advance();
+    if (--this.depth == 0) {
+      this.done = true;
+    } // if
+    return event;
+  } // close(Event)
+
+  /**
+   * Note that a scalar value has been seen.
+   */
+  void scalar() {
+    if (this.depth == 0) {
+      this.done = true;
+    } // if
+  } // scalar()
+
+  /**
+   * Open a container, unless that takes us past maxDepth.
+   */
+  void push(byte state) throws ParseException {
+    if (this.depth >= this.maxDepth) {
+      throw this.lexer.error("Nesting is deeper than the limit of " + this.maxDepth);
+    } // if
+    if (this.depth == this.stack.length) {
+      byte[] bigger = new byte[this.stack.length * 2];
+      System.arraycopy(this.stack, 0, bigger, 0, this.depth);
+      this.stack = bigger;
+    } // if
+    this.stack[this.depth++] = state;
+  } // push(byte)
+
+  /**
+   * Add what event describes to the value result is building.
+   */
+  void build(Event event) {
+    switch (event) {
+      case START_OBJECT:
+      case START_ARRAY:
+        if (this.openCount == this.open.length) {
+          JSONValue[] open = new JSONValue[this.openCount * 2];
+          JSONString[] keys = new JSONString[this.openCount * 2];
+          System.arraycopy(this.open, 0, open, 0, this.openCount);
+          System.arraycopy(this.keys, 0, keys, 0, this.openCount);
+          this.open = open;
+          this.keys = keys;
+        } // if
+        this.open[this.openCount++] =
+            (event == Event.START_OBJECT) ? new JSONHash() : new JSONArray();
+        break;
+      case END_OBJECT:
+      case END_ARRAY:
+        JSONValue container = this.open[--this.openCount];
+        this.open[this.openCount] = null;
+        add(container);
+        break;
+      case FIELD_NAME:
+        this.keys[this.openCount - 1] = this.string;
+        break;
+      case VALUE_STRING:
+        add(this.string);
+        break;
+      case VALUE_NUMBER:
+        add(this.number);
+        break;
+      case VALUE_TRUE:
+        add(JSONConstant.TRUE);
+        break;
+      case VALUE_FALSE:
+        add(JSONConstant.FALSE);
+        break;
+      default:
+        add(JSONConstant.NULL);
+        break;
+    } // switch
+  } // build(Event)
+
+  /**
+   * Add a finished value to the innermost container, or make it the
+   * result if there is none.
+   */
+  void add(JSONValue value) {
+    if (this.openCount == 0) {
+      this.root = value;
+      return;
+    } // if
+    JSONValue container = this.open[this.openCount - 1];
+    if (container instanceof JSONArray) {
+      ((JSONArray) container).add(value);
+    } else {
+      ((JSONHash) container).set(this.keys[this.openCount - 1], value);
+      this.keys[this.openCount - 1] = null;
+    } // if/else
+  } // add(JSONValue)
+
+} // class JSONPushParser
@@ -9,15 +9,49 @@ import java.math.BigDecimal;
  */
 public class JSONReal implements JSONValue {
 
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * The powers of ten that a double holds exactly.
+   */
+  static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+    1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  /**
+   * Integers below this size (2^53) are held exactly by a double.
+   */
+  static final long EXACT_DOUBLE_LIMIT = 1L << 53;
+
   // +--------+------------------------------------------------------
   // | Fields |
   // +--------+
 
   /**
-   * The underlying double.
+   * The underlying decimal.  Null until someone asks for it when the
+   * value is held in unscaled and scale.
    */
   BigDecimal value;
 
+  /**
+   * The digits of the value, without the decimal point, when they fit in
+   * a long.  As with BigDecimal, the value is unscaled * 10^-scale.
+   */
+  long unscaled;
+
+  /**
+   * Where the decimal point goes in unscaled.
+   */
+  int scale;
+
+  /**
+   * Whether the value is held in unscaled and scale.
+   */
+  boolean isCompact;
+
   // +--------------+------------------------------------------------
   // | Constructors |
   // +--------------+
@@ -43,25 +77,43 @@ public class JSONReal implements JSONValue {
     this.value = BigDecimal.valueOf(d);
   } // JSONReal(double)
 
+  /**
+   * Create a new real whose value is unscaled * 10^-scale, as with
+   * BigDecimal.valueOf(long, int).
+   */
+  public JSONReal(long unscaled, int scale) {
+    this.unscaled = unscaled;
+    this.scale = scale;
+    this.isCompact = true;
+  } // JSONReal(long, int)
+
   // +-------------------------+-------------------------------------
   // | Standard object methods |
   // +-------------------------+
 
   /**
-   * Convert to a string (e.g., for printing).
+   * Convert to a string (e.g., for printing).  Gives the same result as
+   * BigDecimal.toString.
    */
   public String toString() {
-    return this.value.toString();
+    return this.isCompact ? layout(this.unscaled, this.scale) : this.value.toString();
   } // toString()
 
   /**
    * Compare to another object.
    */
   public boolean equals(Object other) {
+    if (other instanceof JSONReal) {
+      JSONReal that = (JSONReal) other;
+      if (this.isCompact && that.isCompact) {
+        return this.unscaled == that.unscaled && this.scale == that.scale;
+      } // if
+      return this.getValue().equals(that.getValue());
+    } // if(other instanceof JSONReal)
     if (other instanceof BigDecimal) {
-      if (this.value.equals(other)) {
+      if (this.getValue().equals(other)) {
         return true;
-      } // if(this.value.equals(other))
+      } // if(this.getValue().equals(other))
     } // if(other instanceof BigDecimal)
     return false;
   } // equals(Object)
@@ -70,7 +122,7 @@ public class JSONReal implements JSONValue {
    * Compute the hash code.
    */
   public int hashCode() {
-    return this.value.hashCode();
+    return this.getValue().hashCode();
   } // hashCode()
 
   // +--------------------+------------------------------------------
@@ -81,14 +133,86 @@ public class JSONReal implements JSONValue {
    * Write the value as JSON.
    */
   public void writeJSON(PrintWriter pen) {
-    pen.write(this.value.toString()); // !!! Check this
+    pen.write(this.toString());
   } // writeJSON(PrintWriter)
 
   /**
    * Get the underlying value.
    */
   public BigDecimal getValue() {
+    if (this.value == null) {
+      this.value = BigDecimal.valueOf(this.unscaled, this.scale);
+    } // if
     return this.value;
   } // getValue()
 
+  /**
+   * Get the value as a double, rounded to the nearest double.
+   */
+  public double doubleValue() {
+    return this.isCompact ? doubleValue(this.unscaled, this.scale)
+        : this.getValue().doubleValue();
+  } // doubleValue()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Get unscaled * 10^-scale as a double, rounded to the nearest double.
+   */
+  static double doubleValue(long unscaled, int scale) {
+    if (Math.abs(unscaled) < EXACT_DOUBLE_LIMIT) {
+      // Both operands are exact, so one division or multiplication
+      // rounds correctly.
+      if (scale >= 0 && scale < POWERS_OF_TEN.length) {
+        return unscaled / POWERS_OF_TEN[scale];
+      } else if (scale < 0 && -scale < POWERS_OF_TEN.length) {
+        return unscaled * POWERS_OF_TEN[-scale];
+      } // if/else
+    } // if
+    return BigDecimal.valueOf(unscaled, scale).doubleValue();
+  } // doubleValue(long, int)
+
+  /**
+   * Print unscaled * 10^-scale the way BigDecimal.toString does.
+   */
+  static String layout(long unscaled, int scale) {
+    if (scale == 0) {
+      return Long.toString(unscaled);
+    } // if
+    String digits = Long.toString(Math.abs(unscaled));
+    int len = digits.length();
+    long adjusted = -(long) scale + (len - 1);
+    StringBuilder builder = new StringBuilder(len + 16);
+    if (unscaled < 0) {
+      builder.append('-');
+    } // if
+    if (scale > 0 && adjusted >= -6) {
+      // Plain notation
+      int point = len - scale;
+      if (point > 0) {
+        builder.append(digits, 0, point).append('.').append(digits, point, len);
+      } else {
+        builder.append("0.");
+        for (int i = point; i < 0; i++) {
+          builder.append('0');
+        } // for
+        builder.append(digits);
+      } // if/else
+    } else {
+      // Scientific notation
+      builder.append(digits.charAt(0));
+      if (len > 1) {
+        builder.append('.').append(digits, 1, len);
+      } // if
+      builder.append('E');
+      if (adjusted > 0) {
+        builder.append('+');
+      } // if
+      builder.append(adjusted);
+    } // if/else
+    return builder.toString();
+  } // layout(long, int)
+
 } // class JSONReal
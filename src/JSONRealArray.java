@@ -0,0 +1,106 @@
+package src;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * A JSON array of reals, held as the digits of each real in a long[] and
+ * where its decimal point goes in a byte[], so that every real keeps its
+ * exact value and form.  Only reals whose digits fit in a long and whose
+ * scale fits in a byte (nearly all of them) are held this way.  See
+ * JSONPrimitiveArray.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+class JSONRealArray extends JSONPrimitiveArray {
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The digits of the elements, while we are primitive.
+   */
+  long[] unscaled = new long[INITIAL_CAPACITY];
+
+  /**
+   * The scales of the elements, while we are primitive.
+   */
+  byte[] scales = new byte[INITIAL_CAPACITY];
+
+  // +--------------+------------------------------------------------
+  // | Bulk methods |
+  // +--------------+
+
+  @Override
+  public double[] toDoubleArray() {
+    if (!this.primitive) {
+      return super.toDoubleArray();
+    } // if
+    double[] result = new double[this.count];
+    for (int i = 0; i < this.count; i++) {
+      result[i] = JSONReal.doubleValue(this.unscaled[i], this.scales[i]);
+    } // for
+    return result;
+  } // toDoubleArray()
+
+  @Override
+  public DoubleStream doubleStream() {
+    if (!this.primitive) {
+      return super.doubleStream();
+    } // if
+    long[] unscaled = this.unscaled;
+    byte[] scales = this.scales;
+    return IntStream.range(0, this.count)
+        .mapToDouble(i -> JSONReal.doubleValue(unscaled[i], scales[i]));
+  } // doubleStream()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Determine whether we can hold real.
+   */
+  static boolean fits(JSONReal real) {
+    return real.isCompact && real.scale == (byte) real.scale;
+  } // fits(JSONReal)
+
+  @Override
+  JSONValue box(int i) {
+    return new JSONReal(this.unscaled[i], this.scales[i]);
+  } // box(int)
+
+  @Override
+  boolean store(int i, JSONValue value) {
+    if (!(value instanceof JSONReal) || !fits((JSONReal) value)) {
+      return false;
+    } // if
+    if (i == this.unscaled.length) {
+      this.unscaled = Arrays.copyOf(this.unscaled, i * 2);
+      this.scales = Arrays.copyOf(this.scales, i * 2);
+    } // if
+    JSONReal real = (JSONReal) value;
+    this.unscaled[i] = real.unscaled;
+    this.scales[i] = (byte) real.scale;
+    return true;
+  } // store(int, JSONValue)
+
+  @Override
+  void trim() {
+    if (this.primitive && this.unscaled.length != this.count) {
+      this.unscaled = Arrays.copyOf(this.unscaled, this.count);
+      this.scales = Arrays.copyOf(this.scales, this.count);
+    } // if
+  } // trim()
+
+  @Override
+  void release() {
+    this.unscaled = null;
+    this.scales = null;
+  } // release()
+
+} // class JSONRealArray
@@ -0,0 +1,523 @@
+package src;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+
+/**
+ * A pull parser for JSON.  Rather than building a whole tree, the reader
+ * hands back one event at a time (the start of an object, a field name,
+ * a string value, and so on).  Callers that only care about a few fields
+ * can skip everything else with skipChildren or skipValue, which scan
+ * past the input without building anything.
+ *
+ * The reader only remembers one entry per level of nesting, so its memory
+ * use does not depend on the size of the document.  Strings and numbers
+ * are not built unless someone asks for them with getString or getNumber.
+ *
+ * As with JSONParser, input from untrusted sources can be held to limits
+ * on its depth, its size, and the length of its strings (setMaxDepth,
+ * setMaxDocumentSize, and setMaxStringLength).  Depth is limited to
+ * JSONParser.DEFAULT_MAX_DEPTH unless set otherwise, whether the input
+ * is read event by event, skipped, or read as a tree, so that code that
+ * walks the events recursively cannot be driven arbitrarily deep.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONStreamReader {
+
+  // +-------+-------------------------------------------------------
+  // | Types |
+  // +-------+
+
+  /**
+   * The kinds of events the reader produces.  Only JSONPushParser, which
+   * cannot wait for input, ever produces NEED_INPUT.
+   */
+  public enum Event {
+    START_OBJECT, END_OBJECT, START_ARRAY, END_ARRAY, FIELD_NAME, VALUE_STRING,
+    VALUE_NUMBER, VALUE_TRUE, VALUE_FALSE, VALUE_NULL, END_DOCUMENT, NEED_INPUT
+  } // enum Event
+
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * Just inside an array, expecting a value or the close.
+   */
+  static final byte ARRAY_START = 0;
+
+  /**
+   * After a value in an array, expecting a comma or the close.
+   */
+  static final byte ARRAY_NEXT = 1;
+
+  /**
+   * Just inside an object, expecting a field name or the close.
+   */
+  static final byte OBJECT_START = 2;
+
+  /**
+   * After a field name, expecting a colon and a value.
+   */
+  static final byte OBJECT_VALUE = 3;
+
+  /**
+   * After a value in an object, expecting a comma or the close.
+   */
+  static final byte OBJECT_NEXT = 4;
+
+  /**
+   * No string or number waiting to be read.
+   */
+  static final byte NONE = 0;
+
+  /**
+   * The body of a string value is waiting to be read.
+   */
+  static final byte STRING = 1;
+
+  /**
+   * A number is waiting to be read.
+   */
+  static final byte NUMBER = 2;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The lexer that supplies our tokens.
+   */
+  JSONLexer lexer;
+
+  /**
+   * One state per open container, innermost last.
+   */
+  byte[] stack;
+
+  /**
+   * How many containers are open.
+   */
+  int depth;
+
+  /**
+   * Whether we have read the top-level value.
+   */
+  boolean done;
+
+  /**
+   * The most recent event.
+   */
+  Event event;
+
+  /**
+   * The kind of token that the most recent event announced but that we
+   * have not yet read (NONE, STRING, or NUMBER).
+   */
+  byte pending;
+
+  /**
+   * The current field name or string value, once read.
+   */
+  String string;
+
+  /**
+   * The current field name as a key, shared through the key cache, after
+   * FIELD_NAME.
+   */
+  JSONString key;
+
+  /**
+   * The current number, once read.
+   */
+  JSONValue number;
+
+  /**
+   * A parser over the same lexer, for readValue.
+   */
+  JSONParser parser;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build a reader over a stream of characters.
+   */
+  public JSONStreamReader(Reader source) {
+    this(new JSONCharLexer(source));
+  } // JSONStreamReader(Reader)
+
+  /**
+   * Build a reader over a string.
+   */
+  public JSONStreamReader(String source) {
+    this(new JSONCharLexer(source.toCharArray(), 0, source.length()));
+  } // JSONStreamReader(String)
+
+  /**
+   * Build a reader over a stream of UTF-8 bytes.
+   */
+  public JSONStreamReader(InputStream source) {
+    this(new JSONByteLexer(source));
+  } // JSONStreamReader(InputStream)
+
+  /**
+   * Build a reader over the remaining UTF-8 bytes of a buffer.
+   */
+  public JSONStreamReader(ByteBuffer source) {
+    this(new JSONByteLexer(source));
+  } // JSONStreamReader(ByteBuffer)
+
+  /**
+   * Build a reader over an array of UTF-8 bytes.
+   */
+  public JSONStreamReader(byte[] source) {
+    this(ByteBuffer.wrap(source));
+  } // JSONStreamReader(byte[])
+
+  /**
+   * Build a reader that takes tokens from lexer.
+   */
+  JSONStreamReader(JSONLexer lexer) {
+    this.lexer = lexer;
+    this.stack = new byte[16];
+    this.parser = new JSONParser(lexer);
+  } // JSONStreamReader(JSONLexer)
+
+  // +--------+------------------------------------------------------
+  // | Limits |
+  // +--------+
+
+  /**
+   * Allow objects and arrays to nest at most depth levels deep, failing
+   * with a ParseException as soon as the input goes deeper.  A depth of
+   * 0 allows only strings, numbers, and constants.  The default is
+   * JSONParser.DEFAULT_MAX_DEPTH.
+   */
+  public void setMaxDepth(int depth) {
+    this.parser.setMaxDepth(depth);
+  } // setMaxDepth(int)
+
+  /**
+   * Allow at most length units (characters, or for byte input, bytes)
+   * in the body of a string or key, escapes included, whether it is read
+   * or skipped.  There is no limit unless one is set.
+   */
+  public void setMaxStringLength(int length) {
+    this.parser.setMaxStringLength(length);
+  } // setMaxStringLength(int)
+
+  /**
+   * Allow at most size units (characters, or for byte input, bytes) of
+   * input.  There is no limit unless one is set.  Call before reading.
+   */
+  public void setMaxDocumentSize(long size) {
+    this.parser.setMaxDocumentSize(size);
+  } // setMaxDocumentSize(long)
+
+  // +--------+------------------------------------------------------
+  // | Events |
+  // +--------+
+
+  /**
+   * Move to the next event and return it.
+   */
+  public Event next() throws ParseException, IOException {
+    skipPending();
+    this.string = null;
+    this.number = null;
+    int ch = this.lexer.skipWhitespace();
+    if (this.depth == 0) {
+      if (this.done) {
+        if (ch != -1) {
+          throw this.lexer.error("Characters remain at end");
+        } // if
+        return this.event = Event.END_DOCUMENT;
+      } // if
+      return this.event = value(ch);
+    } // if
+    switch (this.stack[this.depth - 1]) {
+      case ARRAY_START:
+        if (ch == ']') {
+          return this.event = close(Event.END_ARRAY);
+        } // if
+        this.stack[this.depth - 1] = ARRAY_NEXT;
+        return this.event = value(ch);
+      case ARRAY_NEXT:
+        if (ch == ']') {
+          return this.event = close(Event.END_ARRAY);
+        } // if
+        expect(ch, ',', "Expected ',' or ']'", "Unterminated array");
+        return this.event = value(this.lexer.skipWhitespace());
+      case OBJECT_START:
+        if (ch == '}') {
+          return this.event = close(Event.END_OBJECT);
+        } // if
+        return this.event = fieldName(ch);
+      case OBJECT_NEXT:
+        if (ch == '}') {
+          return this.event = close(Event.END_OBJECT);
+        } // if
+        expect(ch, ',', "Expected ',' or '}'", "Unterminated object");
+        return this.event = fieldName(this.lexer.skipWhitespace());
+      default:
+        expect(ch, ':', "Expected ':' after key", "Unterminated object");
+        this.stack[this.depth - 1] = OBJECT_NEXT;
+        return this.event = value(this.lexer.skipWhitespace());
+    } // switch
+  } // next()
+
+  /**
+   * Get the most recent event, or null before the first call to next.
+   */
+  public Event getEvent() {
+    return this.event;
+  } // getEvent()
+
+  /**
+   * Determine whether there are more events before the end of the
+   * document.
+   */
+  public boolean hasNext() {
+    return this.event != Event.END_DOCUMENT;
+  } // hasNext()
+
+  /**
+   * Get the field name (after FIELD_NAME) or string (after VALUE_STRING).
+   */
+  public String getString() throws ParseException, IOException {
+    if (this.pending == STRING) {
+      this.pending = NONE;
+      this.string = this.lexer.readString();
+    } else if (this.event != Event.FIELD_NAME && this.event != Event.VALUE_STRING) {
+      throw new IllegalStateException("No string at " + this.event);
+    } // if/else
+    return this.string;
+  } // getString()
+
+  /**
+   * Get the number (after VALUE_NUMBER), as a JSONInteger or JSONReal.
+   */
+  public JSONValue getNumber() throws ParseException, IOException {
+    if (this.pending == NUMBER) {
+      this.pending = NONE;
+      this.number = this.lexer.readNumber();
+    } else if (this.event != Event.VALUE_NUMBER) {
+      throw new IllegalStateException("No number at " + this.event);
+    } // if/else
+    return this.number;
+  } // getNumber()
+
+  /**
+   * Get the current nesting depth: the number of open objects and arrays.
+   */
+  public int getDepth() {
+    return this.depth;
+  } // getDepth()
+
+  // +----------+----------------------------------------------------
+  // | Skipping |
+  // +----------+
+
+  /**
+   * After START_OBJECT or START_ARRAY, skip to the matching END_OBJECT or
+   * END_ARRAY without building anything.  Does nothing after other events.
+   */
+  public void skipChildren() throws ParseException, IOException {
+    if (this.event != Event.START_OBJECT && this.event != Event.START_ARRAY) {
+      return;
+    } // if
+    this.lexer.skipContainer(this.depth, this.parser.maxDepth);
+    this.event = (this.event == Event.START_OBJECT) ? Event.END_OBJECT : Event.END_ARRAY;
+    pop();
+  } // skipChildren()
+
+  /**
+   * Skip the next value (for example, the value after a FIELD_NAME) along
+   * with everything inside it.
+   */
+  public void skipValue() throws ParseException, IOException {
+    next();
+    skipChildren();
+  } // skipValue()
+
+  /**
+   * Read the next value (for example, the value after a FIELD_NAME) as a
+   * JSONValue tree.
+   */
+  public JSONValue readValue() throws ParseException, IOException {
+    next();
+    return readCurrent();
+  } // readValue()
+
+  /**
+   * Read the value that the most recent event starts (START_OBJECT,
+   * START_ARRAY, or a VALUE_ event) as a JSONValue tree.  Afterwards the
+   * reader is at the end of that value.
+   */
+  public JSONValue readCurrent() throws ParseException, IOException {
+    switch (this.event) {
+      case START_OBJECT:
+        pop();
+        this.parser.nesting = this.depth;
+        JSONValue object = this.parser.parseObject();
+        this.event = Event.END_OBJECT;
+        return object;
+      case START_ARRAY:
+        pop();
+        this.parser.nesting = this.depth;
+        JSONValue array = this.parser.parseArray();
+        this.event = Event.END_ARRAY;
+        return array;
+      case VALUE_STRING:
+        return new JSONString(getString());
+      case VALUE_NUMBER:
+        return getNumber();
+      case VALUE_TRUE:
+        return JSONConstant.TRUE;
+      case VALUE_FALSE:
+        return JSONConstant.FALSE;
+      case VALUE_NULL:
+        return JSONConstant.NULL;
+      default:
+        throw new IllegalStateException("No value at " + this.event);
+    } // switch
+  } // readCurrent()
+
+  // +---------+-----------------------------------------------------
+  // | Helpers |
+  // +---------+
+
+  /**
+   * Handle the value that starts with ch.
+   */
+  Event value(int ch) throws ParseException, IOException {
+    switch (ch) {
+      case '{':
+        this.lexer.advance();
+        push(OBJECT_START);
+        return Event.START_OBJECT;
+      case '[':
+        this.lexer.advance();
+        push(ARRAY_START);
+        return Event.START_ARRAY;
+      case '"':
+        this.lexer.advance();
+        this.pending = STRING;
+        scalar();
+        return Event.VALUE_STRING;
+      case 't':
+      case 'f':
+      case 'n':
+        JSONConstant constant = this.lexer.readConstant();
+        scalar();
+        if (constant == JSONConstant.TRUE) {
+          return Event.VALUE_TRUE;
+        } else if (constant == JSONConstant.FALSE) {
+          return Event.VALUE_FALSE;
+        } else {
+          return Event.VALUE_NULL;
+        } // if/else
+      case -1:
+        throw this.lexer.error("Unexpected end of file");
+      default:
+        if ((ch >= '0' && ch <= '9') || ch == '-') {
+          this.pending = NUMBER;
+          scalar();
+          return Event.VALUE_NUMBER;
+        } // if
+        throw this.lexer.error("Unexpected character: " + (char) ch);
+    } // switch
+  } // value(int)
+
+  /**
+   * Handle the field name that starts with ch.
+   */
+  Event fieldName(int ch) throws ParseException, IOException {
+    if (ch == -1) {
+      throw this.lexer.error("Unterminated object");
+    } else if (ch != '"') {
+      throw this.lexer.error("Expected string key");
+    } // if/else
+    this.lexer.advance();
+    this.key = this.lexer.readKey(this.parser.keyCache);
+    this.string = this.key.getValue();
+    this.stack[this.depth - 1] = OBJECT_VALUE;
+    return Event.FIELD_NAME;
+  } // fieldName(int)
+
+  /**
+   * Check that ch is the separator we expect and consume it.
+   */
+  void expect(int ch, char expected, String message, String eofMessage)
+      throws ParseException {
+    if (ch == -1) {
+      throw this.lexer.error(eofMessage);
+    } else if (ch != expected) {
+      throw this.lexer.error(message);
+    } // if/else
+    this.lexer.advance();
+  } // expect(int, char, String, String)
+
+  /**
+   * Consume the close of the innermost container.
+   */
+  Event close(Event event) {
+    this.lexer.advance();
+    pop();
+    return event;
+  } // close(Event)
+
+  /**
+   * Note that a scalar value has been seen.
+   */
+  void scalar() {
+    if (this.depth == 0) {
+      this.done = true;
+    } // if
+  } // scalar()
+
+  /**
+   * Open a container, unless that takes us past the parser's maxDepth.
+   */
+  void push(byte state) throws ParseException {
+    if (this.depth >= this.parser.maxDepth) {
+      throw this.lexer.error("Nesting is deeper than the limit of " + this.parser.maxDepth);
+    } // if
+    if (this.depth == this.stack.length) {
+      byte[] bigger = new byte[this.stack.length * 2];
+      System.arraycopy(this.stack, 0, bigger, 0, this.depth);
+      this.stack = bigger;
+    } // if
+    this.stack[this.depth++] = state;
+  } // push(byte)
+
+  /**
+   * Close the innermost container.
+   */
+  void pop() {
+    if (--this.depth == 0) {
+      this.done = true;
+    } // if
+  } // pop()
+
+  /**
+   * Move past any string or number that was announced but not read.
+   */
+  void skipPending() throws ParseException, IOException {
+    if (this.pending == STRING) {
+      this.lexer.skipString();
+    } else if (this.pending == NUMBER) {
+      this.lexer.skipNumber();
+    } // if/else
+    this.pending = NONE;
+  } // skipPending()
+
+} // class JSONStreamReader
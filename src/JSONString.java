@@ -1,87 +1,129 @@
-package src;
-
-import java.io.PrintWriter;
-import java.util.*;
-
-/**
- * Author: Christina Vu, Joyce Gill, Livia Stein Freitas
- * JSON strings.
- */
-public class JSONString implements JSONValue {
-
-  // +--------+------------------------------------------------------
-  // | Fields |
-  // +--------+
-
-  /**
-   * The underlying string.
-   */
-  String value;
-
-  // +--------------+------------------------------------------------
-  // | Constructors |
-  // +--------------+
-
-  /**
-   * Build a new JSON string for a particular string.
-   */
-  public JSONString(String value) {
-    this.value = value;
-  } // JSONString(String)
-
-  // +-------------------------+-------------------------------------
-  // | Standard object methods |
-  // +-------------------------+
-
-  /**
-   * Convert to a string (e.g., for printing).
-   */
-  public String toString() {
-    if (value == null) {
-      return "null";
-    } else {
-      return this.value.toString();
-    } // else
-  } // toString()
-
-  /**
-   * Compare to another object.
-   */
-  public boolean equals(Object other) {
-    JSONString js = (JSONString) other;
-    if (this.getClass() != other.getClass() || other == null) {
-      return false;
-    } // if
-    // Compare fields of both
-    return Objects.equals(value, js.value);
-  } // equals(Object)
-
-  /**
-   * Compute the hash code.
-   */
-  public int hashCode() {
-    if (this.value == null)
-      return 0;
-    else
-      return this.value.hashCode();
-  } // hashCode()
-
-  // +--------------------+------------------------------------------
-  // | Additional methods |
-  // +--------------------+
-
-  /**
-   * Write the value as JSON.
-   */
-  public void writeJSON(PrintWriter pen) {
-    pen.write("\"\\" + this.value + "\"");
-  } // writeJSON(PrintWriter)
-
-  /**
-   * Get the underlying value.
-   */
-  public String getValue() {
-    return this.value;
-  } // getValue()
-
-} // class JSONString
+package src;
+
+import java.io.PrintWriter;
+import java.util.*;
+
+/**
+ * Author: Christina Vu, Joyce Gill, Livia Stein Freitas
+ * JSON strings.
+ *
+ * A string may also be lazy: rather than a String, it remembers where its
+ * body sits in the input the parser kept, and only builds the String the
+ * first time someone asks for it.  A lazy string that is written back out
+ * before anyone looks at it copies its body straight from the input.
+ */
+public class JSONString implements JSONValue {
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The underlying string.
+   */
+  String value;
+
+  /**
+   * For a lazy string, the lexer that holds the input.  Null otherwise.
+   */
+  JSONLexer source;
+
+  /**
+   * For a lazy string, the index of the body in the lexer's buffer.
+   */
+  int start;
+
+  /**
+   * For a lazy string, the index just past the end of the body.
+   */
+  int end;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build a new JSON string for a particular string.
+   */
+  public JSONString(String value) {
+    this.value = value;
+  } // JSONString(String)
+
+  /**
+   * Build a lazy JSON string whose body is between indices start and end
+   * of source's buffer.  The buffer must hold the whole input.
+   */
+  JSONString(JSONLexer source, int start, int end) {
+    this.source = source;
+    this.start = start;
+    this.end = end;
+  } // JSONString(JSONLexer, int, int)
+
+  // +-------------------------+-------------------------------------
+  // | Standard object methods |
+  // +-------------------------+
+
+  /**
+   * Convert to a string (e.g., for printing).
+   */
+  public String toString() {
+    String value = this.getValue();
+    if (value == null) {
+      return "null";
+    } else {
+      return value;
+    } // else
+  } // toString()
+
+  /**
+   * Compare to another object.
+   */
+  public boolean equals(Object other) {
+    if (other == null || this.getClass() != other.getClass()) {
+      return false;
+    } // if
+    JSONString js = (JSONString) other;
+    // Compare fields of both
+    return Objects.equals(this.getValue(), js.getValue());
+  } // equals(Object)
+
+  /**
+   * Compute the hash code.
+   */
+  public int hashCode() {
+    String value = this.getValue();
+    if (value == null)
+      return 0;
+    else
+      return value.hashCode();
+  } // hashCode()
+
+  // +--------------------+------------------------------------------
+  // | Additional methods |
+  // +--------------------+
+
+  /**
+   * Write the value as JSON.
+   */
+  public void writeJSON(PrintWriter pen) {
+    new JSONWriter(pen).writeString(this);
+  } // writeJSON(PrintWriter)
+
+  /**
+   * Get the underlying value.
+   */
+  public String getValue() {
+    if (this.value == null && this.source != null) {
+      this.value = this.source.string(this.start, this.end);
+    } // if
+    return this.value;
+  } // getValue()
+
+  /**
+   * Determine if this string has not yet been built from its input.
+   */
+  boolean isLazy() {
+    return this.value == null && this.source != null;
+  } // isLazy()
+
+} // class JSONString
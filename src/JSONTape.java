@@ -0,0 +1,314 @@
+package src;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Arrays;
+
+/**
+ * A structural index of a whole JSON document.  One pass over the input
+ * checks the syntax and records every value on a tape of longs, in
+ * document order, without building any JSONValues.  Lazy hashes and
+ * arrays then build their children from the tape only when someone asks
+ * for them.
+ *
+ * Every value takes two longs.  The first holds the kind of value in its
+ * top byte; the rest of the two longs depend on the kind:
+ *
+ *   OBJECT, ARRAY: the tape index just past the container's contents, and
+ *     the number of pairs or elements.
+ *   STRING, ESCAPED_STRING, NUMBER: the indices in the lexer's buffer at
+ *     which the value (for strings, the body) starts and ends.
+ *   TRUE, FALSE, NULL: nothing.
+ *
+ * The contents of an object are its pairs, each a key (a string) followed
+ * by a value.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+class JSONTape {
+
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  static final int OBJECT = 1;
+  static final int ARRAY = 2;
+  static final int STRING = 3;
+  static final int ESCAPED_STRING = 4;
+  static final int NUMBER = 5;
+  static final int TRUE = 6;
+  static final int FALSE = 7;
+  static final int NULL = 8;
+
+  /**
+   * The bits of the first long that are not the kind.
+   */
+  static final long PAYLOAD = (1L << 56) - 1;
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * The lexer, whose buffer holds the whole input.
+   */
+  JSONLexer lexer;
+
+  /**
+   * Shares keys between objects (null if we do not cache keys).
+   */
+  JSONKeyCache keyCache;
+
+  /**
+   * How deeply objects and arrays may nest.
+   */
+  int maxDepth = JSONParser.DEFAULT_MAX_DEPTH;
+
+  /**
+   * The most entries one object or array may hold.
+   */
+  int maxEntries = Integer.MAX_VALUE;
+
+  /**
+   * The tape.
+   */
+  long[] tape;
+
+  /**
+   * The number of longs in use.
+   */
+  int size;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build an empty tape over the input in lexer's buffer.
+   */
+  JSONTape(JSONLexer lexer, JSONKeyCache keyCache) {
+    this.lexer = lexer;
+    this.keyCache = keyCache;
+    this.tape = new long[Math.max(16, (lexer.limit - lexer.pos) / 16)];
+  } // JSONTape(JSONLexer, JSONKeyCache)
+
+  // +----------+----------------------------------------------------
+  // | Scanning |
+  // +----------+
+
+  /**
+   * Record the next value in the input, with everything inside it.
+   */
+  void scan() throws ParseException, IOException {
+    JSONLexer lexer = this.lexer;
+    // The tape indices of the open containers, innermost last
+    int[] open = new int[16];
+    int depth = 0;
+    int ch = lexer.skipWhitespace();
+    while (true) {
+      // ch starts a value
+      switch (ch) {
+        case '{':
+        case '[':
+          lexer.advance();
+          if (depth >= this.maxDepth) {
+            throw lexer.error("Nesting is deeper than the limit of " + this.maxDepth);
+          } else if (depth == open.length) {
+            open = Arrays.copyOf(open, depth * 2);
+          } // if
+          open[depth++] = this.size;
+          add((ch == '{') ? OBJECT : ARRAY, 0, 0);
+          int close = (ch == '{') ? '}' : ']';
+          ch = lexer.skipWhitespace();
+          if (ch != close) {
+            ch = (close == '}') ? scanKey(ch) : ch;
+            continue;
+          } // if
+          lexer.advance();
+          end(open[--depth]);
+          break;
+        case '"':
+          lexer.advance();
+          int start = lexer.scanString();
+          add(lexer.escaped ? ESCAPED_STRING : STRING, start, lexer.pos - 1);
+          break;
+        case 't':
+        case 'f':
+        case 'n':
+          JSONConstant constant = lexer.readConstant();
+          add((constant == JSONConstant.TRUE) ? TRUE
+              : (constant == JSONConstant.FALSE) ? FALSE : NULL, 0, 0);
+          break;
+        case -1:
+          throw lexer.error("Unexpected end of file");
+        default:
+          if ((ch >= '0' && ch <= '9') || ch == '-') {
+            int numberStart = lexer.scanNumber();
+            lexer.checkNumber(numberStart, lexer.pos);
+            add(NUMBER, numberStart, lexer.pos);
+            break;
+          } // if
+          throw lexer.error("Unexpected character: " + (char) ch);
+      } // switch
+
+      // We have finished a value, so count it and look for the next one
+      while (true) {
+        if (depth == 0) {
+          return;
+        } // if
+        int header = open[depth - 1];
+        if (++this.tape[header + 1] > this.maxEntries) {
+          throw lexer.error("More entries than the limit of " + this.maxEntries);
+        } // if
+        boolean object = kind(header) == OBJECT;
+        ch = lexer.skipWhitespace();
+        if (ch == ',') {
+          lexer.advance();
+          ch = lexer.skipWhitespace();
+          if (object) {
+            ch = scanKey(ch);
+          } // if
+          break;
+        } else if (ch == (object ? '}' : ']')) {
+          lexer.advance();
+          end(open[--depth]);
+        } else if (ch == -1) {
+          throw lexer.error(object ? "Unterminated object" : "Unterminated array");
+        } else {
+          throw lexer.error(object ? "Expected ',' or '}'" : "Expected ',' or ']'");
+        } // if/else
+      } // while
+    } // while
+  } // scan()
+
+  /**
+   * Record the key that starts with ch and read the colon after it.
+   * Returns the character that starts the value.
+   */
+  int scanKey(int ch) throws ParseException, IOException {
+    if (ch == -1) {
+      throw this.lexer.error("Unterminated object");
+    } else if (ch != '"') {
+      throw this.lexer.error("Expected string key");
+    } // if/else
+    this.lexer.advance();
+    int start = this.lexer.scanString();
+    add(this.lexer.escaped ? ESCAPED_STRING : STRING, start, this.lexer.pos - 1);
+    if (this.lexer.skipWhitespace() != ':') {
+      throw this.lexer.error("Expected ':' after key");
+    } // if
+    this.lexer.advance();
+    return this.lexer.skipWhitespace();
+  } // scanKey(int)
+
+  /**
+   * Add a value to the tape.
+   */
+  void add(int kind, long a, long b) {
+    if (this.size + 2 > this.tape.length) {
+      this.tape = Arrays.copyOf(this.tape, this.tape.length * 2);
+    } // if
+    this.tape[this.size++] = ((long) kind << 56) | a;
+    this.tape[this.size++] = b;
+  } // add(int, long, long)
+
+  /**
+   * Note that the container at tape index header ends here.
+   */
+  void end(int header) {
+    this.tape[header] |= this.size;
+  } // end(int)
+
+  // +---------+-----------------------------------------------------
+  // | Reading |
+  // +---------+
+
+  /**
+   * Get the kind of the value at tape index t.
+   */
+  int kind(int t) {
+    return (int) (this.tape[t] >>> 56);
+  } // kind(int)
+
+  /**
+   * Get the number of pairs or elements in the container at tape index t.
+   */
+  int count(int t) {
+    return (int) this.tape[t + 1];
+  } // count(int)
+
+  /**
+   * Get the tape index of the value after the one at tape index t.
+   */
+  int next(int t) {
+    int kind = kind(t);
+    return (kind == OBJECT || kind == ARRAY) ? (int) (this.tape[t] & PAYLOAD) : t + 2;
+  } // next(int)
+
+  /**
+   * Get the tape indices of the elements of the array at tape index t.
+   */
+  int[] elements(int t) {
+    int[] elements = new int[count(t)];
+    int child = t + 2;
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = child;
+      child = next(child);
+    } // for
+    return elements;
+  } // elements(int)
+
+  /**
+   * Build the value at tape index t.  Containers come back lazy, and so
+   * do strings.
+   */
+  JSONValue value(int t) {
+    int start = (int) (this.tape[t] & PAYLOAD);
+    int end = (int) this.tape[t + 1];
+    switch (kind(t)) {
+      case OBJECT:
+        return new JSONLazyHash(this, t);
+      case ARRAY:
+        return new JSONLazyArray(this, t);
+      case STRING:
+      case ESCAPED_STRING:
+        return new JSONString(this.lexer, start, end);
+      case NUMBER:
+        try {
+          return this.lexer.number(start, end);
+        } catch (ParseException e) {
+          // scan checked the number, scale and all
+          throw new AssertionError(e);
+        } // try/catch
+      case TRUE:
+        return JSONConstant.TRUE;
+      case FALSE:
+        return JSONConstant.FALSE;
+      default:
+        return JSONConstant.NULL;
+    } // switch
+  } // value(int)
+
+  /**
+   * Build the key at tape index t.
+   */
+  JSONString key(int t) {
+    return this.lexer.key((int) (this.tape[t] & PAYLOAD), (int) this.tape[t + 1],
+        kind(t) == ESCAPED_STRING, this.keyCache);
+  } // key(int)
+
+  /**
+   * Determine if the key at tape index t is str, without building it.
+   */
+  boolean keyEquals(int t, String str) {
+    int start = (int) (this.tape[t] & PAYLOAD);
+    int end = (int) this.tape[t + 1];
+    if (kind(t) == ESCAPED_STRING) {
+      return this.lexer.string(start, end, true).equals(str);
+    } // if
+    return this.lexer.matches(start, end, str);
+  } // keyEquals(int, String)
+
+} // class JSONTape
@@ -0,0 +1,169 @@
+package src;
+
+import java.io.PrintWriter;
+
+/**
+ * Writes JSON values as JSON text.  The writer walks the tree and sends
+ * each token straight to the pen, so nothing bigger than a single number
+ * is ever built in memory; the only extra space used is one stack frame
+ * per level of nesting.
+ *
+ * @author Christina Vu
+ * @author Joyce Gill
+ * @author Livia Stein Freitas
+ */
+public class JSONWriter {
+
+  // +-----------+---------------------------------------------------
+  // | Constants |
+  // +-----------+
+
+  /**
+   * Hex digits, for escaping control characters.
+   */
+  static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  // +--------+------------------------------------------------------
+  // | Fields |
+  // +--------+
+
+  /**
+   * Where the JSON goes.
+   */
+  PrintWriter pen;
+
+  // +--------------+------------------------------------------------
+  // | Constructors |
+  // +--------------+
+
+  /**
+   * Build a writer that writes to pen.
+   */
+  public JSONWriter(PrintWriter pen) {
+    this.pen = pen;
+  } // JSONWriter(PrintWriter)
+
+  // +---------+-----------------------------------------------------
+  // | Methods |
+  // +---------+
+
+  /**
+   * Write value as JSON.
+   */
+  public void write(JSONValue value) {
+    if (value == null) {
+      this.pen.write("null");
+    } else if (value instanceof JSONHash) {
+      writeHash((JSONHash) value);
+    } else if (value instanceof JSONArray) {
+      writeArray((JSONArray) value);
+    } else if (value instanceof JSONString) {
+      writeString((JSONString) value);
+    } else {
+      value.writeJSON(this.pen);
+    } // if/else
+  } // write(JSONValue)
+
+  /**
+   * Write an object.
+   */
+  public void writeHash(JSONHash hash) {
+    this.pen.write('{');
+    int size = hash.size();
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        this.pen.write(',');
+      } // if
+      writeString(hash.keyAt(i));
+      this.pen.write(':');
+      write(hash.valueAt(i));
+    } // for
+    this.pen.write('}');
+  } // writeHash(JSONHash)
+
+  /**
+   * Write an array.
+   */
+  public void writeArray(JSONArray array) {
+    this.pen.write('[');
+    int size = array.size();
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        this.pen.write(',');
+      } // if
+      write(array.get(i));
+    } // for
+    this.pen.write(']');
+  } // writeArray(JSONArray)
+
+  /**
+   * Write a JSON string.  A lazy string that has not been built yet is
+   * copied straight from its input, which is already escaped.
+   */
+  public void writeString(JSONString str) {
+    if (str.isLazy()) {
+      this.pen.write('"');
+      str.source.writeRaw(this.pen, str.start, str.end);
+      this.pen.write('"');
+    } else {
+      writeString(str.getValue());
+    } // if/else
+  } // writeString(JSONString)
+
+  /**
+   * Write a string, with quotation marks and escapes.
+   */
+  public void writeString(String str) {
+    if (str == null) {
+      this.pen.write("null");
+      return;
+    } // if
+    PrintWriter pen = this.pen;
+    pen.write('"');
+    int len = str.length();
+    int start = 0;
+    for (int i = 0; i < len; i++) {
+      char ch = str.charAt(i);
+      if (ch >= ' ' && ch != '"' && ch != '\\') {
+        continue;
+      } // if
+      if (i > start) {
+        pen.write(str, start, i - start);
+      } // if
+      start = i + 1;
+      switch (ch) {
+        case '"':
+          pen.write("\\\"");
+          break;
+        case '\\':
+          pen.write("\\\\");
+          break;
+        case '\n':
+          pen.write("\\n");
+          break;
+        case '\r':
+          pen.write("\\r");
+          break;
+        case '\t':
+          pen.write("\\t");
+          break;
+        case '\b':
+          pen.write("\\b");
+          break;
+        case '\f':
+          pen.write("\\f");
+          break;
+        default:
+          pen.write("\\u00");
+          pen.write(HEX[ch >> 4]);
+          pen.write(HEX[ch & 0xF]);
+          break;
+      } // switch
+    } // for
+    if (len > start) {
+      pen.write(str, start, len - start);
+    } // if
+    pen.write('"');
+  } // writeString(String)
+
+} // class JSONWriter
@@ -49,7 +49,7 @@ public class KVPair<K, V> {
    * Compare for equality.
    */
   public boolean equals(KVPair<K, V> other) {
-    return ((this.key.equals(other.key)) && (this.value.equals(other.value)));
+    return ((this.key().equals(other.key())) && (this.value().equals(other.value())));
   } // equals(KVPair<K,V>)
 
   /**
@@ -57,7 +57,7 @@ public class KVPair<K, V> {
    */
   @Override
   public String toString() {
-    return "<" + key + ":" + value + ">";
+    return "<" + key() + ":" + value() + ">";
   } // toString()
 
   // +---------+-----------------------------------------------------